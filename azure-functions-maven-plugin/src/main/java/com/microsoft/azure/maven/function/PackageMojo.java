@@ -16,6 +16,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.microsoft.azure.maven.model.DeploymentResource;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionStagingManifest;
 import com.microsoft.azure.toolkit.lib.common.utils.Utils;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 import com.microsoft.azure.toolkit.lib.legacy.function.bindings.Binding;
@@ -53,6 +54,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Scanner;
 import java.util.Set;
@@ -85,6 +87,9 @@ public class PackageMojo extends AbstractFunctionMojo {
     public static final String SKIP_INSTALL_EXTENSIONS_HTTP = "Skip install Function extension for HTTP Trigger Functions";
     public static final String INSTALL_EXTENSIONS_FINISH = "Function extension installation done.";
     public static final String BUILD_SUCCESS = "Successfully built Azure Functions.";
+    public static final String SKIP_UNCHANGED_FUNCTIONS = "Step 1-3, 6 of 8: Classes and dependencies are unchanged, " +
+            "skip searching functions and generating configurations.";
+    public static final String SKIP_UNCHANGED_EXTENSIONS = "host.json and bindings are unchanged, skip install extension";
 
     public static final String FUNCTION_JSON = "function.json";
     public static final String HOST_JSON = "host.json";
@@ -103,6 +108,11 @@ public class PackageMojo extends AbstractFunctionMojo {
     private static final String EXTENSION_BUNDLE_PREVIEW_ID = "Microsoft.Azure.Functions.ExtensionBundle.Preview";
     private static final String SKIP_INSTALL_EXTENSIONS_FLAG = "skipInstallExtensions flag is set, skip install extension";
     private static final String SKIP_INSTALL_EXTENSIONS_BUNDLE = "Extension bundle specified, skip install extension";
+    private static final String STEP_FUNCTIONS = "functions";
+    private static final String STEP_EXTENSIONS = "extensions";
+    private static final String PROPERTY_FUNCTIONS = "functions";
+    private static final String PROPERTY_BINDINGS = "bindings";
+    private static final String PROPERTY_BINDING_TYPES = "bindingTypes";
     private static final String CAN_NOT_FIND_ARTIFACT = "Cannot find the maven artifact, please run `mvn package` first.";
     //region Entry Point
 
@@ -112,40 +122,65 @@ public class PackageMojo extends AbstractFunctionMojo {
     @Parameter(property = "functions.skipInstallExtensions", defaultValue = "false")
     protected boolean skipInstallExtensions;
 
+    /**
+     * Boolean flag to reuse the unchanged outputs of last build in the staging directory,
+     * set it to false to regenerate all the configurations and copy all the JARs again.
+     */
+    @Parameter(property = "functions.incrementalPackaging", defaultValue = "true")
+    protected boolean incrementalPackaging = true;
+
     @Override
     protected void doExecute() throws AzureExecutionException {
         validateAppName();
 
         promptCompileInfo();
 
-        final AnnotationHandler annotationHandler = getAnnotationHandler();
+        final FunctionStagingManifest manifest = FunctionStagingManifest.load(new File(getDeploymentStagingDirectoryPath()), incrementalPackaging);
+        final List<String> bindingTypes;
+        final Set<BindingEnum> bindingClasses;
+        if (manifest.isUpToDate(STEP_FUNCTIONS, getFunctionInputs()) && isFunctionJsonFilesExist(manifest)) {
+            Log.info("");
+            Log.info(SKIP_UNCHANGED_FUNCTIONS);
+            bindingTypes = splitProperty(manifest.getProperty(STEP_FUNCTIONS, PROPERTY_BINDING_TYPES));
+            bindingClasses = splitProperty(manifest.getProperty(STEP_FUNCTIONS, PROPERTY_BINDINGS)).stream()
+                    .map(BindingEnum::valueOf).collect(Collectors.toSet());
+        } else {
+            final AnnotationHandler annotationHandler = getAnnotationHandler();
+            final Set<Method> methods;
+            try {
+                methods = findAnnotatedMethods(annotationHandler);
+            } catch (MalformedURLException e) {
+                throw new AzureExecutionException("Invalid URL when resolving class path:" + e.getMessage(), e);
+            }
 
-        final Set<Method> methods;
-        try {
-            methods = findAnnotatedMethods(annotationHandler);
-        } catch (MalformedURLException e) {
-            throw new AzureExecutionException("Invalid URL when resolving class path:" + e.getMessage(), e);
-        }
+            if (methods.size() == 0) {
+                Log.info(NO_FUNCTIONS);
+                return;
+            }
 
-        if (methods.size() == 0) {
-            Log.info(NO_FUNCTIONS);
-            return;
+            final Map<String, FunctionConfiguration> configMap = getFunctionConfigurations(annotationHandler, methods);
+            validateFunctionConfigurations(configMap);
+            try {
+                writeFunctionJsonFiles(getObjectWriter(), configMap);
+            } catch (IOException e) {
+                throw new AzureExecutionException("Cannot perform IO operations due to error:" + e.getMessage(), e);
+            }
+            bindingTypes = getFunctionBindingTypes(configMap);
+            bindingClasses = this.getFunctionBindingEnums(configMap);
+            manifest.setProperty(STEP_FUNCTIONS, PROPERTY_FUNCTIONS, String.join(",", configMap.keySet()));
+            manifest.setProperty(STEP_FUNCTIONS, PROPERTY_BINDING_TYPES, String.join(",", bindingTypes));
+            manifest.setProperty(STEP_FUNCTIONS, PROPERTY_BINDINGS,
+                    bindingClasses.stream().map(BindingEnum::name).sorted().collect(Collectors.joining(",")));
         }
+        manifest.complete(STEP_FUNCTIONS);
 
-        final Map<String, FunctionConfiguration> configMap = getFunctionConfigurations(annotationHandler, methods);
-
-        trackFunctionProperties(configMap);
-        validateFunctionConfigurations(configMap);
-
-        final ObjectWriter objectWriter = getObjectWriter();
+        trackFunctionProperties(bindingTypes);
 
         try {
             copyHostJson();
 
             copyLocalSettingsJson();
 
-            writeFunctionJsonFiles(objectWriter, configMap);
-
             copyJarsToStageDirectory();
         } catch (IOException e) {
             throw new AzureExecutionException("Cannot perform IO operations due to error:" + e.getMessage(), e);
@@ -153,13 +188,40 @@ public class PackageMojo extends AbstractFunctionMojo {
 
         final CommandHandler commandHandler = new CommandHandlerImpl();
         final FunctionCoreToolsHandler functionCoreToolsHandler = getFunctionCoreToolsHandler(commandHandler);
-        final Set<BindingEnum> bindingClasses = this.getFunctionBindingEnums(configMap);
 
-        installExtension(functionCoreToolsHandler, bindingClasses);
+        installExtension(functionCoreToolsHandler, bindingClasses, manifest);
 
+        try {
+            manifest.save();
+        } catch (IOException e) {
+            Log.debug("Failed to save staging manifest, exception: " + e.getMessage());
+        }
         Log.info(BUILD_SUCCESS);
     }
 
+    /**
+     * @return files which affect the generated function.json files: compiled classes, dependencies and the artifact itself
+     */
+    protected List<File> getFunctionInputs() {
+        final List<File> inputs = new ArrayList<>();
+        if (outputDirectory != null && outputDirectory.isDirectory()) {
+            inputs.addAll(FileUtils.listFiles(outputDirectory, null, true));
+        }
+        project.getArtifacts().stream().map(Artifact::getFile).filter(Objects::nonNull).forEach(inputs::add);
+        Optional.ofNullable(project.getArtifact()).map(Artifact::getFile).ifPresent(inputs::add);
+        return inputs;
+    }
+
+    private boolean isFunctionJsonFilesExist(final FunctionStagingManifest manifest) {
+        final List<String> functions = splitProperty(manifest.getProperty(STEP_FUNCTIONS, PROPERTY_FUNCTIONS));
+        return !functions.isEmpty() && functions.stream()
+                .allMatch(function -> Paths.get(getDeploymentStagingDirectoryPath(), function, FUNCTION_JSON).toFile().isFile());
+    }
+
+    private static List<String> splitProperty(final String value) {
+        return StringUtils.isBlank(value) ? Collections.emptyList() : Arrays.asList(StringUtils.split(value, ","));
+    }
+
     //endregion
 
     //region Process annotations
@@ -302,8 +364,8 @@ public class PackageMojo extends AbstractFunctionMojo {
     private static void copyFilesWithDefaultContent(File source, File dest, String defaultContent)
             throws IOException {
         if (source != null && source.exists()) {
-            FileUtils.copyFile(source, dest);
-        } else {
+            FunctionStagingManifest.copyIfChanged(source, dest);
+        } else if (!dest.isFile() || !StringUtils.equals(FileUtils.readFileToString(dest, Charset.defaultCharset()), defaultContent)) {
             FileUtils.write(dest, defaultContent, Charset.defaultCharset());
         }
     }
@@ -333,19 +395,16 @@ public class PackageMojo extends AbstractFunctionMojo {
         Log.info("");
         Log.info(COPY_JARS + stagingDirectory);
         final File libFolder = Paths.get(stagingDirectory, "lib").toFile();
-        if (libFolder.exists()) {
-            FileUtils.cleanDirectory(libFolder);
-        }
         final Set<Artifact> artifacts = project.getArtifacts();
         final String libraryToExclude = artifacts.stream()
                 .filter(artifact -> StringUtils.equalsAnyIgnoreCase(artifact.getArtifactId(), AZURE_FUNCTIONS_JAVA_CORE_LIBRARY))
                 .map(Artifact::getArtifactId).findFirst().orElse(AZURE_FUNCTIONS_JAVA_LIBRARY);
-        for (final Artifact artifact : artifacts) {
-            if (!StringUtils.equalsIgnoreCase(artifact.getArtifactId(), libraryToExclude)) {
-                FileUtils.copyFileToDirectory(artifact.getFile(), libFolder);
-            }
-        }
-        FileUtils.copyFileToDirectory(getArtifactFile(), new File(stagingDirectory));
+        final List<File> libraries = artifacts.stream()
+                .filter(artifact -> !StringUtils.equalsIgnoreCase(artifact.getArtifactId(), libraryToExclude))
+                .map(Artifact::getFile).collect(Collectors.toList());
+        FunctionStagingManifest.syncFolder(libraries, libFolder);
+        final File artifactFile = getArtifactFile();
+        FunctionStagingManifest.copyIfChanged(artifactFile, new File(stagingDirectory, artifactFile.getName()));
         Log.info(COPY_SUCCESS);
     }
 
@@ -367,15 +426,24 @@ public class PackageMojo extends AbstractFunctionMojo {
         return new FunctionCoreToolsHandlerImpl(commandHandler);
     }
 
-    protected void installExtension(final FunctionCoreToolsHandler handler,
-                                    Set<BindingEnum> bindingEnums) throws AzureExecutionException {
+    protected void installExtension(final FunctionCoreToolsHandler handler, Set<BindingEnum> bindingEnums,
+                                    final FunctionStagingManifest manifest) throws AzureExecutionException {
         Log.info(INSTALL_EXTENSIONS);
         if (!isInstallingExtensionNeeded(bindingEnums)) {
             return;
         }
-        handler.installExtension(new File(this.getDeploymentStagingDirectoryPath()),
-                project.getBasedir());
-        Log.info(INSTALL_EXTENSIONS_FINISH);
+        final File hostJson = Paths.get(getDeploymentStagingDirectoryPath(), HOST_JSON).toFile();
+        final String bindings = manifest.getProperty(STEP_FUNCTIONS, PROPERTY_BINDINGS);
+        if (manifest.isUpToDate(STEP_EXTENSIONS, Collections.singletonList(hostJson)) &&
+                StringUtils.equals(manifest.getProperty(STEP_EXTENSIONS, PROPERTY_BINDINGS), bindings)) {
+            Log.info(SKIP_UNCHANGED_EXTENSIONS);
+        } else {
+            handler.installExtension(new File(this.getDeploymentStagingDirectoryPath()),
+                    project.getBasedir());
+            Log.info(INSTALL_EXTENSIONS_FINISH);
+        }
+        manifest.setProperty(STEP_EXTENSIONS, PROPERTY_BINDINGS, bindings);
+        manifest.complete(STEP_EXTENSIONS);
     }
 
     protected Set<BindingEnum> getFunctionBindingEnums(Map<String, FunctionConfiguration> configMap) {
@@ -441,12 +509,15 @@ public class PackageMojo extends AbstractFunctionMojo {
         return result;
     }
 
-    protected void trackFunctionProperties(Map<String, FunctionConfiguration> configMap) {
-        final List<String> bindingTypeSet = configMap.values().stream().flatMap(configuration -> configuration.getBindings().stream())
+    protected List<String> getFunctionBindingTypes(Map<String, FunctionConfiguration> configMap) {
+        return configMap.values().stream().flatMap(configuration -> configuration.getBindings().stream())
                 .map(Binding::getType)
                 .sorted()
                 .distinct()
                 .collect(Collectors.toList());
-        getTelemetryProxy().addDefaultProperty(TRIGGER_TYPE, StringUtils.join(bindingTypeSet, ","));
+    }
+
+    protected void trackFunctionProperties(List<String> bindingTypes) {
+        getTelemetryProxy().addDefaultProperty(TRIGGER_TYPE, StringUtils.join(bindingTypes, ","));
     }
 }
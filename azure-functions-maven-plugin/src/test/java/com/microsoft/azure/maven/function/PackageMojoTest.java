@@ -14,6 +14,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -38,6 +39,8 @@ public class PackageMojoTest extends MojoTestBase {
         ReflectionUtils.setVariableValueInObject(mojoSpy, "finalName", "artifact-0.1.0");
         doReturn(mock(AnnotationHandler.class)).when(mojoSpy).getAnnotationHandler();
         doReturn(methods).when(mojoSpy).findAnnotatedMethods(any());
+        doReturn(Collections.emptyList()).when(mojoSpy).getFunctionInputs();
+        doReturn("target/azure-functions").when(mojoSpy).getDeploymentStagingDirectoryPath();
         doReturn(false).when(mojoSpy).isInstallingExtensionNeeded(any());
         doNothing().when(mojoSpy).copyHostJson();
         doNothing().when(mojoSpy).copyLocalSettingsJson();
@@ -28,13 +28,17 @@ import com.microsoft.azure.toolkit.lib.auth.exception.AzureToolkitAuthentication
 import com.microsoft.azure.toolkit.lib.auth.exception.LoginFailureException;
 import com.microsoft.azure.toolkit.lib.auth.model.AuthType;
 import com.microsoft.azure.toolkit.lib.auth.util.AzureEnvironmentUtils;
+import com.microsoft.azure.toolkit.lib.common.cache.CacheManager;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 import com.microsoft.azure.toolkit.lib.common.logging.Log;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceManager;
 import com.microsoft.azure.toolkit.lib.common.model.Subscription;
 import com.microsoft.azure.toolkit.lib.common.proxy.ProxyInfo;
 import com.microsoft.azure.toolkit.lib.common.proxy.ProxyManager;
+import com.microsoft.azure.toolkit.lib.common.task.AzureReactorTaskManager;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
+import com.microsoft.azure.toolkit.lib.common.telemetry.AzureOperationSpans;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemeter;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetryClient;
@@ -46,6 +50,7 @@ import com.microsoft.azure.toolkit.maven.common.task.MavenAzureTaskManager;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.maven.execution.MavenExecutionRequest;
@@ -71,6 +76,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
@@ -110,6 +116,8 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
 
     private static final String AZURE_ENVIRONMENT = "azureEnvironment";
     private static final String PROXY = "proxy";
+    private static final int PERFORMANCE_REPORT_SIZE = 10;
+    private static final String PERFORMANCE_REPORT_ROW = "  %10s %10s %6s %9s  %s";
 
     //region Properties
 
@@ -163,6 +171,25 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
     @Parameter(property = "allowTelemetry", defaultValue = "true")
     protected boolean allowTelemetry;
 
+    /**
+     * File to append telemetry events to as JSON lines instead of sending them, e.g. in air-gapped environments.
+     * @since 1.19.0
+     */
+    @Getter
+    @JsonProperty
+    @Parameter(property = "telemetrySinkFile")
+    protected File telemetrySinkFile;
+
+    /**
+     * Maximum number of telemetry events waiting to be sent, new events are dropped once it's reached.
+     * Non-positive value means the default (1024).
+     * @since 1.19.0
+     */
+    @Getter
+    @JsonProperty
+    @Parameter(property = "telemetryQueueCapacity", defaultValue = "0")
+    protected int telemetryQueueCapacity;
+
     /**
      * Boolean flag to control whether throwing exception from current Maven plugin when meeting any error.<p>
      * If set to true, the exception from current Maven plugin will fail the current Maven run.
@@ -173,6 +200,45 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
     @Parameter(property = "failsOnError", defaultValue = "true")
     protected boolean failsOnError;
 
+    /**
+     * Boolean flag to control whether to keep rarely changed lookups (e.g. regions) in the cache under `~/.azure`,
+     * so that subsequent Maven runs can skip them. Cached entries are scoped by the signed-in account and cloud.
+     * @since 1.19.0
+     */
+    @Getter
+    @JsonProperty
+    @Parameter(property = "persistentCache", defaultValue = "false")
+    protected boolean persistentCache = false;
+
+    /**
+     * Boolean flag to control whether to print the slowest Azure operations (total/self time, calls and ARM requests)
+     * at the end of the execution. Only the slowest operation is printed by default, the full report is also printed in
+     * debug mode (`-X`).
+     * @since 1.19.0
+     */
+    @Getter
+    @JsonProperty
+    @Parameter(property = "performanceReport", defaultValue = "false")
+    protected boolean performanceReport = false;
+
+    /**
+     * File to export the timing spans of Azure operations to, in the format of `traceFormat`.
+     * @since 1.19.0
+     */
+    @Getter
+    @JsonProperty
+    @Parameter(property = "traceFile")
+    protected File traceFile;
+
+    /**
+     * Format of `traceFile`, supported values are `chrome` (Chrome trace events, default) and `otlp` (OTLP JSON).
+     * @since 1.19.0
+     */
+    @Getter
+    @JsonProperty
+    @Parameter(property = "traceFormat", defaultValue = "chrome")
+    protected String traceFormat;
+
     /**
      * Deprecated, please set the authentication type in `auth`
      * @since 1.2.13
@@ -333,7 +399,11 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
 
             SystemPropertyUtils.injectCommandLineParameter("auth", mavenAuthConfiguration, MavenAuthConfiguration.class);
             Azure.az().config().setUserAgent(getUserAgent());
-            azureAccount = login(MavenAuthUtils.buildAuthConfiguration(session, settingsDecrypter, mavenAuthConfiguration));
+            final com.microsoft.azure.toolkit.lib.auth.model.AuthConfiguration authConfiguration =
+                MavenAuthUtils.buildAuthConfiguration(session, settingsDecrypter, mavenAuthConfiguration);
+            // only the configured subscription is resolved when signing in, rather than all subscriptions of all tenants
+            authConfiguration.setSubscription(getSubscriptionId());
+            azureAccount = login(authConfiguration);
         }
         return azureAccount;
     }
@@ -380,6 +450,7 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
                 final Account account = findFirstAvailableAccount().block();
                 // prompt if oauth or device code
                 promptForOAuthOrDeviceCodeLogin(account.getAuthType());
+                account.setTargetSubscriptionId(auth.getSubscription());
                 return handleDeviceCodeAccount(Azure.az(AzureAccount.class).loginAsync(account, false).block());
             } else {
                 // user specify SP related configurations
@@ -494,11 +565,16 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
     @Override
     public void execute() throws MojoExecutionException {
         try {
+            AzureOperationSpans.reset();
             MavenActionManager.register();
             AzureTaskManager.register(new MavenAzureTaskManager());
+            AzureReactorTaskManager.register();
             AzureMessager.setDefaultMessager(new MavenAzureMessager());
             Azure.az().config().setLogLevel(HttpLogDetailLevel.NONE.name());
             Azure.az().config().setUserAgent(getUserAgent());
+            Azure.az().config().setPersistentCacheEnabled(persistentCache);
+            Azure.az().config().setTelemetryQueueCapacity(telemetryQueueCapacity);
+            Azure.az().config().setTelemetrySinkFile(Optional.ofNullable(telemetrySinkFile).map(File::getAbsolutePath).orElse(null));
             // init proxy manager
             initMavenSettingsProxy(Optional.ofNullable(this.session).map(MavenSession::getRequest).orElse(null));
             ProxyManager.getInstance().applyProxy();
@@ -529,11 +605,24 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
         } catch (Throwable e) {
             onMojoError(e);
         } finally {
+            if (performanceReport || Log.isDebugEnabled()) {
+                printPerformanceReport();
+            } else {
+                printPerformanceSummary();
+            }
+            Optional.ofNullable(traceFile).ifPresent(this::exportTrace);
+            if (Log.isDebugEnabled()) {
+                CacheManager.getStatistics().forEach((name, stats) -> Log.debug(String.format("cache[%s]: %s", name, stats)));
+                Log.debug(String.format("resource manager pipelines built: %d", AbstractAzResourceManager.getBuiltPipelineCount()));
+                AbstractAzResourceManager.getHttpClientStatistics().forEach((name, stats) -> Log.debug(String.format("http[%s]: %s", name, stats)));
+                Optional.ofNullable(telemetryProxy).ifPresent(t -> Log.debug(String.format("telemetry events dropped: %d", t.getDroppedEventCount())));
+            }
             // When maven goal executes too quick, The HTTPClient of AI SDK may not fully initialize and will step
             // into endless loop when close, we need to call it in main thread.
             // Refer here for detail codes: https://github.com/Microsoft/ApplicationInsights-Java/blob/master/core/src
             // /main/java/com/microsoft/applicationinsights/internal/channel/common/ApacheSender43.java#L103
             Optional.ofNullable(TextIOUtils.getTextTerminal()).ifPresent(TextTerminal::dispose);
+            Optional.ofNullable(telemetryProxy).ifPresent(AzureTelemetryClient::flush);
             try {
                 // Sleep to wait ai sdk flush telemetries
                 Thread.sleep(2 * 1000);
@@ -544,6 +633,44 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
         }
     }
 
+    private static void printPerformanceReport() {
+        final List<AzureOperationSpans.Summary> summaries = AzureOperationSpans.getSummaries(PERFORMANCE_REPORT_SIZE);
+        if (summaries.isEmpty()) {
+            return;
+        }
+        Log.info(String.format("Slowest operations (%d ARM requests in total):", AzureOperationSpans.getRequestCount()));
+        Log.info(String.format(PERFORMANCE_REPORT_ROW, "TOTAL(s)", "SELF(s)", "CALLS", "REQUESTS", "OPERATION"));
+        for (final AzureOperationSpans.Summary summary : summaries) {
+            Log.info(String.format(PERFORMANCE_REPORT_ROW, toSeconds(summary.getTotalNanos()), toSeconds(summary.getSelfNanos()),
+                summary.getCount(), summary.getRequestCount(), summary.getName()));
+        }
+    }
+
+    private static void printPerformanceSummary() {
+        final List<AzureOperationSpans.Summary> summaries = AzureOperationSpans.getSummaries(1);
+        if (summaries.isEmpty()) {
+            return;
+        }
+        final AzureOperationSpans.Summary slowest = summaries.get(0);
+        Log.info(String.format("Slowest operation: %s (%ss, %d calls), %d ARM requests in total, set `performanceReport` to true for details.",
+            slowest.getName(), toSeconds(slowest.getTotalNanos()), slowest.getCount(), AzureOperationSpans.getRequestCount()));
+    }
+
+    private static String toSeconds(long nanos) {
+        return String.format("%.3f", nanos / 1e9);
+    }
+
+    private void exportTrace(@Nonnull File file) {
+        final String json = StringUtils.equalsIgnoreCase(traceFormat, "otlp") ?
+            AzureOperationSpans.toOtlp().toString() : AzureOperationSpans.toChromeTrace().toString();
+        try {
+            FileUtils.writeStringToFile(file, json, StandardCharsets.UTF_8);
+            Log.info(String.format("Operation traces are exported to %s", TextUtils.cyan(file.getAbsolutePath())));
+        } catch (final IOException e) {
+            Log.warn(String.format("Failed to export operation traces to %s: %s", file.getAbsolutePath(), e.getMessage()));
+        }
+    }
+
     private static void initMavenSettingsProxy(MavenExecutionRequest request) {
         if (request != null) {
             final List<Proxy> mavenProxies = request.getProxies();
@@ -5,6 +5,7 @@
 
 package com.microsoft.azure.toolkit.lib.appservice;
 
+import com.azure.core.exception.HttpResponseException;
 import com.azure.resourcemanager.appservice.models.CsmPublishingProfileOptions;
 import com.azure.resourcemanager.appservice.models.DeployOptions;
 import com.azure.resourcemanager.appservice.models.PublishingProfileFormat;
@@ -29,6 +30,7 @@ import com.microsoft.azure.toolkit.lib.appservice.plan.AppServicePlanModule;
 import com.microsoft.azure.toolkit.lib.appservice.utils.AppServiceUtils;
 import com.microsoft.azure.toolkit.lib.appservice.utils.Utils;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
@@ -38,19 +40,28 @@ import com.microsoft.azure.toolkit.lib.common.model.Region;
 import com.microsoft.azure.toolkit.lib.common.model.Startable;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.ProxyInputStream;
 import org.apache.commons.lang3.StringUtils;
 import reactor.core.publisher.Flux;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
 
 @Slf4j
 public abstract class AppServiceAppBase<
@@ -58,6 +69,13 @@ public abstract class AppServiceAppBase<
     P extends AbstractAzResource<P, ?, ?>,
     F extends WebAppBase>
     extends AbstractAzResource<T, P, WebSiteBase> implements Startable, Deletable {
+    public static final int DEFAULT_STATE_TIMEOUT = 120; // seconds
+    private static final long MIN_POLLING_INTERVAL = 500; // milliseconds
+    private static final long MAX_POLLING_INTERVAL = 8000; // milliseconds
+    private static final String JAVA_PROCESS = "java";
+    private static final long MIN_STOP_WAIT = 10000; // milliseconds
+    private static final int MAX_DEPLOY_ATTEMPTS = 5;
+    private static final long MIN_DEPLOY_RETRY_INTERVAL = 2000; // milliseconds
     protected AppServiceKuduClient kuduManager;
 
     protected AppServiceAppBase(@Nonnull String name, @Nonnull String resourceGroupName, @Nonnull AbstractAzResourceModule<T, P, WebSiteBase> module) {
@@ -96,20 +114,124 @@ public abstract class AppServiceAppBase<
     // MODIFY
     @AzureOperation(name = "appservice.start.app", params = {"this.name()"}, type = AzureOperation.Type.SERVICE)
     public void start() {
-        this.doModify(() -> Objects.requireNonNull(this.getFullRemote()).start(), AzResource.Status.STARTING);
+        this.doModify(() -> {
+            Objects.requireNonNull(this.getFullRemote()).start();
+            this.pollState(AzResource.Status.RUNNING, getStateTimeout());
+        }, AzResource.Status.STARTING);
     }
 
     @AzureOperation(name = "appservice.stop.app", params = {"this.name()"}, type = AzureOperation.Type.SERVICE)
     public void stop() {
-        this.doModify(() -> Objects.requireNonNull(this.getFullRemote()).stop(), AzResource.Status.STOPPING);
+        this.doModify(() -> {
+            Objects.requireNonNull(this.getFullRemote()).stop();
+            this.pollState(AzResource.Status.STOPPED, getStateTimeout());
+        }, AzResource.Status.STOPPING);
     }
 
+    /**
+     * NOTE: restart is not waited on, the app is reported as {@code Running} all through the restart, so its state
+     * can't tell whether the restart is done.
+     */
     @AzureOperation(name = "appservice.restart.app", params = {"this.name()"}, type = AzureOperation.Type.SERVICE)
     public void restart() {
         this.doModify(() -> Objects.requireNonNull(this.getFullRemote()).restart(), AzResource.Status.RESTARTING);
     }
 
+    /**
+     * wait until the app is in the given state, see {@link #pollState(String, Duration)}.
+     *
+     * @return true if the app is in the state before timeout.
+     */
+    public boolean waitForState(@Nonnull String state, @Nonnull Duration timeout) {
+        final long start = System.currentTimeMillis();
+        final WebSiteBase remote = this.pollState(state, timeout);
+        this.setRemote(remote);
+        return Objects.nonNull(remote) && this.isInState(remote, state, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * poll the state of the app with exponential backoff and jitter until it's in the given state or timeout. for
+     * {@link AzResource.Status#STOPPED}, the app is not considered stopped until its java processes in Kudu are gone
+     * (so that the files they locked are released), see {@link #isProcessStopped(Supplier, long)}.
+     *
+     * @return the last loaded remote, null if the app doesn't exist.
+     */
+    @Nullable
+    private WebSiteBase pollState(@Nonnull String state, @Nonnull Duration timeout) {
+        final long start = System.currentTimeMillis();
+        final long deadline = start + timeout.toMillis();
+        long interval = MIN_POLLING_INTERVAL;
+        while (true) {
+            final WebSiteBase remote = this.loadRemote();
+            if (Objects.isNull(remote) || this.isInState(remote, state, System.currentTimeMillis() - start)) {
+                return remote;
+            }
+            final long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                AzureMessager.getMessager().warning(AzureString.format("App (%s) is still %s after %s seconds.",
+                    this.getName(), remote.state(), timeout.getSeconds()));
+                return remote;
+            }
+            final long jittered = interval / 2 + ThreadLocalRandom.current().nextLong(interval / 2 + 1);
+            try {
+                Thread.sleep(Math.min(jittered, remaining));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return remote;
+            }
+            interval = Math.min(interval * 2, MAX_POLLING_INTERVAL);
+        }
+    }
+
+    private boolean isInState(@Nonnull WebSiteBase remote, @Nonnull String state, long waited) {
+        if (!StringUtils.equalsIgnoreCase(remote.state(), state)) {
+            return false;
+        }
+        if (StringUtils.equalsIgnoreCase(state, AzResource.Status.STOPPED)) {
+            return isProcessStopped(this::getProcessClient, waited);
+        }
+        return true;
+    }
+
+    /**
+     * @param waited milliseconds waited for the app to stop.
+     * @return true if no java process of the app is left. Kudu is usually not accessible either once the app is
+     * stopped, if the processes can't be listed, the app is considered stopped only after {@link #MIN_STOP_WAIT}, so
+     * that its processes have time to exit and release the files they locked.
+     */
+    static boolean isProcessStopped(@Nonnull Supplier<IProcessClient> client, long waited) {
+        try {
+            final List<ProcessInfo> processes = Optional.ofNullable(client.get()).map(IProcessClient::listProcess).orElse(null);
+            if (Objects.nonNull(processes)) {
+                return processes.stream().noneMatch(p -> StringUtils.equalsIgnoreCase(p.getName(), JAVA_PROCESS));
+            }
+        } catch (final RuntimeException e) {
+            log.debug("failed to list processes", e);
+        }
+        return waited >= MIN_STOP_WAIT;
+    }
+
+    @Nonnull
+    private static Duration getStateTimeout() {
+        final int timeout = Azure.az().config().getAppServiceStateTimeout();
+        return Duration.ofSeconds(timeout > 0 ? timeout : DEFAULT_STATE_TIMEOUT);
+    }
+
     public void deploy(@Nonnull DeployType deployType, @Nonnull File targetFile, @Nullable String targetPath) {
+        if (this.getRemote() instanceof SupportsOneDeploy) {
+            this.doModify(() -> this.deployWithoutRefresh(deployType, targetFile, targetPath, null), Status.DEPLOYING);
+        }
+    }
+
+    /**
+     * deploy the file via OneDeploy without refreshing this app afterwards, so that multiple artifacts can be deployed
+     * concurrently, callers should {@link #refresh()} this app once after all artifacts are deployed. Kudu rejects a
+     * deployment with 409 while another deployment of the app is in progress, it's retried with backoff then.
+     *
+     * @param onUploaded notified with the total uploaded bytes of the file while uploading.
+     */
+    public void deployWithoutRefresh(@Nonnull DeployType deployType, @Nonnull File targetFile, @Nullable String targetPath,
+                                     @Nullable LongConsumer onUploaded) {
         final WebSiteBase remote = this.getRemote();
         if (remote instanceof SupportsOneDeploy) {
             final DeployOptions options = new DeployOptions().withPath(targetPath);
@@ -117,10 +239,36 @@ public abstract class AppServiceAppBase<
                 (deployType.toString()), StringUtils.isBlank(targetPath) ? "" : (" to " + (targetPath))));
             final com.azure.resourcemanager.appservice.models.DeployType type =
                 com.azure.resourcemanager.appservice.models.DeployType.fromString(deployType.getValue());
-            this.doModify(() -> Objects.requireNonNull(((SupportsOneDeploy) remote)).deploy(type, targetFile, options), Status.DEPLOYING);
+            long interval = MIN_DEPLOY_RETRY_INTERVAL;
+            for (int attempt = 1; ; attempt++) {
+                try (final InputStream stream = new CountingInputStream(new BufferedInputStream(new FileInputStream(targetFile)), onUploaded)) {
+                    ((SupportsOneDeploy) remote).deploy(type, stream, targetFile.length(), options);
+                    return;
+                } catch (final IOException e) {
+                    throw new AzureToolkitRuntimeException(String.format("failed to read file \"%s\"", targetFile), e);
+                } catch (final HttpResponseException e) {
+                    // Kudu serializes deployments of an app, a concurrent deployment is rejected while the lock is held.
+                    if (attempt >= MAX_DEPLOY_ATTEMPTS || !isDeploymentInProgress(e)) {
+                        throw e;
+                    }
+                    final long jittered = interval / 2 + ThreadLocalRandom.current().nextLong(interval / 2 + 1);
+                    log.debug("another deployment of app {} is in progress, retry deploying {} in {}ms", this.getName(), targetFile, jittered);
+                    try {
+                        Thread.sleep(jittered);
+                    } catch (final InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
+                    interval = Math.min(interval * 2, MAX_POLLING_INTERVAL);
+                }
+            }
         }
     }
 
+    private static boolean isDeploymentInProgress(@Nonnull HttpResponseException e) {
+        return Objects.nonNull(e.getResponse()) && e.getResponse().getStatusCode() == HttpURLConnection.HTTP_CONFLICT;
+    }
+
     @Nullable
     public String getHostName() {
         return this.remoteOptional().map(WebSiteBase::defaultHostname).orElse(null);
@@ -241,4 +389,23 @@ public abstract class AppServiceAppBase<
         }
         return kuduManager;
     }
+
+    private static class CountingInputStream extends ProxyInputStream {
+        @Nullable
+        private final LongConsumer onRead;
+        private long count;
+
+        CountingInputStream(@Nonnull InputStream in, @Nullable LongConsumer onRead) {
+            super(in);
+            this.onRead = onRead;
+        }
+
+        @Override
+        protected synchronized void afterRead(int n) {
+            if (n > 0) {
+                this.count += n;
+                Optional.ofNullable(this.onRead).ifPresent(c -> c.accept(this.count));
+            }
+        }
+    }
 }
@@ -23,6 +23,7 @@ class DeployUtils {
             "please check the application setting and try again later.";
     private static final String INTERNAL_STORAGE_KEY = "AzureWebJobsStorage";
     private static final String UNSUPPORTED_DEPLOYMENT_TARGET = "Unsupported deployment target, only function is supported";
+    private static final String PACKAGE_BLOB_SUFFIX = "-package.zip";
 
     /**
      * Get storage account specified within AzureWebJobsStorage for function app/slot
@@ -55,4 +56,16 @@ class DeployUtils {
             throw new AzureToolkitRuntimeException(UNSUPPORTED_DEPLOYMENT_TARGET);
         }
     }
+
+    /**
+     * Get the name of the blob to upload the deployment package of function app/slot to, the name is the same for every
+     * deployment of the app so that uploading an unchanged package can be skipped and no stale packages are left behind.
+     * @param deployTarget target function/slot
+     * @return blob name derived from the resource id of the target
+     */
+    static String getPackageBlobName(final WebAppBase deployTarget) {
+        // replace '/' in resource id to '-' in case create multi-level blob
+        final String fixedResourceId = StringUtils.replace(deployTarget.id(), "/", "-").replaceFirst("-", "");
+        return fixedResourceId + PACKAGE_BLOB_SUFFIX;
+    }
 }
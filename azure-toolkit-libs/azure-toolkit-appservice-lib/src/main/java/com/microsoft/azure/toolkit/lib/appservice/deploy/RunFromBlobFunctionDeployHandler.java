@@ -4,6 +4,7 @@
  */
 package com.microsoft.azure.toolkit.lib.appservice.deploy;
 
+import com.azure.resourcemanager.appservice.models.AppSetting;
 import com.azure.resourcemanager.appservice.models.WebAppBase;
 import com.microsoft.azure.storage.CloudStorageAccount;
 import com.microsoft.azure.storage.StorageException;
@@ -16,11 +17,12 @@ import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.legacy.function.AzureStorageHelper;
-import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
 import java.net.URISyntaxException;
+import java.time.Duration;
 import java.time.Period;
+import java.util.Optional;
 
 import static com.microsoft.azure.toolkit.lib.legacy.function.Constants.APP_SETTING_WEBSITE_RUN_FROM_PACKAGE;
 
@@ -28,29 +30,40 @@ public class RunFromBlobFunctionDeployHandler implements IFunctionDeployHandler
     private static final int SAS_EXPIRE_DATE_BY_YEAR = 10;
     private static final String DEPLOYMENT_PACKAGE_CONTAINER = "java-functions-run-from-packages";
     private static final String FAILED_TO_GET_FUNCTION_APP_ARTIFACT_CONTAINER = "Failed to get Function App artifact container";
+    private static final int SAS_MIN_REMAINING_DAYS = 30;
+    private static final String FAILED_TO_GET_FUNCTION_APP_ARTIFACT_BLOB = "Failed to get Function App artifact blob";
     private static final String UPDATE_ACCESS_LEVEL_TO_PRIVATE = "The blob container '%s' access level was updated to be private";
+    private static final String PACKAGE_NOT_CHANGED = "Skip uploading since the package is not changed, the current package url is reused.";
 
     @Override
     public void deploy(File file, WebAppBase target) {
         final CloudStorageAccount storageAccount = DeployUtils.getCloudStorageAccount(target);
         try {
-            final CloudBlockBlob blob = deployArtifactToAzureStorage(target, file, storageAccount);
-            final String sasToken = AzureStorageHelper.getSASToken(blob, Period.ofYears(SAS_EXPIRE_DATE_BY_YEAR));
-            DeployUtils.updateFunctionAppSetting(target, APP_SETTING_WEBSITE_RUN_FROM_PACKAGE, sasToken);
+            AzureMessager.getMessager().info(String.format(DEPLOY_START, target.name()));
+            final CloudBlockBlob blob = getArtifactBlob(target, storageAccount);
+            final boolean uploaded = AzureStorageHelper.uploadFileToBlob(file, blob);
+            final String currentUrl = Optional.ofNullable(target.getAppSettings().get(APP_SETTING_WEBSITE_RUN_FROM_PACKAGE))
+                .map(AppSetting::value).orElse(null);
+            if (!uploaded && AzureStorageHelper.isValidSASUrl(currentUrl, blob, Duration.ofDays(SAS_MIN_REMAINING_DAYS))) {
+                // the app is already running from the same package, updating the setting would only restart it.
+                AzureMessager.getMessager().info(PACKAGE_NOT_CHANGED);
+            } else {
+                final String sasToken = AzureStorageHelper.getSASToken(blob, Period.ofYears(SAS_EXPIRE_DATE_BY_YEAR));
+                DeployUtils.updateFunctionAppSetting(target, APP_SETTING_WEBSITE_RUN_FROM_PACKAGE, sasToken);
+            }
+            AzureMessager.getMessager().info(String.format(DEPLOY_FINISH, target.defaultHostname()));
         } catch (AzureExecutionException e) {
             throw new AzureToolkitRuntimeException("Failed to upload package to azure storage", e);
         }
     }
 
-    private CloudBlockBlob deployArtifactToAzureStorage(WebAppBase deployTarget, File zipPackage, CloudStorageAccount storageAccount)
-            throws AzureExecutionException {
-        AzureMessager.getMessager().info(String.format(DEPLOY_START, deployTarget.name()));
+    private CloudBlockBlob getArtifactBlob(WebAppBase deployTarget, CloudStorageAccount storageAccount) {
         final CloudBlobContainer container = getOrCreateArtifactContainer(storageAccount);
-        final String blobName = getBlobName(deployTarget, zipPackage);
-        final CloudBlockBlob blob = AzureStorageHelper.uploadFileAsBlob(zipPackage, storageAccount,
-                container.getName(), blobName, BlobContainerPublicAccessType.OFF);
-        AzureMessager.getMessager().info(String.format(DEPLOY_FINISH, deployTarget.defaultHostname()));
-        return blob;
+        try {
+            return container.getBlockBlobReference(DeployUtils.getPackageBlobName(deployTarget));
+        } catch (URISyntaxException | StorageException e) {
+            throw new AzureToolkitRuntimeException(FAILED_TO_GET_FUNCTION_APP_ARTIFACT_BLOB, e);
+        }
     }
 
     private CloudBlobContainer getOrCreateArtifactContainer(final CloudStorageAccount storageAccount) {
@@ -77,10 +90,4 @@ public class RunFromBlobFunctionDeployHandler implements IFunctionDeployHandler
         container.uploadPermissions(permissions);
         AzureMessager.getMessager().info(String.format(UPDATE_ACCESS_LEVEL_TO_PRIVATE, DEPLOYMENT_PACKAGE_CONTAINER));
     }
-
-    private String getBlobName(final WebAppBase deployTarget, final File zipPackage) {
-        // replace '/' in resource id to '-' in case create multi-level blob
-        final String fixedResourceId = StringUtils.replace(deployTarget.id(), "/", "-").replaceFirst("-", "");
-        return String.format("%s-%s", fixedResourceId, zipPackage.getName());
-    }
 }
@@ -11,9 +11,12 @@ import com.azure.resourcemanager.appservice.models.FunctionApps;
 import com.azure.resourcemanager.appservice.models.WebSiteBase;
 import com.microsoft.azure.toolkit.lib.appservice.AppServiceResourceManager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
+import com.microsoft.azure.toolkit.lib.common.model.AzResourceGraph;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Optional;
 
 public class FunctionAppModule extends AbstractAzResourceModule<FunctionApp, AppServiceResourceManager, WebSiteBase> {
@@ -24,6 +27,11 @@ public class FunctionAppModule extends AbstractAzResourceModule<FunctionApp, App
         super(NAME, parent);
     }
 
+    @Override
+    protected long getDefaultCacheTtl() {
+        return getConfiguredCacheTtl();
+    }
+
     @Override
     public FunctionApps getClient() {
         return Optional.ofNullable(this.parent.getRemote()).map(AppServiceManager::functionApps).orElse(null);
@@ -52,6 +60,18 @@ public class FunctionAppModule extends AbstractAzResourceModule<FunctionApp, App
         return new FunctionApp((FunctionAppBasic) remote, this);
     }
 
+    @Override
+    protected boolean isResourceGraphSupported() {
+        return true;
+    }
+
+    @Nullable
+    @Override
+    protected FunctionApp newResource(@Nonnull AzResourceGraph.Record record) {
+        // web apps are also of type "Microsoft.Web/sites"
+        return StringUtils.containsIgnoreCase(record.getKind(), "functionapp") ? new FunctionApp(record.getName(), record.getResourceGroup(), this) : null;
+    }
+
     @Nonnull
     @Override
     public String getResourceTypeName() {
@@ -62,6 +62,15 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
     protected static final String SKIP_INSTALL_EXTENSIONS_HTTP = "Skip install Function extension for HTTP Trigger Functions";
     protected static final String INSTALL_EXTENSIONS_FINISH = "Function extension installation done.";
     protected static final String BUILD_SUCCESS = "Successfully built Azure Functions.";
+    protected static final String SKIP_UNCHANGED_FUNCTIONS = "Step 1-3, 6 of 8: Classes and dependencies are unchanged, " +
+            "skip searching functions and generating configurations.";
+    protected static final String SKIP_UNCHANGED_EXTENSIONS = "host.json and bindings are unchanged, skip install extension";
+
+    private static final String STEP_FUNCTIONS = "functions";
+    private static final String STEP_EXTENSIONS = "extensions";
+    private static final String PROPERTY_FUNCTIONS = "functions";
+    private static final String PROPERTY_BINDINGS = "bindings";
+    private static final String PROPERTY_BINDING_TYPES = "bindingTypes";
 
     private static final String DEFAULT_LOCAL_SETTINGS_JSON = "{ \"IsEncrypted\": false, \"Values\": " +
             "{ \"FUNCTIONS_WORKER_RUNTIME\": \"java\" } }";
@@ -87,37 +96,87 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
             type = AzureOperation.Type.TASK
     )
     public void packageProject(FunctionProject project, boolean installExtension, String funcPath) {
-        final List<FunctionMethod> methods = findAnnotatedMethodsInner(project);
-
-        if (methods.isEmpty()) {
-            AzureMessager.getMessager().info(NO_FUNCTIONS);
-            return;
+        final FunctionStagingManifest manifest = FunctionStagingManifest.load(project.getStagingFolder(), true);
+        final List<File> inputs = getFunctionInputs(project);
+        final List<String> functions;
+        final List<String> bindingTypes;
+        final Set<BindingEnum> bindingEnums;
+        if (manifest.isUpToDate(STEP_FUNCTIONS, inputs) && isFunctionJsonFilesExist(project, manifest)) {
+            AzureMessager.getMessager().info(LINE_FEED + SKIP_UNCHANGED_FUNCTIONS);
+            functions = splitProperty(manifest.getProperty(STEP_FUNCTIONS, PROPERTY_FUNCTIONS));
+            bindingTypes = splitProperty(manifest.getProperty(STEP_FUNCTIONS, PROPERTY_BINDING_TYPES));
+            bindingEnums = splitProperty(manifest.getProperty(STEP_FUNCTIONS, PROPERTY_BINDINGS)).stream()
+                    .map(BindingEnum::valueOf).collect(Collectors.toSet());
+        } else {
+            final List<FunctionMethod> methods = findAnnotatedMethodsInner(project);
+            if (methods.isEmpty()) {
+                AzureMessager.getMessager().info(NO_FUNCTIONS);
+                return;
+            }
+            final Map<String, FunctionConfiguration> configMap = generateConfigurations(project, methods);
+            validateFunctionConfigurations(configMap);
+            try {
+                writeFunctionJsonFiles(project, getObjectWriter(), configMap);
+            } catch (IOException e) {
+                throw new AzureToolkitRuntimeException("Cannot perform IO operations due to error:" + e.getMessage(), e);
+            }
+            functions = new ArrayList<>(configMap.keySet());
+            bindingTypes = getFunctionBindingList(configMap);
+            bindingEnums = getFunctionBindingEnums(configMap);
         }
+        manifest.setProperty(STEP_FUNCTIONS, PROPERTY_FUNCTIONS, String.join(",", functions));
+        manifest.setProperty(STEP_FUNCTIONS, PROPERTY_BINDING_TYPES, String.join(",", bindingTypes));
+        manifest.setProperty(STEP_FUNCTIONS, PROPERTY_BINDINGS, bindingEnums.stream().map(BindingEnum::name).sorted().collect(Collectors.joining(",")));
+        manifest.complete(STEP_FUNCTIONS);
 
-        final Map<String, FunctionConfiguration> configMap = generateConfigurations(project, methods);
-
-        trackFunctionProperties(configMap);
-
-        validateFunctionConfigurations(configMap);
-
-        final ObjectWriter objectWriter = getObjectWriter();
+        trackFunctionProperties(bindingTypes);
 
         try {
             copyHostJson(project);
             copyLocalSettingsJson(project);
-            writeFunctionJsonFiles(project, objectWriter, configMap);
             copyJarsToStageDirectory(project);
-            final Set<BindingEnum> bindingEnums = this.getFunctionBindingEnums(configMap);
 
             if (isInstallingExtensionNeeded(!installExtension, project, bindingEnums)) {
-                installExtensionStep(project, funcPath);
+                final File hostJson = Paths.get(project.getStagingFolder().getAbsolutePath(), HOST_JSON).toFile();
+                final String bindings = manifest.getProperty(STEP_FUNCTIONS, PROPERTY_BINDINGS);
+                if (manifest.isUpToDate(STEP_EXTENSIONS, Collections.singletonList(hostJson)) &&
+                        StringUtils.equals(manifest.getProperty(STEP_EXTENSIONS, PROPERTY_BINDINGS), bindings)) {
+                    AzureMessager.getMessager().info(SKIP_UNCHANGED_EXTENSIONS);
+                } else {
+                    installExtensionStep(project, funcPath);
+                }
+                manifest.setProperty(STEP_EXTENSIONS, PROPERTY_BINDINGS, bindings);
+                manifest.complete(STEP_EXTENSIONS);
             }
+            manifest.save();
             AzureMessager.getMessager().info(BUILD_SUCCESS);
         } catch (IOException e) {
             throw new AzureToolkitRuntimeException("Cannot perform IO operations due to error:" + e.getMessage(), e);
         }
     }
 
+    /**
+     * inputs that affect the generated function.json files: compiled classes, dependencies and the artifact itself
+     */
+    private static List<File> getFunctionInputs(FunctionProject project) {
+        final List<File> inputs = new ArrayList<>();
+        Optional.ofNullable(project.getClassesOutputDirectory()).filter(File::isDirectory)
+                .ifPresent(dir -> inputs.addAll(FileUtils.listFiles(dir, null, true)));
+        Optional.ofNullable(project.getDependencies()).ifPresent(inputs::addAll);
+        Optional.ofNullable(project.getArtifactFile()).ifPresent(inputs::add);
+        return inputs;
+    }
+
+    private static boolean isFunctionJsonFilesExist(FunctionProject project, FunctionStagingManifest manifest) {
+        final List<String> functions = splitProperty(manifest.getProperty(STEP_FUNCTIONS, PROPERTY_FUNCTIONS));
+        return !functions.isEmpty() && functions.stream()
+                .allMatch(function -> Paths.get(project.getStagingFolder().getAbsolutePath(), function, FUNCTION_JSON).toFile().isFile());
+    }
+
+    private static List<String> splitProperty(String value) {
+        return StringUtils.isBlank(value) ? Collections.emptyList() : Arrays.asList(StringUtils.split(value, ","));
+    }
+
     @AzureOperation(
             name = "function.list_function_methods",
             params = {"project.getName()"},
@@ -203,8 +262,8 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
     private static void copyFilesWithDefaultContent(File source, File dest, String defaultContent)
             throws IOException {
         if (source != null && source.exists()) {
-            FileUtils.copyFile(source, dest);
-        } else {
+            FunctionStagingManifest.copyIfChanged(source, dest);
+        } else if (!dest.isFile() || !StringUtils.equals(FileUtils.readFileToString(dest, Charset.defaultCharset()), defaultContent)) {
             FileUtils.write(dest, defaultContent, Charset.defaultCharset());
         }
     }
@@ -229,18 +288,13 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
         final String stagingDirectory = project.getStagingFolder().getAbsolutePath();
         AzureMessager.getMessager().info(LINE_FEED + COPY_JARS + stagingDirectory);
         final File libFolder = Paths.get(stagingDirectory, "lib").toFile();
-        if (libFolder.exists()) {
-            FileUtils.cleanDirectory(libFolder);
-        }
-        for (final File file : project.getDependencies()) {
-            FileUtils.copyFileToDirectory(file, libFolder);
-        }
-        FileUtils.copyFileToDirectory(project.getArtifactFile(), new File(stagingDirectory));
+        FunctionStagingManifest.syncFolder(project.getDependencies(), libFolder);
+        FunctionStagingManifest.copyIfChanged(project.getArtifactFile(), new File(stagingDirectory, project.getArtifactFile().getName()));
         AzureMessager.getMessager().info(COPY_SUCCESS);
     }
 
-    private void trackFunctionProperties(Map<String, FunctionConfiguration> configMap) {
-        AzureTelemetry.getContext().getActionParent().setProperty(TRIGGER_TYPE, StringUtils.join(getFunctionBindingList(configMap), ","));
+    private void trackFunctionProperties(List<String> bindingTypes) {
+        AzureTelemetry.getContext().getActionParent().setProperty(TRIGGER_TYPE, StringUtils.join(bindingTypes, ","));
     }
 
     private List<String> getFunctionBindingList(Map<String, FunctionConfiguration> configMap) {
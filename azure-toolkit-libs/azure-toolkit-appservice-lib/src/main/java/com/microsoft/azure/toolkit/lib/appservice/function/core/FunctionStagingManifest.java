@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.appservice.function.core;
+
+import com.google.common.hash.Hashing;
+import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent record of the inputs (hash, size and last modified time) used to build the function staging folder,
+ * it's saved in the staging folder so that the steps whose inputs are unchanged can be skipped in subsequent builds.
+ */
+@Slf4j
+public class FunctionStagingManifest {
+    public static final String MANIFEST_FILE = ".azure-functions-staging.json";
+    private static final int MANIFEST_VERSION = 1;
+
+    @Getter
+    @Nonnull
+    private final File stagingFolder;
+    @Nonnull
+    private final Manifest previous;
+    @Nonnull
+    private final Manifest current;
+
+    private FunctionStagingManifest(@Nonnull File stagingFolder, @Nonnull Manifest previous) {
+        this.stagingFolder = stagingFolder;
+        this.previous = previous;
+        this.current = new Manifest();
+        this.current.version = MANIFEST_VERSION;
+        this.current.generator = getGenerator();
+    }
+
+    /**
+     * load the manifest of last build from the staging folder, an empty manifest is returned if
+     * {@code incremental} is false or the saved one is missing/corrupted/generated by another version.
+     */
+    @Nonnull
+    public static FunctionStagingManifest load(@Nonnull File stagingFolder, boolean incremental) {
+        final File file = new File(stagingFolder, MANIFEST_FILE);
+        Manifest previous = null;
+        if (incremental && file.isFile()) {
+            try {
+                previous = JsonUtils.fromJson(FileUtils.readFileToString(file, StandardCharsets.UTF_8), Manifest.class);
+            } catch (final RuntimeException | IOException e) {
+                log.debug("failed to load staging manifest from {}", file.getAbsolutePath(), e);
+            }
+        }
+        final boolean valid = Objects.nonNull(previous) && previous.version == MANIFEST_VERSION &&
+            StringUtils.equals(previous.generator, getGenerator()) && Objects.nonNull(previous.steps);
+        return new FunctionStagingManifest(stagingFolder, valid ? previous : new Manifest());
+    }
+
+    /**
+     * fingerprint the {@code inputs} of the named step and compare them with those recorded by last build.
+     *
+     * @return true if the step was completed by last build and all its inputs are unchanged since then.
+     */
+    public boolean isUpToDate(@Nonnull String step, @Nonnull Collection<File> inputs) {
+        final Map<String, Fingerprint> previousInputs = Optional.ofNullable(this.previous.steps.get(step))
+            .filter(s -> s.completed).map(s -> s.inputs).orElse(null);
+        final Step currentStep = this.current.steps.computeIfAbsent(step, k -> new Step());
+        currentStep.inputs = new TreeMap<>();
+        for (final File input : inputs) {
+            final String path = input.getAbsolutePath();
+            final Fingerprint last = Optional.ofNullable(previousInputs).map(p -> p.get(path)).orElse(null);
+            currentStep.inputs.put(path, Fingerprint.of(input, last));
+        }
+        final boolean upToDate = Objects.nonNull(previousInputs) && previousInputs.equals(currentStep.inputs);
+        if (upToDate) {
+            Optional.ofNullable(this.previous.steps.get(step).properties).ifPresent(currentStep.properties::putAll);
+        }
+        log.debug("step[{}] is {}", step, upToDate ? "up-to-date" : "out-of-date");
+        return upToDate;
+    }
+
+    /**
+     * mark the named step as finished, so that it will be considered up-to-date by next build if its inputs are unchanged.
+     */
+    public void complete(@Nonnull String step) {
+        this.current.steps.computeIfAbsent(step, k -> new Step()).completed = true;
+    }
+
+    @Nullable
+    public String getProperty(@Nonnull String step, @Nonnull String key) {
+        return Optional.ofNullable(this.current.steps.get(step)).map(s -> s.properties.get(key)).orElse(null);
+    }
+
+    public void setProperty(@Nonnull String step, @Nonnull String key, @Nullable String value) {
+        this.current.steps.computeIfAbsent(step, k -> new Step()).properties.put(key, value);
+    }
+
+    public void save() throws IOException {
+        final File file = new File(this.stagingFolder, MANIFEST_FILE);
+        FileUtils.write(file, JsonUtils.toJson(this.current), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * copy {@code source} to {@code target} only if they differ in size or last modified time, last modified time is
+     * preserved so that the copied file will be considered unchanged by next build.
+     *
+     * @return true if target is updated.
+     */
+    public static boolean copyIfChanged(@Nonnull File source, @Nonnull File target) throws IOException {
+        if (isSame(source, target)) {
+            return false;
+        }
+        FileUtils.copyFile(source, target, true);
+        return true;
+    }
+
+    /**
+     * make {@code targetFolder} contain exactly the {@code sources} (matched by file name), files that already exist with
+     * the same size and last modified time are left in place, others are hard-linked if possible or else copied.
+     */
+    public static void syncFolder(@Nonnull Collection<File> sources, @Nonnull File targetFolder) throws IOException {
+        FileUtils.forceMkdir(targetFolder);
+        final Set<String> names = sources.stream().map(File::getName).collect(Collectors.toSet());
+        final File[] existing = Optional.ofNullable(targetFolder.listFiles()).orElse(new File[0]);
+        for (final File file : existing) {
+            if (!names.contains(file.getName())) {
+                FileUtils.forceDelete(file);
+            }
+        }
+        for (final File source : sources) {
+            final File target = new File(targetFolder, source.getName());
+            if (isSame(source, target)) {
+                continue;
+            }
+            Files.deleteIfExists(target.toPath());
+            try {
+                Files.createLink(target.toPath(), source.toPath());
+            } catch (final IOException | UnsupportedOperationException | SecurityException e) {
+                // e.g. source and target are on different file stores
+                Files.copy(source.toPath(), target.toPath(), StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private static boolean isSame(@Nonnull File source, @Nonnull File target) {
+        return target.isFile() && source.length() == target.length() && source.lastModified() == target.lastModified();
+    }
+
+    @Nonnull
+    private static String getGenerator() {
+        return Optional.ofNullable(FunctionStagingManifest.class.getPackage().getImplementationVersion()).orElse("unknown");
+    }
+
+    private static class Manifest {
+        private int version;
+        private String generator;
+        private Map<String, Step> steps = new HashMap<>();
+    }
+
+    private static class Step {
+        private boolean completed;
+        private Map<String, Fingerprint> inputs = new TreeMap<>();
+        private Map<String, String> properties = new TreeMap<>();
+    }
+
+    private static class Fingerprint {
+        private long size;
+        private long lastModified;
+        private String hash;
+
+        /**
+         * the hash of last build is reused without reading the file if size and last modified time are unchanged.
+         */
+        @SuppressWarnings("UnstableApiUsage")
+        static Fingerprint of(@Nonnull File file, @Nullable Fingerprint last) {
+            final Fingerprint result = new Fingerprint();
+            result.size = file.isFile() ? file.length() : -1;
+            result.lastModified = file.lastModified();
+            if (Objects.nonNull(last) && last.size == result.size && last.lastModified == result.lastModified) {
+                result.hash = last.hash;
+            } else if (file.isFile()) {
+                try {
+                    result.hash = com.google.common.io.Files.asByteSource(file).hash(Hashing.sha256()).toString();
+                } catch (final IOException e) {
+                    log.debug("failed to compute hash of file {}", file.getAbsolutePath(), e);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * files are considered the same if the content is the same, regardless of the last modified time.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Fingerprint)) {
+                return false;
+            }
+            final Fingerprint that = (Fingerprint) o;
+            return size == that.size && Objects.nonNull(hash) && Objects.equals(hash, that.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, hash);
+        }
+    }
+}
@@ -15,10 +15,6 @@ import com.microsoft.azure.toolkit.lib.legacy.function.handlers.FunctionCoreTool
 import com.microsoft.azure.toolkit.lib.legacy.function.handlers.FunctionCoreToolsHandlerImpl;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.ClassUtils;
-import org.reflections.Reflections;
-import org.reflections.scanners.Scanners;
-import org.reflections.util.ConfigurationBuilder;
 
 import javax.annotation.Nonnull;
 import java.lang.annotation.Annotation;
@@ -38,8 +34,6 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import static com.microsoft.azure.toolkit.lib.appservice.function.core.AzureFunctionsAnnotationConstants.FUNCTION_NAME;
-
 @Slf4j
 public class DefaultFunctionProject extends FunctionProject {
 
@@ -97,10 +91,7 @@ public class DefaultFunctionProject extends FunctionProject {
 
     private static Set<Method> findFunctions(final List<URL> urls) {
         try {
-            final ClassLoader classLoader = getClassLoader(urls);
-            final Class<?> functionNameAnnotation = ClassUtils.getClass(classLoader, FUNCTION_NAME);
-            final ConfigurationBuilder builder = new ConfigurationBuilder().addUrls(urls).setScanners(Scanners.MethodsAnnotated).addClassLoaders(classLoader);
-            return new Reflections(builder).getMethodsAnnotatedWith((Class<? extends Annotation>) functionNameAnnotation);
+            return FunctionClassScanner.findFunctionMethods(urls, getClassLoader(urls));
         } catch (ClassNotFoundException e) {
             throw new AzureToolkitRuntimeException(e);
         }
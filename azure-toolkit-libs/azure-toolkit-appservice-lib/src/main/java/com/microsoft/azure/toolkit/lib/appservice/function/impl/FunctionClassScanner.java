@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.appservice.function.impl;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Bytes;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.MethodInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static com.microsoft.azure.toolkit.lib.appservice.function.core.AzureFunctionsAnnotationConstants.FUNCTION_NAME;
+
+/**
+ * find methods annotated with {@code @FunctionName} by reading class files directly (in parallel), only the classes
+ * declaring such methods are loaded (without initialization) afterwards. results of dependency jars are cached by jar
+ * checksum, so unchanged jars are not read again, jars without any reference to {@code @FunctionName} are skipped.
+ * the least recently used jars are evicted once more than {@link #MAX_CACHED_JARS} jars are cached, the cache file is
+ * only rewritten when jars are added/evicted or the last used time of a jar is more than a day old.
+ */
+@Slf4j
+public class FunctionClassScanner {
+    private static final String CLASS_SUFFIX = ".class";
+    private static final byte[] FUNCTION_NAME_DESCRIPTOR = String.format("L%s;", FUNCTION_NAME.replace('.', '/')).getBytes(StandardCharsets.UTF_8);
+    private static final Path CACHE_FILE = Paths.get(System.getProperty("user.home"), ".azure", "functions-scan-cache.properties");
+    private static final int MAX_CACHED_JARS = 10000;
+    private static final char TIME_SEPARATOR = ';';
+    private static final long LAST_USED_PRECISION = TimeUnit.DAYS.toMillis(1);
+    private static final FunctionClassScanner DEFAULT = new FunctionClassScanner(CACHE_FILE, MAX_CACHED_JARS);
+
+    private final Path cacheFile;
+    private final int maxCachedJars;
+    // checksum of jar -> names of function classes in it, in order of last access.
+    private final LinkedHashMap<String, CachedJar> jarCache = new LinkedHashMap<>(16, 0.75f, true);
+    private boolean cacheLoaded = false;
+    private volatile boolean cacheChanged = false;
+
+    FunctionClassScanner(@Nonnull final Path cacheFile, final int maxCachedJars) {
+        this.cacheFile = cacheFile;
+        this.maxCachedJars = maxCachedJars;
+    }
+
+    @Nonnull
+    public static Set<Method> findFunctionMethods(@Nonnull final List<URL> urls, @Nonnull final ClassLoader classLoader) throws ClassNotFoundException {
+        return DEFAULT.scanFunctionMethods(urls, classLoader);
+    }
+
+    /**
+     * @return names of the classes declaring methods annotated with {@code @FunctionName}
+     */
+    @Nonnull
+    public static Set<String> findFunctionClasses(@Nonnull final List<URL> urls) {
+        return DEFAULT.scanFunctionClasses(urls);
+    }
+
+    @Nonnull
+    Set<Method> scanFunctionMethods(@Nonnull final List<URL> urls, @Nonnull final ClassLoader classLoader) throws ClassNotFoundException {
+        @SuppressWarnings("unchecked") final Class<? extends Annotation> functionName = (Class<? extends Annotation>) Class.forName(FUNCTION_NAME, false, classLoader);
+        final Set<String> classes = scanFunctionClasses(urls);
+        log.debug("{} classes with @FunctionName methods found.", classes.size());
+        final Set<Method> result = ConcurrentHashMap.newKeySet();
+        for (final String className : classes) {
+            // load class without initialization
+            final Class<?> clazz = Class.forName(className, false, classLoader);
+            Arrays.stream(clazz.getDeclaredMethods()).filter(m -> m.isAnnotationPresent(functionName)).forEach(result::add);
+        }
+        return result;
+    }
+
+    @Nonnull
+    Set<String> scanFunctionClasses(@Nonnull final List<URL> urls) {
+        loadCache();
+        final Set<String> result = urls.parallelStream().map(FunctionClassScanner::toFile).filter(Objects::nonNull)
+            .flatMap(file -> file.isDirectory() ? scanDirectory(file) : this.scanJar(file))
+            .collect(Collectors.toSet());
+        if (cacheChanged) {
+            saveCache();
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static Stream<String> scanDirectory(@Nonnull final File directory) {
+        final Collection<File> files = FileUtils.listFiles(directory, new String[]{"class"}, true);
+        return files.parallelStream().map(file -> {
+            try (final InputStream is = Files.newInputStream(file.toPath())) {
+                return getFunctionClass(is);
+            } catch (final IOException e) {
+                log.debug("failed to read class file {}", file.getAbsolutePath(), e);
+                return null;
+            }
+        }).filter(Objects::nonNull);
+    }
+
+    @Nonnull
+    private Stream<String> scanJar(@Nonnull final File jar) {
+        if (!jar.isFile()) {
+            return Stream.empty();
+        }
+        try (final ZipFile zip = new ZipFile(jar)) {
+            final String checksum = getChecksum(zip);
+            final List<String> cached = getCachedClasses(checksum);
+            if (Objects.nonNull(cached)) {
+                return cached.stream();
+            }
+            final List<String> classes = Collections.list(zip.entries()).stream()
+                .filter(entry -> !entry.isDirectory() && entry.getName().endsWith(CLASS_SUFFIX))
+                .map(entry -> {
+                    try (final InputStream is = zip.getInputStream(entry)) {
+                        return getFunctionClass(is);
+                    } catch (final IOException e) {
+                        log.debug("failed to read class file {} in {}", entry.getName(), jar.getAbsolutePath(), e);
+                        return null;
+                    }
+                }).filter(Objects::nonNull).collect(Collectors.toList());
+            putCachedClasses(checksum, new CachedJar(System.currentTimeMillis(), classes));
+            return classes.stream();
+        } catch (final IOException e) {
+            log.debug("failed to read jar {}", jar.getAbsolutePath(), e);
+            return Stream.empty();
+        }
+    }
+
+    @Nullable
+    private List<String> getCachedClasses(@Nonnull final String checksum) {
+        synchronized (this.jarCache) {
+            final CachedJar cached = this.jarCache.get(checksum);
+            if (Objects.isNull(cached)) {
+                return null;
+            }
+            // persist the last used time coarsely, so that the cache file is not rewritten on every build
+            final long now = System.currentTimeMillis();
+            if (now - cached.lastUsed > LAST_USED_PRECISION) {
+                this.cacheChanged = true;
+                cached.lastUsed = now;
+            }
+            return cached.classes;
+        }
+    }
+
+    private void putCachedClasses(@Nonnull final String checksum, @Nonnull final CachedJar jar) {
+        synchronized (this.jarCache) {
+            this.cacheChanged = true;
+            this.jarCache.put(checksum, jar);
+            evict();
+        }
+    }
+
+    private void evict() {
+        final Iterator<String> eldest = this.jarCache.keySet().iterator();
+        while (this.jarCache.size() > this.maxCachedJars && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * @return name of the class if it declares any method annotated with {@code @FunctionName}, otherwise null
+     */
+    @Nullable
+    private static String getFunctionClass(@Nonnull final InputStream is) throws IOException {
+        final byte[] bytes = IOUtils.toByteArray(is);
+        // cheap check on the constant pool before parsing
+        if (Bytes.indexOf(bytes, FUNCTION_NAME_DESCRIPTOR) < 0) {
+            return null;
+        }
+        final ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(bytes)));
+        for (final MethodInfo method : classFile.getMethods()) {
+            for (final String tag : new String[]{AnnotationsAttribute.visibleTag, AnnotationsAttribute.invisibleTag}) {
+                final AnnotationsAttribute annotations = (AnnotationsAttribute) method.getAttribute(tag);
+                if (Objects.nonNull(annotations) && Objects.nonNull(annotations.getAnnotation(FUNCTION_NAME))) {
+                    return classFile.getName();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * checksum of jar computed from the central directory(entry names, sizes and CRCs) without reading the entries.
+     */
+    @Nonnull
+    static String getChecksum(@Nonnull final File jar) throws IOException {
+        try (final ZipFile zip = new ZipFile(jar)) {
+            return getChecksum(zip);
+        }
+    }
+
+    @Nonnull
+    private static String getChecksum(@Nonnull final ZipFile zip) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        final Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+            final ZipEntry entry = entries.nextElement();
+            hasher.putString(entry.getName(), StandardCharsets.UTF_8).putLong(entry.getSize()).putLong(entry.getCrc());
+        }
+        return hasher.hash().toString();
+    }
+
+    @Nullable
+    private static File toFile(@Nonnull final URL url) {
+        try {
+            return new File(url.toURI());
+        } catch (final URISyntaxException | IllegalArgumentException e) {
+            log.debug("failed to get file for url {}", url, e);
+            return null;
+        }
+    }
+
+    private void loadCache() {
+        synchronized (this.jarCache) {
+            if (this.cacheLoaded) {
+                return;
+            }
+            this.cacheLoaded = true;
+            if (Files.isRegularFile(this.cacheFile)) {
+                try (final InputStream is = Files.newInputStream(this.cacheFile)) {
+                    final Properties properties = new Properties();
+                    properties.load(is);
+                    // restore the access order from the persisted last used time
+                    properties.stringPropertyNames().stream()
+                        .collect(Collectors.toMap(key -> key, key -> CachedJar.parse(properties.getProperty(key))))
+                        .entrySet().stream().sorted(Comparator.comparingLong(e -> e.getValue().lastUsed))
+                        .forEachOrdered(e -> this.jarCache.put(e.getKey(), e.getValue()));
+                    evict();
+                } catch (final IOException | IllegalArgumentException e) {
+                    log.debug("failed to load function scan cache from {}", this.cacheFile, e);
+                }
+            }
+        }
+    }
+
+    private void saveCache() {
+        final Properties properties = new Properties();
+        synchronized (this.jarCache) {
+            this.cacheChanged = false;
+            this.jarCache.forEach((key, value) -> properties.setProperty(key, value.toString()));
+        }
+        Path temp = null;
+        try {
+            Files.createDirectories(this.cacheFile.getParent());
+            // write to a temp file first and then move, so that concurrent builds never read a partial file
+            temp = Files.createTempFile(this.cacheFile.getParent(), "functions-scan-cache", ".tmp");
+            try (final OutputStream os = Files.newOutputStream(temp)) {
+                properties.store(os, null);
+            }
+            Files.move(temp, this.cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException | UnsupportedOperationException e) {
+            log.debug("failed to save function scan cache to {}", this.cacheFile, e);
+            FileUtils.deleteQuietly(Optional.ofNullable(temp).map(Path::toFile).orElse(null));
+        }
+    }
+
+    private static class CachedJar {
+        private volatile long lastUsed;
+        private final List<String> classes;
+
+        private CachedJar(final long lastUsed, @Nonnull final List<String> classes) {
+            this.lastUsed = lastUsed;
+            this.classes = classes;
+        }
+
+        /**
+         * @param value "{lastUsed};{class1},{class2}...", or "{class1},{class2}..." written by earlier versions.
+         */
+        @Nonnull
+        private static CachedJar parse(@Nonnull final String value) {
+            final int index = value.indexOf(TIME_SEPARATOR);
+            final long lastUsed = index < 0 ? 0 : Long.parseLong(value.substring(0, index));
+            final String classes = value.substring(index + 1);
+            return new CachedJar(lastUsed, Arrays.asList(StringUtils.split(classes, ",")));
+        }
+
+        @Override
+        public String toString() {
+            return this.lastUsed + String.valueOf(TIME_SEPARATOR) + String.join(",", this.classes);
+        }
+    }
+}
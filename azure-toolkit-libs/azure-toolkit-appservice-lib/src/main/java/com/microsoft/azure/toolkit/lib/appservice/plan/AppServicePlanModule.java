@@ -9,6 +9,7 @@ import com.azure.resourcemanager.appservice.AppServiceManager;
 import com.azure.resourcemanager.appservice.models.AppServicePlans;
 import com.microsoft.azure.toolkit.lib.appservice.AppServiceResourceManager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
+import com.microsoft.azure.toolkit.lib.common.model.AzResourceGraph;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 
 import javax.annotation.Nonnull;
@@ -50,6 +51,17 @@ public class AppServicePlanModule extends AbstractAzResourceModule<AppServicePla
         return new AppServicePlan(remote, this);
     }
 
+    @Override
+    protected boolean isResourceGraphSupported() {
+        return true;
+    }
+
+    @Nonnull
+    @Override
+    protected AppServicePlan newResource(@Nonnull AzResourceGraph.Record record) {
+        return new AppServicePlan(record.getName(), record.getResourceGroup(), this);
+    }
+
     @Nonnull
     @Override
     public String getResourceTypeName() {
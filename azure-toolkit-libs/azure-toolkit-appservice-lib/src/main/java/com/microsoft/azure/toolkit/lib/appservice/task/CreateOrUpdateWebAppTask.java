@@ -15,6 +15,7 @@ import com.microsoft.azure.toolkit.lib.appservice.model.JavaVersion;
 import com.microsoft.azure.toolkit.lib.appservice.model.OperatingSystem;
 import com.microsoft.azure.toolkit.lib.appservice.model.Runtime;
 import com.microsoft.azure.toolkit.lib.appservice.model.WebContainer;
+import com.microsoft.azure.toolkit.lib.appservice.plan.AppServicePlan;
 import com.microsoft.azure.toolkit.lib.appservice.plan.AppServicePlanDraft;
 import com.microsoft.azure.toolkit.lib.appservice.webapp.AzureWebApp;
 import com.microsoft.azure.toolkit.lib.appservice.webapp.WebApp;
@@ -26,11 +27,13 @@ import com.microsoft.azure.toolkit.lib.common.model.Region;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation.Type;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskGraph;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
 import com.microsoft.azure.toolkit.lib.resource.task.CreateResourceGroupTask;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
 import reactor.core.publisher.Flux;
 
 import java.util.ArrayList;
@@ -83,20 +86,32 @@ public class CreateOrUpdateWebAppTask extends AzureTask<WebApp> {
         AzureTelemetry.getContext().getActionParent().setProperty(CREATE_NEW_WEB_APP, String.valueOf(true));
         final Region region = this.config.region();
         final AppServicePlanConfig planConfig = config.getServicePlanConfig();
-
-        new CreateResourceGroupTask(this.config.subscriptionId(), this.config.resourceGroup(), region).doExecute();
         final AzureAppService az = Azure.az(AzureAppService.class);
 
+        final AzureTaskGraph tasks = new AzureTaskGraph();
+        final AzureTaskGraph.Node<?> resourceGroupNode = tasks.add(new CreateResourceGroupTask(this.config.subscriptionId(), this.config.resourceGroup(), region));
         final AppServicePlanDraft planDraft = az.plans(planConfig.subscriptionId())
             .updateOrCreate(planConfig.servicePlanName(), planConfig.servicePlanResourceGroup());
         planDraft.setPlanConfig(planConfig);
-
-        final WebAppDraft appDraft = az.webApps(config.subscriptionId()).create(config.appName(), config.resourceGroup());
-        appDraft.setAppServicePlan(planDraft.commit());
-        appDraft.setRuntime(getRuntime(config.runtime()));
-        appDraft.setDockerConfiguration(getDockerConfiguration(config.runtime()));
-        appDraft.setAppSettings(config.appSettings());
-        return appDraft.createIfNotExist();
+        // the plan has to wait for the resource group only if they are in the same resource group.
+        final boolean sameResourceGroup = StringUtils.equalsIgnoreCase(planConfig.servicePlanResourceGroup(), config.resourceGroup());
+        final AzureTaskGraph.Node<AppServicePlan> planNode = tasks.add(new AzureTask<>(() -> planDraft.commit()), sameResourceGroup ? resourceGroupNode : null);
+        final AzureTaskGraph.Node<WebApp> appNode = tasks.add(new AzureTask<>(() -> {
+            final WebAppDraft appDraft = az.webApps(config.subscriptionId()).create(config.appName(), config.resourceGroup());
+            appDraft.setAppServicePlan(planNode.getResult());
+            appDraft.setRuntime(getRuntime(config.runtime()));
+            appDraft.setDockerConfiguration(getDockerConfiguration(config.runtime()));
+            appDraft.setAppSettings(config.appSettings());
+            return appDraft.createIfNotExist();
+        }), resourceGroupNode, planNode);
+        try {
+            tasks.execute();
+        } catch (final RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new AzureToolkitRuntimeException(e);
+        }
+        return appNode.getResult();
     }
 
     @AzureOperation(name = "webapp.update_app.app", params = {"this.config.appName()"}, type = Type.SERVICE)
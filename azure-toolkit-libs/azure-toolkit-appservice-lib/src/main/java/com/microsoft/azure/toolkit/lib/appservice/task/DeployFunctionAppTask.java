@@ -8,15 +8,17 @@ import com.azure.core.management.exception.ManagementException;
 import com.microsoft.azure.toolkit.lib.appservice.entity.FunctionEntity;
 import com.microsoft.azure.toolkit.lib.appservice.function.FunctionApp;
 import com.microsoft.azure.toolkit.lib.appservice.function.FunctionAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionStagingManifest;
 import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
+import com.microsoft.azure.toolkit.lib.appservice.utils.ZipPackager;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.zeroturnaround.zip.ZipUtil;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
@@ -90,10 +92,16 @@ public class DeployFunctionAppTask extends AzureTask<FunctionAppBase<?, ?, ?>> {
         // For ftp deploy, we need to upload entire staging directory not the zipped package
         final File file = deployType == FunctionDeployType.FTP ? stagingDirectory : packageStagingDirectory();
         final long startTime = System.currentTimeMillis();
-        if (deployType == null) {
-            target.deploy(file);
-        } else {
-            target.deploy(file, deployType);
+        try {
+            if (deployType == null) {
+                target.deploy(file);
+            } else {
+                target.deploy(file, deployType);
+            }
+        } finally {
+            if (file != stagingDirectory) {
+                FileUtils.deleteQuietly(file);
+            }
         }
         AzureTelemetry.getContext().getActionParent().setProperty("deploy-cost", String.valueOf(System.currentTimeMillis() - startTime));
         if (!StringUtils.equalsIgnoreCase(target.getStatus(), RUNNING)) {
@@ -105,14 +113,22 @@ public class DeployFunctionAppTask extends AzureTask<FunctionAppBase<?, ?, ?>> {
     private File packageStagingDirectory() {
         try {
             final File zipFile = Files.createTempFile("azure-functions", ".zip").toFile();
-            ZipUtil.pack(stagingDirectory, zipFile);
-            ZipUtil.removeEntry(zipFile, LOCAL_SETTINGS_FILE);
+            zipFile.deleteOnExit();
+            ZipPackager.pack(stagingDirectory, zipFile, DeployFunctionAppTask::isDeployable);
             return zipFile;
         } catch (IOException e) {
             throw new AzureToolkitRuntimeException("Failed to package function to deploy", e);
         }
     }
 
+    /**
+     * @param name relative path (separated by '/') of a file in the staging directory
+     */
+    static boolean isDeployable(@Nonnull String name) {
+        // the staging manifest is only used by incremental packaging, no need to deploy it
+        return !StringUtils.equalsAny(name, FunctionStagingManifest.MANIFEST_FILE, LOCAL_SETTINGS_FILE);
+    }
+
     private void listHTTPTriggerUrls(FunctionApp target) {
         try {
             syncTriggers(target);
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.task;
+
+import com.azure.resourcemanager.appservice.models.WebSiteBase;
+import com.google.common.hash.Hashing;
+import com.microsoft.azure.toolkit.lib.appservice.model.WebAppArtifact;
+import com.microsoft.azure.toolkit.lib.appservice.webapp.WebAppBase;
+import com.microsoft.azure.toolkit.lib.common.cache.PersistentCache;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * local record (in {@link PersistentCache}) of the content hashes of the artifacts last successfully deployed to an app,
+ * so that unchanged artifacts can be skipped. a record is trusted only if the last modified time of the app is still
+ * the same as when it's written, i.e. the app has not been recreated or reconfigured since then.
+ */
+@Slf4j
+class DeployLedger {
+    private static final String CACHE_NAME = "DeployLedger";
+    private static final long TTL = TimeUnit.DAYS.toSeconds(30);
+
+    private final WebAppBase<?, ?, ?> webApp;
+    private final Map<String, String> deployed;
+    private final Map<String, String> hashes = new ConcurrentHashMap<>();
+
+    DeployLedger(@Nonnull WebAppBase<?, ?, ?> webApp) {
+        this.webApp = webApp;
+        final String version = getAppVersion(webApp);
+        this.deployed = PersistentCache.read(CACHE_NAME, webApp.getId(), Record.class).map(r -> (Record) r)
+            .filter(r -> Objects.nonNull(version) && Objects.equals(version, r.appVersion))
+            .map(r -> r.artifacts).filter(Objects::nonNull).orElseGet(HashMap::new);
+    }
+
+    /**
+     * @return true if the artifact has the same content as the one last deployed to the same location.
+     */
+    boolean isDeployed(@Nonnull WebAppArtifact artifact) {
+        final String hash = this.hash(artifact);
+        return Objects.nonNull(hash) && Objects.equals(hash, this.deployed.get(getKey(artifact)));
+    }
+
+    /**
+     * persist the hashes of the given deployed artifacts together with the current version of the app.
+     */
+    void commit(@Nonnull Iterable<WebAppArtifact> artifacts) {
+        final Record record = new Record();
+        record.appVersion = getAppVersion(this.webApp);
+        record.artifacts = new HashMap<>(this.deployed);
+        artifacts.forEach(a -> Optional.ofNullable(this.hash(a)).ifPresent(h -> record.artifacts.put(getKey(a), h)));
+        if (Objects.nonNull(record.appVersion)) {
+            PersistentCache.write(CACHE_NAME, this.webApp.getId(), record, Record.class, TTL);
+        }
+    }
+
+    /**
+     * forget the artifacts deployed before, so that only the artifacts deployed this time are recorded by
+     * {@link #commit(Iterable)}, e.g. if the artifacts deployed this time may wipe the others.
+     */
+    void forgetAll() {
+        this.deployed.clear();
+    }
+
+    /**
+     * forget all deployed artifacts of the app, e.g. if any deployment failed and the app is left in unknown state.
+     */
+    void invalidate() {
+        PersistentCache.invalidate(CACHE_NAME, this.webApp.getId());
+    }
+
+    @Nullable
+    private String hash(@Nonnull WebAppArtifact artifact) {
+        return this.hashes.computeIfAbsent(artifact.getFile().getAbsolutePath(), p -> {
+            try {
+                return com.google.common.io.Files.asByteSource(artifact.getFile()).hash(Hashing.sha256()).toString();
+            } catch (final IOException e) {
+                log.debug("failed to hash artifact {}", p, e);
+                return null;
+            }
+        });
+    }
+
+    @Nonnull
+    private static String getKey(@Nonnull WebAppArtifact artifact) {
+        return String.format("%s:%s:%s", artifact.getDeployType().getValue(), artifact.getPath(), artifact.getFile().getName());
+    }
+
+    @Nullable
+    private static String getAppVersion(@Nonnull WebAppBase<?, ?, ?> webApp) {
+        return Optional.ofNullable(webApp.getRemote()).map(WebSiteBase::lastModifiedTime).map(Object::toString).orElse(null);
+    }
+
+    @NoArgsConstructor
+    private static class Record {
+        private String appVersion;
+        private Map<String, String> artifacts;
+    }
+}
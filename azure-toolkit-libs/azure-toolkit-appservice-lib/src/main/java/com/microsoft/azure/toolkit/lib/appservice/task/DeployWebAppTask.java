@@ -5,18 +5,32 @@
 
 package com.microsoft.azure.toolkit.lib.appservice.task;
 
+import com.microsoft.azure.toolkit.lib.appservice.model.DeployType;
 import com.microsoft.azure.toolkit.lib.appservice.model.WebAppArtifact;
 import com.microsoft.azure.toolkit.lib.appservice.webapp.WebAppBase;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
+import lombok.Setter;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 
 public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
@@ -28,10 +42,25 @@ public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
     private static final String START_APP = "Starting Web App after deploying artifacts...";
     private static final String STOP_APP_DONE = "Successfully stopped Web App.";
     private static final String START_APP_DONE = "Successfully started Web App.";
+    private static final String SKIP_UNCHANGED_ARTIFACT = "Skip deploying unchanged artifact %s.";
+    private static final String UPLOAD_PROGRESS = "Uploading %s: %d%% (%s/%s)";
     private static final String RUNNING = "Running";
+    private static final int MAX_CONCURRENT_DEPLOYMENTS = 4;
+    private static final long PROGRESS_THRESHOLD = FileUtils.ONE_MB;
+    private static final int PROGRESS_STEP = 25; // report progress every 25 percent
+    /**
+     * artifacts of these types are deployed to their own locations and don't depend on each other, while the others
+     * (app packages) may clean the target directory, so they are deployed one by one in the given order.
+     */
+    private static final List<DeployType> INDEPENDENT_TYPES = Arrays.asList(DeployType.JAR_LIB, DeployType.STATIC, DeployType.SCRIPT, DeployType.SCRIPT_STARTUP);
     private final WebAppBase<?, ?, ?> webApp;
     private final List<WebAppArtifact> artifacts;
     private final boolean isStopAppDuringDeployment;
+    /**
+     * skip the artifacts that are the same as those last deployed (from this machine), see {@link DeployLedger}
+     */
+    @Setter
+    private boolean skipUnchangedArtifacts;
 
     public DeployWebAppTask(WebAppBase<?, ?, ?> webApp, List<WebAppArtifact> artifacts) {
         this(webApp, artifacts, false);
@@ -50,46 +79,124 @@ public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
             AzureMessager.getMessager().info(AzureString.format(SKIP_DEPLOYMENT_FOR_DOCKER_APP_SERVICE, "https://" + webApp.getHostName()));
             return webApp;
         }
+        final DeployLedger ledger = skipUnchangedArtifacts ? new DeployLedger(webApp) : null;
+        final List<WebAppArtifact> deployed;
         try {
             AzureMessager.getMessager().info(String.format(DEPLOY_START, webApp.name()));
             if (isStopAppDuringDeployment) {
                 stopAppService(webApp);
             }
-            deployArtifacts();
+            deployed = deployArtifacts(ledger);
             AzureMessager.getMessager().info(String.format(DEPLOY_FINISH, webApp.getHostName()));
+        } catch (final RuntimeException e) {
+            Optional.ofNullable(ledger).ifPresent(DeployLedger::invalidate);
+            throw e;
         } finally {
             startAppService(webApp);
         }
+        // the app is changed (e.g. started) after deployment, so record the deployed artifacts with its final version.
+        Optional.ofNullable(ledger).ifPresent(l -> l.commit(deployed));
         return webApp;
     }
 
-    private void deployArtifacts() {
+    /**
+     * @return the deployed artifacts, excluding the skipped ones.
+     */
+    @Nonnull
+    private List<WebAppArtifact> deployArtifacts(@Nullable DeployLedger ledger) {
         if (artifacts.stream().anyMatch(artifact -> artifact.getDeployType() == null)) {
             throw new AzureToolkitRuntimeException("missing deployment type for some artifacts.");
         }
         final long startTime = System.currentTimeMillis();
-        final List<WebAppArtifact> artifactsOneDeploy = this.artifacts.stream()
-            .filter(artifact -> artifact.getDeployType() != null)
-            .collect(Collectors.toList());
-        artifactsOneDeploy.forEach(resource -> webApp.deploy(resource.getDeployType(), resource.getFile(), resource.getPath()));
+        final List<WebAppArtifact> artifactsOneDeploy = getArtifactsToDeploy(this.artifacts, ledger);
+        try {
+            final List<WebAppArtifact> independents = new ArrayList<>();
+            for (final WebAppArtifact artifact : artifactsOneDeploy) {
+                if (INDEPENDENT_TYPES.contains(artifact.getDeployType())) {
+                    independents.add(artifact);
+                } else {
+                    deployConcurrently(independents);
+                    independents.clear();
+                    deploy(artifact);
+                }
+            }
+            deployConcurrently(independents);
+        } finally {
+            // artifacts are deployed without refreshing the app, refresh it only once here.
+            webApp.refresh();
+        }
         AzureTelemetry.getContext().getActionParent().setProperty("deploy-cost", String.valueOf(System.currentTimeMillis() - startTime));
+        return artifactsOneDeploy;
+    }
+
+    /**
+     * @return the artifacts to deploy: all of them if any app package is changed (since it may clean the target
+     * directory and wipe the unchanged ones), otherwise only the changed ones.
+     */
+    @Nonnull
+    static List<WebAppArtifact> getArtifactsToDeploy(@Nonnull List<WebAppArtifact> artifacts, @Nullable DeployLedger ledger) {
+        if (Objects.isNull(ledger)) {
+            return artifacts;
+        }
+        final boolean packageChanged = artifacts.stream()
+            .anyMatch(artifact -> !INDEPENDENT_TYPES.contains(artifact.getDeployType()) && !ledger.isDeployed(artifact));
+        if (packageChanged) {
+            // the deployed artifacts that are not deployed again may be wiped too.
+            ledger.forgetAll();
+            return artifacts;
+        }
+        return artifacts.stream().filter(artifact -> {
+            final boolean unchanged = ledger.isDeployed(artifact);
+            if (unchanged) {
+                AzureMessager.getMessager().info(String.format(SKIP_UNCHANGED_ARTIFACT, artifact.getFile()));
+            }
+            return !unchanged;
+        }).collect(Collectors.toList());
+    }
+
+    private void deployConcurrently(@Nonnull List<WebAppArtifact> artifacts) {
+        if (artifacts.size() < 2) {
+            artifacts.forEach(this::deploy);
+            return;
+        }
+        Flux.fromIterable(new ArrayList<>(artifacts))
+            .flatMap(artifact -> Mono.fromRunnable(() -> deploy(artifact))
+                .subscribeOn(Schedulers.boundedElastic()), MAX_CONCURRENT_DEPLOYMENTS)
+            .then().block();
+    }
+
+    private void deploy(@Nonnull WebAppArtifact artifact) {
+        webApp.deployWithoutRefresh(artifact.getDeployType(), artifact.getFile(), artifact.getPath(), progressOf(artifact));
+    }
+
+    @Nullable
+    private static LongConsumer progressOf(@Nonnull WebAppArtifact artifact) {
+        final long total = artifact.getFile().length();
+        if (total < PROGRESS_THRESHOLD) {
+            return null;
+        }
+        final IAzureMessager messager = AzureMessager.getMessager();
+        final AtomicInteger reported = new AtomicInteger();
+        return uploaded -> {
+            final int percent = (int) (uploaded * 100 / total) / PROGRESS_STEP * PROGRESS_STEP;
+            final int last = reported.get();
+            if (percent > last && reported.compareAndSet(last, percent)) {
+                messager.info(String.format(UPLOAD_PROGRESS, artifact.getFile().getName(), percent,
+                    FileUtils.byteCountToDisplaySize(uploaded), FileUtils.byteCountToDisplaySize(total)));
+            }
+        };
     }
 
     private static void stopAppService(WebAppBase<?, ?, ?> target) {
         AzureMessager.getMessager().info(STOP_APP);
-        target.stop();
-        // workaround for the resources release problem.
+        // stop() waits until the app processes are gone and the resources are released.
         // More details: https://github.com/Microsoft/azure-maven-plugins/issues/191
-        try {
-            TimeUnit.SECONDS.sleep(10 /* 10 seconds */);
-        } catch (InterruptedException e) {
-            // swallow exception
-        }
+        target.stop();
         AzureMessager.getMessager().info(STOP_APP_DONE);
     }
 
     private static void startAppService(WebAppBase<?, ?, ?> target) {
-        if (!StringUtils.equalsIgnoreCase(target.getStatus(), RUNNING)) {
+        if (!StringUtils.equalsIgnoreCase(target.getStatusSync(), RUNNING)) {
             AzureMessager.getMessager().info(START_APP);
             target.start();
             AzureMessager.getMessager().info(START_APP_DONE);
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.utils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.microsoft.azure.toolkit.lib.Azure;
+import org.apache.commons.compress.archivers.zip.ScatterZipOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntryRequest;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * zip a directory in one pass: files are filtered while walking the directory (instead of removing entries from the
+ * archive afterwards), compressed in parallel, and files that are compressed already (e.g. jars) are stored as is.
+ * the package is byte-for-byte the same for the same files: entries are sorted by name and their times are fixed, so
+ * that an unchanged package can be recognized (e.g. by the content MD5 of the uploaded blob).
+ */
+public class ZipPackager {
+    private static final List<String> COMPRESSED_EXTENSIONS = Arrays.asList("jar", "war", "ear", "zip", "gz", "tgz", "7z",
+        "png", "jpg", "jpeg", "gif");
+    private static final long ENTRY_TIME = new GregorianCalendar(2010, Calendar.JANUARY, 1).getTimeInMillis();
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    /**
+     * shared by all packs, idle threads are released after a while.
+     */
+    private static final ExecutorService executor = createExecutor();
+
+    /**
+     * @param filter accepts relative paths (separated by '/') of the files to package.
+     */
+    public static void pack(@Nonnull File directory, @Nonnull File zipFile, @Nonnull Predicate<String> filter) throws IOException {
+        final Path root = directory.toPath();
+        final List<Path> files;
+        try (final Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile).filter(f -> filter.test(getEntryName(root, f)))
+                .sorted(Comparator.comparing(f -> getEntryName(root, f))).collect(Collectors.toList());
+        }
+        final int level = getCompressionLevel();
+        final AtomicBoolean aborted = new AtomicBoolean();
+        final List<File> partFiles = new ArrayList<>();
+        final List<Future<ScatterZipOutputStream>> parts = new ArrayList<>();
+        try {
+            // each chunk of consecutive entries is compressed into its own part file, parts are then copied in order.
+            for (final List<Path> chunk : split(files, THREADS)) {
+                final File partFile = Files.createTempFile("azure-toolkit-zip", ".part").toFile();
+                partFiles.add(partFile);
+                parts.add(executor.submit(() -> compress(root, chunk, partFile, level, aborted)));
+            }
+            try (final ZipArchiveOutputStream output = new ZipArchiveOutputStream(zipFile)) {
+                for (final Future<ScatterZipOutputStream> part : parts) {
+                    part.get().writeTo(output);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(String.format("interrupted when packaging %s", directory), e);
+        } catch (final ExecutionException e) {
+            throw new IOException(String.format("failed to package %s", directory), e.getCause());
+        } finally {
+            // running parts stop at the next entry, wait for them so that their files are not in use when deleted.
+            aborted.set(true);
+            parts.forEach(ZipPackager::closeQuietly);
+            partFiles.forEach(FileUtils::deleteQuietly);
+        }
+    }
+
+    @Nonnull
+    private static ScatterZipOutputStream compress(@Nonnull Path root, @Nonnull List<Path> files, @Nonnull File partFile, int level,
+                                                   @Nonnull AtomicBoolean aborted) throws IOException {
+        final ScatterZipOutputStream stream = ScatterZipOutputStream.fileBased(partFile, level);
+        try {
+            for (final Path file : files) {
+                if (aborted.get()) {
+                    throw new InterruptedIOException("packaging is aborted");
+                }
+                final String name = getEntryName(root, file);
+                final ZipArchiveEntry entry = new ZipArchiveEntry(name);
+                entry.setMethod(COMPRESSED_EXTENSIONS.contains(FilenameUtils.getExtension(name).toLowerCase()) ? ZipEntry.STORED : ZipEntry.DEFLATED);
+                entry.setTime(ENTRY_TIME);
+                stream.addArchiveEntry(ZipArchiveEntryRequest.createZipArchiveEntryRequest(entry, () -> {
+                    try {
+                        return Files.newInputStream(file);
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+            return stream;
+        } catch (final IOException | RuntimeException e) {
+            stream.close();
+            if (e instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e).getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * split files into at most {@code count} chunks of consecutive files with similar total sizes.
+     */
+    @Nonnull
+    private static List<List<Path>> split(@Nonnull List<Path> files, int count) {
+        final long total = files.stream().mapToLong(f -> f.toFile().length()).sum();
+        final long size = Math.max(1, total / count);
+        final List<List<Path>> chunks = new ArrayList<>();
+        List<Path> chunk = new ArrayList<>();
+        long chunkSize = 0;
+        for (final Path file : files) {
+            chunk.add(file);
+            chunkSize += file.toFile().length();
+            if (chunkSize >= size && chunks.size() < count - 1) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkSize = 0;
+            }
+        }
+        if (!chunk.isEmpty() || chunks.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    @Nonnull
+    private static String getEntryName(@Nonnull Path root, @Nonnull Path file) {
+        return FilenameUtils.separatorsToUnix(root.relativize(file).toString());
+    }
+
+    private static void closeQuietly(@Nonnull Future<ScatterZipOutputStream> part) {
+        try {
+            Uninterruptibles.getUninterruptibly(part).close();
+        } catch (final ExecutionException | IOException e) {
+            // failed parts are closed by themselves
+        }
+    }
+
+    @Nonnull
+    private static ExecutorService createExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("azure-toolkit-zip-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static int getCompressionLevel() {
+        final int level = Azure.az().config().getZipCompressionLevel();
+        return level > 0 && level <= Deflater.BEST_COMPRESSION ? level : Deflater.DEFAULT_COMPRESSION;
+    }
+}
@@ -11,9 +11,12 @@ import com.azure.resourcemanager.appservice.models.WebApps;
 import com.azure.resourcemanager.appservice.models.WebSiteBase;
 import com.microsoft.azure.toolkit.lib.appservice.AppServiceResourceManager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
+import com.microsoft.azure.toolkit.lib.common.model.AzResourceGraph;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Optional;
 
 public class WebAppModule extends AbstractAzResourceModule<WebApp, AppServiceResourceManager, WebSiteBase> {
@@ -24,6 +27,11 @@ public class WebAppModule extends AbstractAzResourceModule<WebApp, AppServiceRes
         super(NAME, parent);
     }
 
+    @Override
+    protected long getDefaultCacheTtl() {
+        return getConfiguredCacheTtl();
+    }
+
     @Override
     public WebApps getClient() {
         return Optional.ofNullable(this.parent.getRemote()).map(AppServiceManager::webApps).orElse(null);
@@ -53,6 +61,18 @@ public class WebAppModule extends AbstractAzResourceModule<WebApp, AppServiceRes
         return new WebApp((WebAppBasic) remote, this);
     }
 
+    @Override
+    protected boolean isResourceGraphSupported() {
+        return true;
+    }
+
+    @Nullable
+    @Override
+    protected WebApp newResource(@Nonnull AzResourceGraph.Record record) {
+        // function apps are also of type "Microsoft.Web/sites"
+        return StringUtils.containsIgnoreCase(record.getKind(), "functionapp") ? null : new WebApp(record.getName(), record.getResourceGroup(), this);
+    }
+
     @Nonnull
     @Override
     public String getResourceTypeName() {
@@ -9,30 +9,65 @@ import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.net.ftp.FTP;
 import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 /**
- * Utility class to upload directory to FTP server
+ * Utility class to upload files to FTP server over a pool of connections.
+ * Remote directories are created only once, files whose remote size and modification time match the local ones are
+ * skipped, and only the failed files are uploaded again when retrying.
  */
 @Slf4j
 public class FTPUploader {
     public static final String UPLOAD_START = "Uploading files to FTP server: ";
     public static final String UPLOAD_SUCCESS = "Successfully uploaded files to FTP server: ";
-    public static final String UPLOAD_FAILURE = "Failed to upload files to FTP server, retrying immediately (%d/%d)";
+    public static final String UPLOAD_FAILURE = "Failed to upload %d file(s) to FTP server, retrying them immediately (%d/%d)";
     public static final String UPLOAD_RETRY_FAILURE = "Failed to upload files to FTP server after %d retries...";
     public static final String UPLOAD_DIR_START = "Uploading directory: %s --> %s";
     public static final String UPLOAD_DIR_FINISH = "Successfully uploaded directory: %s --> %s";
-    public static final String UPLOAD_DIR_FAILURE = "Failed to upload directory: %s --> %s";
-    public static final String UPLOAD_DIR = "%s[DIR] %s --> %s";
-    public static final String UPLOAD_FILE = "%s[FILE] %s --> %s";
-    public static final String UPLOAD_FILE_REPLY = "%s.......Reply Message : %s";
+    public static final String UPLOAD_FILES_FINISH = "%d file(s) uploaded, %d unchanged file(s) skipped";
+    public static final String UPLOAD_FILE = "[FILE] %s --> %s";
+    public static final String UPLOAD_FILE_REPLY = "Failed to upload file %s, reply message : %s";
+    public static final int DEFAULT_MAX_CONNECTIONS = 4;
+
+    private final int maxConnections;
+    private final Set<String> createdDirectories = ConcurrentHashMap.newKeySet();
+
+    public FTPUploader() {
+        this(DEFAULT_MAX_CONNECTIONS);
+    }
+
+    public FTPUploader(final int maxConnections) {
+        this.maxConnections = Math.max(1, maxConnections);
+    }
 
     /**
      * Upload directory to specified FTP server with retries.
@@ -40,100 +75,144 @@ public class FTPUploader {
     public void uploadDirectoryWithRetries(final String ftpServer, final String username, final String password,
                                            final String sourceDirectory, final String targetDirectory,
                                            final int maxRetryCount) throws AzureExecutionException {
+        final IAzureMessager messager = AzureMessager.getMessager();
+        messager.info(String.format(UPLOAD_DIR_START, sourceDirectory, targetDirectory));
+        final List<Pair<File, String>> files = new ArrayList<>();
+        listFiles(new File(sourceDirectory), normalize(targetDirectory), files);
+        uploadFilesWithRetries(ftpServer, username, password, files, maxRetryCount);
+        messager.success(String.format(UPLOAD_DIR_FINISH, sourceDirectory, targetDirectory));
+    }
+
+    /**
+     * Upload files to specified FTP server with retries, only the files failed in the previous attempt are retried.
+     *
+     * @param files pairs of local file and the remote directory it's uploaded into, a file may be uploaded into
+     *              multiple directories.
+     */
+    public void uploadFilesWithRetries(final String ftpServer, final String username, final String password,
+                                       final Collection<Pair<File, String>> files, final int maxRetryCount) throws AzureExecutionException {
+        final IAzureMessager messager = AzureMessager.getMessager();
+        messager.info(UPLOAD_START + ftpServer);
+        log.debug("FTP username: " + username);
+        final Collection<Pair<File, String>> normalized = files.stream()
+            .map(file -> Pair.of(file.getKey(), normalize(file.getValue())))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        Collection<Pair<File, String>> remaining = normalized;
         int retryCount = 0;
         while (retryCount < maxRetryCount) {
             retryCount++;
-            final IAzureMessager messager = AzureMessager.getMessager();
-            messager.info(UPLOAD_START + ftpServer);
-            if (uploadDirectory(ftpServer, username, password, sourceDirectory, targetDirectory)) {
+            remaining = uploadFiles(ftpServer, username, password, remaining);
+            if (remaining.isEmpty()) {
                 messager.success(UPLOAD_SUCCESS + ftpServer);
                 return;
-            } else {
-                messager.warning(String.format(UPLOAD_FAILURE, retryCount, maxRetryCount));
             }
+            messager.warning(String.format(UPLOAD_FAILURE, remaining.size(), retryCount, maxRetryCount));
         }
         // Reaching here means all retries failed.
         throw new AzureExecutionException(String.format(UPLOAD_RETRY_FAILURE, maxRetryCount));
     }
 
     /**
-     * Upload directory to specified FTP server without retries.
+     * Upload files to specified FTP server without retries.
      *
-     * @return Boolean to indicate whether uploading is successful.
+     * @return the files (and target directories) failed to upload, empty if all files are uploaded.
      */
-    protected boolean uploadDirectory(final String ftpServer, final String username, final String password,
-                                      final String sourceDirectoryPath, final String targetDirectoryPath) {
-        final IAzureMessager messager = AzureMessager.getMessager();
-        log.debug("FTP username: " + username);
+    protected Collection<Pair<File, String>> uploadFiles(final String ftpServer, final String username, final String password,
+                                                         final Collection<Pair<File, String>> files) {
+        if (files.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Queue<Pair<File, String>> failed = new ConcurrentLinkedQueue<>();
+        final Queue<Pair<File, String>> pending = new ConcurrentLinkedQueue<>();
+        final FTPClient first;
         try {
-            final FTPClient ftpClient = getFTPClient(ftpServer, username, password);
-
-            messager.info(String.format(UPLOAD_DIR_START, sourceDirectoryPath, targetDirectoryPath));
-            uploadDirectory(ftpClient, sourceDirectoryPath, targetDirectoryPath, "");
-            messager.success(String.format(UPLOAD_DIR_FINISH, sourceDirectoryPath, targetDirectoryPath));
-
-            ftpClient.disconnect();
-            return true;
-        } catch (Exception e) {
+            first = getFTPClient(ftpServer, username, password);
+        } catch (final IOException e) {
             log.debug(e.getMessage(), e);
-            messager.error(String.format(UPLOAD_DIR_FAILURE, sourceDirectoryPath, targetDirectoryPath));
-        }
-
-        return false;
-    }
-
-    /**
-     * Recursively upload a directory to FTP server with the provided FTP client object.
-     */
-    protected void uploadDirectory(final FTPClient ftpClient, final String sourceDirectoryPath,
-                                   final String targetDirectoryPath, final String logPrefix) throws IOException {
-        final IAzureMessager messager = AzureMessager.getMessager();
-        messager.info(String.format(UPLOAD_DIR, logPrefix, sourceDirectoryPath, targetDirectoryPath));
-        final File sourceDirectory = new File(sourceDirectoryPath);
-        final File[] files = sourceDirectory.listFiles();
-        if (files == null || files.length == 0) {
-            messager.info(String.format("%sEmpty directory at %s", logPrefix, sourceDirectoryPath));
-            return;
+            return files;
         }
-
-        // Make sure target directory exists
-        final boolean isTargetDirectoryExist = ftpClient.changeWorkingDirectory(targetDirectoryPath);
-        if (!isTargetDirectoryExist) {
-            ftpClient.makeDirectory(targetDirectoryPath);
+        final Set<String> directories = files.stream().map(Pair::getValue).collect(Collectors.toCollection(TreeSet::new));
+        final Map<String, Map<String, FTPFile>> remoteFiles;
+        try {
+            makeDirectories(first, directories);
+            remoteFiles = listRemoteFiles(first, directories);
+        } catch (final IOException e) {
+            log.debug(e.getMessage(), e);
+            disconnect(first);
+            return files;
         }
-
-        final String nextLevelPrefix = logPrefix + "..";
-        for (final File file : files) {
-            if (file.isFile()) {
-                uploadFile(ftpClient, file.getAbsolutePath(), targetDirectoryPath, nextLevelPrefix);
+        int skipped = 0;
+        for (final Pair<File, String> file : files) {
+            final FTPFile remote = remoteFiles.getOrDefault(file.getValue(), Collections.emptyMap()).get(file.getKey().getName());
+            if (isUpToDate(file.getKey(), remote)) {
+                skipped++;
             } else {
-                uploadDirectory(ftpClient, Paths.get(sourceDirectoryPath, file.getName()).toString(),
-                    targetDirectoryPath + "/" + file.getName(), nextLevelPrefix);
+                pending.add(file);
+            }
+        }
+        final int uploaded = pending.size();
+        final int connections = Math.min(maxConnections, Math.max(1, pending.size()));
+        final ExecutorService executor = Executors.newFixedThreadPool(connections);
+        try {
+            final List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < connections; i++) {
+                final boolean reuse = i == 0;
+                workers.add(executor.submit(() -> {
+                    FTPClient client = null;
+                    try {
+                        client = reuse ? first : getFTPClient(ftpServer, username, password);
+                        for (Pair<File, String> file = pending.poll(); file != null; file = pending.poll()) {
+                            try {
+                                uploadFile(client, file.getKey(), file.getValue());
+                            } catch (final IOException e) {
+                                log.debug(e.getMessage(), e);
+                                failed.add(file);
+                                if (!client.isConnected()) {
+                                    client = getFTPClient(ftpServer, username, password);
+                                }
+                            }
+                        }
+                    } catch (final IOException e) {
+                        // this connection is broken, leave the pending files to the other connections or next retry
+                        log.debug(e.getMessage(), e);
+                    } finally {
+                        disconnect(client);
+                    }
+                }));
             }
+            for (final Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            log.debug(e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+            disconnect(first);
         }
+        failed.addAll(pending);
+        AzureMessager.getMessager().info(String.format(UPLOAD_FILES_FINISH, uploaded - failed.size(), skipped));
+        return new ArrayList<>(failed);
     }
 
     /**
-     * Upload a single file to FTP server with the provided FTP client object.
+     * Upload a single file into the remote directory with the provided FTP client object, and keep the modification
+     * time of the remote file the same as the local one.
      */
-    protected void uploadFile(final FTPClient ftpClient, final String sourceFilePath, final String targetFilePath,
-                              final String logPrefix) throws IOException {
-        final IAzureMessager messager = AzureMessager.getMessager();
-        messager.info(String.format(UPLOAD_FILE, logPrefix, sourceFilePath, targetFilePath));
-        final File sourceFile = new File(sourceFilePath);
+    protected void uploadFile(final FTPClient ftpClient, final File sourceFile, final String targetDirectory) throws IOException {
+        final String targetFilePath = targetDirectory + "/" + sourceFile.getName();
+        log.debug(String.format(UPLOAD_FILE, sourceFile.getAbsolutePath(), targetFilePath));
         try (final InputStream is = new FileInputStream(sourceFile)) {
-            ftpClient.changeWorkingDirectory(targetFilePath);
-            ftpClient.storeFile(sourceFile.getName(), is);
-
+            ftpClient.storeFile(targetFilePath, is);
             final int replyCode = ftpClient.getReplyCode();
-            final String replyMessage = ftpClient.getReplyString();
             if (isCommandFailed(replyCode)) {
-                messager.error(String.format(UPLOAD_FILE_REPLY, logPrefix, replyMessage));
-                throw new IOException("Failed to upload file: " + sourceFilePath);
-            } else {
-                messager.info(String.format(UPLOAD_FILE_REPLY, logPrefix, replyMessage));
+                final String message = String.format(UPLOAD_FILE_REPLY, sourceFile.getAbsolutePath(), ftpClient.getReplyString());
+                AzureMessager.getMessager().error(message);
+                throw new IOException(message);
             }
         }
+        ftpClient.setModificationTime(targetFilePath, formatTime(sourceFile.lastModified()));
     }
 
     protected FTPClient getFTPClient(final String ftpServer, final String username, final String password)
@@ -146,6 +225,84 @@ public class FTPUploader {
         return ftpClient;
     }
 
+    /**
+     * create the remote directories (parents first) that have not been created by this uploader yet.
+     */
+    private void makeDirectories(final FTPClient ftpClient, final Set<String> directories) throws IOException {
+        final Set<String> all = new TreeSet<>();
+        for (final String directory : directories) {
+            for (int i = directory.indexOf('/', 1); i > 0; i = directory.indexOf('/', i + 1)) {
+                all.add(directory.substring(0, i));
+            }
+            all.add(directory);
+        }
+        for (final String directory : all) {
+            if (!createdDirectories.contains(directory) &&
+                (ftpClient.makeDirectory(directory) || ftpClient.changeWorkingDirectory(directory))) {
+                createdDirectories.add(directory);
+            }
+        }
+    }
+
+    private static Map<String, Map<String, FTPFile>> listRemoteFiles(final FTPClient ftpClient, final Set<String> directories) {
+        final Map<String, Map<String, FTPFile>> result = new HashMap<>();
+        for (final String directory : directories) {
+            final Map<String, FTPFile> files = new HashMap<>();
+            try {
+                for (final FTPFile file : ftpClient.mlistDir(directory)) {
+                    if (Objects.nonNull(file) && file.isFile()) {
+                        files.put(file.getName(), file);
+                    }
+                }
+            } catch (final IOException e) {
+                // MLSD may be not supported, upload all files of this directory then.
+                log.debug(e.getMessage(), e);
+            }
+            result.put(directory, files);
+        }
+        return result;
+    }
+
+    private static boolean isUpToDate(final File local, final FTPFile remote) {
+        return Objects.nonNull(remote) && Objects.nonNull(remote.getTimestamp()) && remote.getSize() == local.length() &&
+            remote.getTimestamp().getTimeInMillis() / 1000 == local.lastModified() / 1000;
+    }
+
+    private static void listFiles(final File directory, final String targetDirectory, final List<Pair<File, String>> result) {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (final File file : files) {
+            if (file.isFile()) {
+                result.add(Pair.of(file, targetDirectory));
+            } else {
+                listFiles(file, targetDirectory + "/" + file.getName(), result);
+            }
+        }
+    }
+
+    private static String normalize(final String directory) {
+        final String path = directory.replace('\\', '/');
+        return path.endsWith("/") && path.length() > 1 ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static String formatTime(final long millis) {
+        final SimpleDateFormat format = new SimpleDateFormat("yyyyMMddHHmmss");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date(millis));
+    }
+
+    private static void disconnect(final FTPClient ftpClient) {
+        if (Objects.nonNull(ftpClient) && ftpClient.isConnected()) {
+            try {
+                ftpClient.disconnect();
+            } catch (final IOException e) {
+                log.debug(e.getMessage(), e);
+            }
+        }
+    }
+
     private boolean isCommandFailed(final int replyCode) {
         // https://en.wikipedia.org/wiki/List_of_FTP_server_return_codes
         // 2xx means command has been successfully completed
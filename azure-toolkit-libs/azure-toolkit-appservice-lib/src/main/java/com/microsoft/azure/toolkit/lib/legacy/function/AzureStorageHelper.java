@@ -8,22 +8,36 @@ package com.microsoft.azure.toolkit.lib.legacy.function;
 import com.microsoft.azure.storage.CloudStorageAccount;
 import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.blob.BlobContainerPublicAccessType;
+import com.microsoft.azure.storage.blob.BlobRequestOptions;
 import com.microsoft.azure.storage.blob.CloudBlob;
 import com.microsoft.azure.storage.blob.CloudBlobClient;
 import com.microsoft.azure.storage.blob.CloudBlobContainer;
 import com.microsoft.azure.storage.blob.CloudBlockBlob;
 import com.microsoft.azure.storage.blob.SharedAccessBlobPermissions;
 import com.microsoft.azure.storage.blob.SharedAccessBlobPolicy;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 import com.microsoft.azure.toolkit.lib.legacy.function.utils.DateUtils;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
 import java.net.URISyntaxException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.Period;
+import java.time.format.DateTimeParseException;
 import java.util.EnumSet;
 
 public class AzureStorageHelper {
@@ -31,6 +45,9 @@ public class AzureStorageHelper {
     private static final String FAIL_TO_DELETE_BLOB = "Fail to delete blob";
     private static final String FAIL_TO_UPLOAD_BLOB = "Fail to upload file as blob";
     private static final String FAIL_TO_GENERATE_BLOB_SAS_TOKEN = "Fail to generate blob sas token";
+    private static final String SAS_EXPIRY_PARAMETER = "se=";
+    public static final int DEFAULT_UPLOAD_BLOCK_SIZE = 8 * 1024 * 1024;
+    public static final int DEFAULT_UPLOAD_CONCURRENCY = 4;
 
     public static CloudBlockBlob uploadFileAsBlob(final File fileToUpload, final CloudStorageAccount storageAccount,
             final String containerName, final String blobName, final BlobContainerPublicAccessType accessType) throws AzureExecutionException {
@@ -39,13 +56,63 @@ public class AzureStorageHelper {
             blobContainer.createIfNotExists(accessType, null, null);
 
             final CloudBlockBlob blob = blobContainer.getBlockBlobReference(blobName);
-            blob.upload(new FileInputStream(fileToUpload), fileToUpload.length());
+            uploadFileToBlob(fileToUpload, blob);
             return blob;
-        } catch (URISyntaxException | StorageException | IOException e) {
+        } catch (URISyntaxException | StorageException e) {
             throw new AzureExecutionException(FAIL_TO_UPLOAD_BLOB, e);
         }
     }
 
+    /**
+     * upload file to the blob in blocks of {@link AzureConfiguration#getBlobUploadBlockSize()} bytes with
+     * {@link AzureConfiguration#getBlobUploadConcurrency()} parallel requests, skip uploading if the content MD5 of
+     * the existing blob matches the file.
+     *
+     * @return false if uploading is skipped
+     */
+    public static boolean uploadFileToBlob(final File fileToUpload, final CloudBlockBlob blob) throws AzureExecutionException {
+        try {
+            if (blob.exists() && isContentMD5Matched(fileToUpload, blob.getProperties().getContentMD5())) {
+                return false;
+            }
+            final AzureConfiguration config = Azure.az().config();
+            final int blockSize = config.getBlobUploadBlockSize() > 0 ? config.getBlobUploadBlockSize() : DEFAULT_UPLOAD_BLOCK_SIZE;
+            final int concurrency = config.getBlobUploadConcurrency() > 0 ? config.getBlobUploadConcurrency() : DEFAULT_UPLOAD_CONCURRENCY;
+            final BlobRequestOptions options = new BlobRequestOptions();
+            options.setConcurrentRequestCount(concurrency);
+            options.setSingleBlobPutThresholdInBytes(blockSize);
+            options.setStoreBlobContentMD5(true);
+            blob.setStreamWriteSizeInBytes(blockSize);
+            try (final InputStream is = new FileInputStream(fileToUpload)) {
+                blob.upload(is, fileToUpload.length(), null, options, null);
+            }
+            return true;
+        } catch (StorageException | IOException e) {
+            throw new AzureExecutionException(FAIL_TO_UPLOAD_BLOB, e);
+        }
+    }
+
+    /**
+     * @return true if the url is a SAS url of the blob which will not expire in the duration.
+     */
+    public static boolean isValidSASUrl(final String url, final CloudBlob blob, Duration duration) {
+        final String prefix = blob.getUri().toString() + "?";
+        if (!StringUtils.startsWith(url, prefix)) {
+            return false;
+        }
+        for (final String parameter : StringUtils.split(url.substring(prefix.length()), '&')) {
+            if (parameter.startsWith(SAS_EXPIRY_PARAMETER)) {
+                try {
+                    final String expiry = URLDecoder.decode(parameter.substring(SAS_EXPIRY_PARAMETER.length()), StandardCharsets.UTF_8.name());
+                    return OffsetDateTime.parse(expiry).toInstant().isAfter(Instant.now().plus(duration));
+                } catch (UnsupportedEncodingException | DateTimeParseException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
     public static void deleteBlob(final CloudStorageAccount storageAccount, final String containerName,
             final String blobName) throws AzureExecutionException {
         try {
@@ -78,6 +145,19 @@ public class AzureStorageHelper {
         }
     }
 
+    /**
+     * @param contentMD5 base64 encoded content MD5 of a blob, null if unknown.
+     */
+    static boolean isContentMD5Matched(final File file, final String contentMD5) throws IOException {
+        return StringUtils.isNotBlank(contentMD5) && StringUtils.equals(contentMD5, getContentMD5(file));
+    }
+
+    private static String getContentMD5(final File file) throws IOException {
+        try (final InputStream is = new FileInputStream(file)) {
+            return Base64.encodeBase64String(DigestUtils.md5(is));
+        }
+    }
+
     protected static CloudBlobContainer getBlobContainer(final CloudStorageAccount storageAccount,
                                                          final String containerName) throws URISyntaxException, StorageException {
         final CloudBlobClient blobClient = storageAccount.createCloudBlobClient();
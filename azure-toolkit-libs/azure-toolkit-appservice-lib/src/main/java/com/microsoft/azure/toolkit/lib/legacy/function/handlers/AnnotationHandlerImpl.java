@@ -8,6 +8,7 @@ package com.microsoft.azure.toolkit.lib.legacy.function.handlers;
 import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionAnnotation;
 import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionMethod;
 import com.microsoft.azure.toolkit.lib.appservice.function.impl.DefaultFunctionProject;
+import com.microsoft.azure.toolkit.lib.appservice.function.impl.FunctionClassScanner;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.legacy.function.bindings.Binding;
@@ -16,11 +17,7 @@ import com.microsoft.azure.toolkit.lib.legacy.function.bindings.BindingFactory;
 import com.microsoft.azure.toolkit.lib.legacy.function.configurations.FunctionConfiguration;
 import com.microsoft.azure.toolkit.lib.legacy.function.configurations.Retry;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.reflections.Reflections;
-import org.reflections.scanners.Scanners;
-import org.reflections.util.ConfigurationBuilder;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
@@ -32,6 +29,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -47,18 +45,24 @@ public class AnnotationHandlerImpl implements AnnotationHandler {
     private static final String MULTI_RETRY_ANNOTATION = "Fixed delay retry and exponential backoff retry are not compatible, " +
         "please use either of them for one trigger";
 
+    private final Map<Method, FunctionMethod> functionMethods = new ConcurrentHashMap<>();
+
     @Override
     public Set<Method> findFunctions(final List<URL> urls) {
         try {
-            final ClassLoader classLoader = getClassLoader(urls);
-            final Class<?> functionNameAnnotation = ClassUtils.getClass(classLoader, FUNCTION_NAME);
-            final ConfigurationBuilder builder = new ConfigurationBuilder().addUrls(urls).setScanners(Scanners.MethodsAnnotated).addClassLoaders(classLoader);
-            return new Reflections(builder).getMethodsAnnotatedWith((Class<? extends Annotation>) functionNameAnnotation);
+            return FunctionClassScanner.findFunctionMethods(urls, getClassLoader(urls));
         } catch (ClassNotFoundException e) {
             throw new AzureToolkitRuntimeException(e);
         }
     }
 
+    /**
+     * annotations of a method are converted only once, though they are looked up when generating each part of the configuration.
+     */
+    private FunctionMethod getFunctionMethod(final Method method) {
+        return functionMethods.computeIfAbsent(method, DefaultFunctionProject::create);
+    }
+
     protected ClassLoader getClassLoader(final List<URL> urlList) {
         final URL[] urlArray = urlList.toArray(new URL[0]);
         return new URLClassLoader(urlArray, this.getClass().getClassLoader());
@@ -68,7 +72,7 @@ public class AnnotationHandlerImpl implements AnnotationHandler {
     public Map<String, FunctionConfiguration> generateConfigurations(final Set<Method> methods) throws AzureExecutionException {
         final Map<String, FunctionConfiguration> configMap = new HashMap<>();
         for (final Method method : methods) {
-            final FunctionMethod functionMethod = DefaultFunctionProject.create(method);
+            final FunctionMethod functionMethod = getFunctionMethod(method);
             final FunctionAnnotation functionNameAnnotation = functionMethod.getAnnotation(FUNCTION_NAME);
             if (functionNameAnnotation == null) {
                 continue;
@@ -107,7 +111,7 @@ public class AnnotationHandlerImpl implements AnnotationHandler {
     }
 
     private Retry getRetryConfigurationFromMethod(Method method) throws AzureExecutionException {
-        final FunctionMethod functionMethod = DefaultFunctionProject.create(method);
+        final FunctionMethod functionMethod = getFunctionMethod(method);
         final FunctionAnnotation fixedDelayRetry = functionMethod.getAnnotation(FIXED_DELAY_RETRY);
         final FunctionAnnotation exponentialBackoffRetry = functionMethod.getAnnotation(EXPONENTIAL_BACKOFF_RETRY);
         if (fixedDelayRetry != null && exponentialBackoffRetry != null) {
@@ -167,7 +171,7 @@ public class AnnotationHandlerImpl implements AnnotationHandler {
     }
 
     protected void patchStorageBinding(final Method method, final List<Binding> bindings) {
-        final FunctionMethod functionMethod = DefaultFunctionProject.create(method);
+        final FunctionMethod functionMethod = getFunctionMethod(method);
         final FunctionAnnotation storageAccount = functionMethod.getAnnotation(STORAGE_ACCOUNT);
 
         if (storageAccount != null) {
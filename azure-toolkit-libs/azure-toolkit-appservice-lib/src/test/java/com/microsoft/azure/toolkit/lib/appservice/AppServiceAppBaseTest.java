@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice;
+
+import com.microsoft.azure.toolkit.lib.appservice.file.IProcessClient;
+import com.microsoft.azure.toolkit.lib.appservice.model.ProcessInfo;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AppServiceAppBaseTest {
+
+    @Test
+    public void notStoppedUntilJavaProcessIsGone() {
+        final IProcessClient kudu = mock(IProcessClient.class);
+        when(kudu.listProcess()).thenReturn(Arrays.asList(process("kudu"), process("java")));
+        assertFalse(AppServiceAppBase.isProcessStopped(() -> kudu, 60000));
+        when(kudu.listProcess()).thenReturn(Collections.singletonList(process("kudu")));
+        assertTrue(AppServiceAppBase.isProcessStopped(() -> kudu, 0));
+    }
+
+    @Test
+    public void waitForAWhileIfProcessesAreNotAvailable() {
+        // Kudu is usually not accessible once the app is stopped.
+        final IProcessClient kudu = mock(IProcessClient.class);
+        when(kudu.listProcess()).thenThrow(new IllegalStateException("503 Service Unavailable"));
+        assertFalse(AppServiceAppBase.isProcessStopped(() -> kudu, 0));
+        assertFalse(AppServiceAppBase.isProcessStopped(() -> kudu, 5000));
+        assertTrue(AppServiceAppBase.isProcessStopped(() -> kudu, 10000));
+        assertFalse(AppServiceAppBase.isProcessStopped(() -> null, 0));
+    }
+
+    private static ProcessInfo process(String name) {
+        final ProcessInfo process = new ProcessInfo();
+        process.setName(name);
+        return process;
+    }
+}
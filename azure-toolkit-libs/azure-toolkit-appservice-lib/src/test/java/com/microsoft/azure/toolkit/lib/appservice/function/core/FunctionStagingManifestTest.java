@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.function.core;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FunctionStagingManifestTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void isUpToDate() throws Exception {
+        final File staging = folder.newFolder("staging");
+        final File input = folder.newFile("input.jar");
+        FileUtils.write(input, "content", StandardCharsets.UTF_8);
+        final List<File> inputs = Collections.singletonList(input);
+
+        final FunctionStagingManifest first = FunctionStagingManifest.load(staging, true);
+        assertFalse(first.isUpToDate("step", inputs));
+        first.setProperty("step", "key", "value");
+        first.complete("step");
+        first.save();
+
+        // touched but unchanged content
+        assertTrue(input.setLastModified(input.lastModified() - 10000));
+        final FunctionStagingManifest second = FunctionStagingManifest.load(staging, true);
+        assertTrue(second.isUpToDate("step", inputs));
+        assertEquals("value", second.getProperty("step", "key"));
+        assertFalse(FunctionStagingManifest.load(staging, false).isUpToDate("step", inputs));
+
+        FileUtils.write(input, "changed", StandardCharsets.UTF_8);
+        assertFalse(FunctionStagingManifest.load(staging, true).isUpToDate("step", inputs));
+    }
+
+    @Test
+    public void isUpToDateWithoutComplete() throws Exception {
+        final File staging = folder.newFolder("staging");
+        final List<File> inputs = Collections.singletonList(folder.newFile("input.jar"));
+
+        final FunctionStagingManifest first = FunctionStagingManifest.load(staging, true);
+        first.isUpToDate("step", inputs);
+        first.save();
+        assertFalse(FunctionStagingManifest.load(staging, true).isUpToDate("step", inputs));
+    }
+
+    @Test
+    public void syncFolder() throws Exception {
+        final File a = folder.newFile("a.jar");
+        final File b = folder.newFile("b.jar");
+        FileUtils.write(a, "a", StandardCharsets.UTF_8);
+        FileUtils.write(b, "b", StandardCharsets.UTF_8);
+        final File lib = new File(folder.getRoot(), "lib");
+        FileUtils.write(new File(lib, "stale.jar"), "stale", StandardCharsets.UTF_8);
+
+        FunctionStagingManifest.syncFolder(Arrays.asList(a, b), lib);
+        assertEquals(2, lib.list().length);
+        assertEquals("a", FileUtils.readFileToString(new File(lib, "a.jar"), StandardCharsets.UTF_8));
+        assertEquals(a.lastModified(), new File(lib, "a.jar").lastModified());
+
+        FunctionStagingManifest.syncFolder(Collections.singletonList(a), lib);
+        assertEquals(Collections.singletonList("a.jar"), Arrays.asList(lib.list()));
+    }
+
+    @Test
+    public void copyIfChanged() throws Exception {
+        final File source = folder.newFile("host.json");
+        FileUtils.write(source, "{}", StandardCharsets.UTF_8);
+        final File target = new File(folder.newFolder("staging"), "host.json");
+
+        assertTrue(FunctionStagingManifest.copyIfChanged(source, target));
+        assertFalse(FunctionStagingManifest.copyIfChanged(source, target));
+    }
+}
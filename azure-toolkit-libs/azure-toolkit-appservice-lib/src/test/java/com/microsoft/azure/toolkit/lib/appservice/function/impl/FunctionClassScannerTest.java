@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.function.impl;
+
+import com.microsoft.azure.functions.annotation.FunctionName;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FunctionClassScannerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void findFunctionMethods() throws Exception {
+        final File classes = folder.newFolder("classes");
+        copyClass(Functions.class, classes);
+        copyClass(NoFunctions.class, classes);
+        final FunctionClassScanner scanner = new FunctionClassScanner(folder.getRoot().toPath().resolve("cache.properties"), 10);
+
+        final Set<Method> methods = scanner.scanFunctionMethods(Collections.singletonList(classes.toURI().toURL()), getClass().getClassLoader());
+        assertEquals(Collections.singleton(Functions.class.getDeclaredMethod("run")), methods);
+    }
+
+    @Test
+    public void findFunctionClassesInJar() throws Exception {
+        final Path cacheFile = folder.getRoot().toPath().resolve("cache.properties");
+        final File jar = newJar("function.jar", Functions.class, NoFunctions.class);
+        final FunctionClassScanner scanner = new FunctionClassScanner(cacheFile, 10);
+
+        assertEquals(Collections.singleton(Functions.class.getName()), scanner.scanFunctionClasses(urls(jar)));
+        assertTrue(load(cacheFile).containsKey(FunctionClassScanner.getChecksum(jar)));
+    }
+
+    @Test
+    public void cacheHit() throws Exception {
+        final Path cacheFile = folder.getRoot().toPath().resolve("cache.properties");
+        final File jar = newJar("function.jar", Functions.class);
+        new FunctionClassScanner(cacheFile, 10).scanFunctionClasses(urls(jar));
+
+        // tamper the cached result, a scanner hitting the cache returns it without reading the jar.
+        final Properties properties = load(cacheFile);
+        properties.setProperty(FunctionClassScanner.getChecksum(jar), "1;com.example.Cached");
+        try (final OutputStream os = Files.newOutputStream(cacheFile)) {
+            properties.store(os, null);
+        }
+        assertEquals(Collections.singleton("com.example.Cached"), new FunctionClassScanner(cacheFile, 10).scanFunctionClasses(urls(jar)));
+    }
+
+    @Test
+    public void notSaveCacheOnRecentHit() throws Exception {
+        final Path cacheFile = folder.getRoot().toPath().resolve("cache.properties");
+        final File jar = newJar("function.jar", Functions.class);
+        final FunctionClassScanner scanner = new FunctionClassScanner(cacheFile, 10);
+        scanner.scanFunctionClasses(urls(jar));
+        Files.delete(cacheFile);
+
+        assertEquals(Collections.singleton(Functions.class.getName()), scanner.scanFunctionClasses(urls(jar)));
+        assertFalse(Files.exists(cacheFile));
+    }
+
+    @Test
+    public void cacheInvalidatedOnJarChange() throws Exception {
+        final Path cacheFile = folder.getRoot().toPath().resolve("cache.properties");
+        final File jar = newJar("function.jar", Functions.class);
+        final FunctionClassScanner scanner = new FunctionClassScanner(cacheFile, 10);
+        assertEquals(Collections.singleton(Functions.class.getName()), scanner.scanFunctionClasses(urls(jar)));
+
+        FileUtils.forceDelete(jar);
+        newJar("function.jar", NoFunctions.class);
+        assertTrue(scanner.scanFunctionClasses(urls(jar)).isEmpty());
+        assertTrue(new FunctionClassScanner(cacheFile, 10).scanFunctionClasses(urls(jar)).isEmpty());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() throws Exception {
+        final Path cacheFile = folder.getRoot().toPath().resolve("cache.properties");
+        final File a = newJar("a.jar", Functions.class);
+        final File b = newJar("b.jar", NoFunctions.class);
+        final File c = newJar("c.jar", Functions.class, NoFunctions.class);
+        final FunctionClassScanner scanner = new FunctionClassScanner(cacheFile, 2);
+
+        scanner.scanFunctionClasses(urls(a));
+        scanner.scanFunctionClasses(urls(b));
+        scanner.scanFunctionClasses(urls(a));
+        scanner.scanFunctionClasses(urls(c));
+
+        final Properties properties = load(cacheFile);
+        assertEquals(2, properties.size());
+        assertTrue(properties.containsKey(FunctionClassScanner.getChecksum(a)));
+        assertFalse(properties.containsKey(FunctionClassScanner.getChecksum(b)));
+        assertTrue(properties.containsKey(FunctionClassScanner.getChecksum(c)));
+    }
+
+    private File newJar(String name, Class<?>... classes) throws Exception {
+        final File jar = new File(folder.getRoot(), name);
+        try (final JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar.toPath()))) {
+            for (final Class<?> clazz : classes) {
+                output.putNextEntry(new JarEntry(getClassFileName(clazz)));
+                try (final InputStream is = clazz.getClassLoader().getResourceAsStream(getClassFileName(clazz))) {
+                    IOUtils.copy(is, output);
+                }
+                output.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static void copyClass(Class<?> clazz, File classes) throws Exception {
+        try (final InputStream is = clazz.getClassLoader().getResourceAsStream(getClassFileName(clazz))) {
+            FileUtils.copyInputStreamToFile(is, new File(classes, getClassFileName(clazz)));
+        }
+    }
+
+    private static String getClassFileName(Class<?> clazz) {
+        return clazz.getName().replace('.', '/') + ".class";
+    }
+
+    private static List<URL> urls(File... files) throws Exception {
+        final URL[] result = new URL[files.length];
+        for (int i = 0; i < files.length; i++) {
+            result[i] = files[i].toURI().toURL();
+        }
+        return Arrays.asList(result);
+    }
+
+    private static Properties load(Path file) throws Exception {
+        final Properties properties = new Properties();
+        try (final InputStream is = Files.newInputStream(file)) {
+            properties.load(is);
+        }
+        return properties;
+    }
+
+    public static class Functions {
+        @FunctionName("run")
+        public void run() {
+        }
+    }
+
+    public static class NoFunctions {
+        public void run() {
+        }
+    }
+}
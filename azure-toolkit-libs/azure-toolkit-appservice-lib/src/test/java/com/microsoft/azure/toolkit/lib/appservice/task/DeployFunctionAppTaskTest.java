@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.task;
+
+import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionStagingManifest;
+import com.microsoft.azure.toolkit.lib.appservice.utils.ZipPackager;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class DeployFunctionAppTaskTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void notDeployManifestAndLocalSettings() throws IOException {
+        final File staging = temp.newFolder("staging");
+        for (final String name : Arrays.asList("host.json", "local.settings.json", FunctionStagingManifest.MANIFEST_FILE,
+            "HttpTrigger/function.json", "HttpTrigger/local.settings.json")) {
+            FileUtils.writeStringToFile(new File(staging, name), "{}", StandardCharsets.UTF_8);
+        }
+        final File zip = temp.newFile("package.zip");
+        ZipPackager.pack(staging, zip, DeployFunctionAppTask::isDeployable);
+        final List<String> names;
+        try (final ZipFile zipFile = new ZipFile(zip)) {
+            names = Collections.list(zipFile.getEntries()).stream().map(ZipArchiveEntry::getName).sorted().collect(Collectors.toList());
+        }
+        // only the files in the root of the staging directory are excluded.
+        assertEquals(Arrays.asList("HttpTrigger/function.json", "HttpTrigger/local.settings.json", "host.json"), names);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.task;
+
+import com.microsoft.azure.toolkit.lib.appservice.model.DeployType;
+import com.microsoft.azure.toolkit.lib.appservice.model.WebAppArtifact;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DeployWebAppTaskTest {
+    private final WebAppArtifact war = artifact("app.war", DeployType.WAR);
+    private final WebAppArtifact lib = artifact("lib.jar", DeployType.JAR_LIB);
+    private final WebAppArtifact script = artifact("startup.sh", DeployType.SCRIPT_STARTUP);
+
+    @Test
+    public void skipUnchangedArtifacts() {
+        final DeployLedger ledger = mock(DeployLedger.class);
+        when(ledger.isDeployed(war)).thenReturn(true);
+        when(ledger.isDeployed(lib)).thenReturn(false);
+        when(ledger.isDeployed(script)).thenReturn(true);
+        final List<WebAppArtifact> artifacts = DeployWebAppTask.getArtifactsToDeploy(Arrays.asList(war, lib, script), ledger);
+        assertEquals(Collections.singletonList(lib), artifacts);
+        verify(ledger, never()).forgetAll();
+    }
+
+    @Test
+    public void deployAllIfPackageChanged() {
+        final DeployLedger ledger = mock(DeployLedger.class);
+        when(ledger.isDeployed(war)).thenReturn(false);
+        when(ledger.isDeployed(lib)).thenReturn(true);
+        when(ledger.isDeployed(script)).thenReturn(true);
+        // the package may clean the target directory, so the unchanged artifacts are deployed again.
+        final List<WebAppArtifact> artifacts = DeployWebAppTask.getArtifactsToDeploy(Arrays.asList(war, lib, script), ledger);
+        assertEquals(Arrays.asList(war, lib, script), artifacts);
+        verify(ledger).forgetAll();
+    }
+
+    @Test
+    public void deployAllWithoutLedger() {
+        final List<WebAppArtifact> artifacts = DeployWebAppTask.getArtifactsToDeploy(Arrays.asList(war, lib), null);
+        assertEquals(Arrays.asList(war, lib), artifacts);
+    }
+
+    private static WebAppArtifact artifact(String name, DeployType type) {
+        return WebAppArtifact.builder().file(new File(name)).deployType(type).build();
+    }
+}
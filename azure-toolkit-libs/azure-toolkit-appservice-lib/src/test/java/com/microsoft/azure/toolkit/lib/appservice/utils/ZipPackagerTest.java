@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.utils;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ZipPackagerTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = temp.newFolder("staging");
+        write("host.json", "{}");
+        write("lib/b.jar", "b");
+        write("lib/a.jar", "a");
+        write("HttpTrigger/function.json", "{\"bindings\": []}");
+    }
+
+    @Test
+    public void packEntriesInOrder() throws IOException {
+        final File zip = temp.newFile("package.zip");
+        ZipPackager.pack(this.directory, zip, name -> true);
+        final List<String> names = new ArrayList<>();
+        try (final ZipFile zipFile = new ZipFile(zip)) {
+            for (final ZipArchiveEntry entry : Collections.list(zipFile.getEntriesInPhysicalOrder())) {
+                names.add(entry.getName());
+            }
+        }
+        assertEquals(Arrays.asList("HttpTrigger/function.json", "host.json", "lib/a.jar", "lib/b.jar"), names);
+    }
+
+    @Test
+    public void packSameBytesForSameFiles() throws IOException {
+        final File first = temp.newFile("first.zip");
+        ZipPackager.pack(this.directory, first, name -> true);
+        // e.g. the files are copied into the staging directory again by the next build.
+        for (final File file : FileUtils.listFiles(this.directory, null, true)) {
+            assertTrue(file.setLastModified(file.lastModified() - 3600 * 1000L));
+        }
+        final File second = temp.newFile("second.zip");
+        ZipPackager.pack(this.directory, second, name -> true);
+        assertArrayEquals(FileUtils.readFileToByteArray(first), FileUtils.readFileToByteArray(second));
+    }
+
+    @Test
+    public void storeCompressedFiles() throws IOException {
+        write("lib/c.JAR", "c");
+        write("static/logo.png", "png");
+        final File zip = temp.newFile("package.zip");
+        ZipPackager.pack(this.directory, zip, name -> true);
+        try (final ZipFile zipFile = new ZipFile(zip)) {
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("lib/a.jar").getMethod());
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("lib/c.JAR").getMethod());
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("static/logo.png").getMethod());
+            assertEquals(ZipEntry.DEFLATED, zipFile.getEntry("host.json").getMethod());
+            assertEquals(ZipEntry.DEFLATED, zipFile.getEntry("HttpTrigger/function.json").getMethod());
+        }
+    }
+
+    @Test
+    public void packOnlyAcceptedFiles() throws IOException {
+        final File zip = temp.newFile("package.zip");
+        ZipPackager.pack(this.directory, zip, name -> !name.startsWith("lib/"));
+        assertEquals(Arrays.asList("HttpTrigger/function.json", "host.json"), getEntryNames(zip));
+    }
+
+    private void write(String path, String content) throws IOException {
+        FileUtils.writeStringToFile(new File(this.directory, path), content, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> getEntryNames(File zip) throws IOException {
+        try (final ZipFile zipFile = new ZipFile(zip)) {
+            return Collections.list(zipFile.getEntries()).stream().map(ZipArchiveEntry::getName).sorted().collect(Collectors.toList());
+        }
+    }
+}
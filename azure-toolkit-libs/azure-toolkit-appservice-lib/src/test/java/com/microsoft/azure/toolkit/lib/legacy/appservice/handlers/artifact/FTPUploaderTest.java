@@ -7,64 +7,113 @@ package com.microsoft.azure.toolkit.lib.legacy.appservice.handlers.artifact;
 
 import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 
-import static org.mockito.Mockito.verifyNoMoreInteractions;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.TimeZone;
 
 @RunWith(MockitoJUnitRunner.class)
 public class FTPUploaderTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
     private FTPUploader ftpUploader = null;
 
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
-        ftpUploader = new FTPUploader();
+        ftpUploader = new FTPUploader(1);
     }
 
     @Test
-    public void uploadDirectoryWithRetries() throws Exception {
+    public void uploadFilesWithRetries() throws Exception {
         final FTPUploader uploaderSpy = Mockito.spy(ftpUploader);
+        final List<Pair<File, String>> files = Arrays.asList(Pair.of(new File("a.txt"), "/site/wwwroot"),
+            Pair.of(new File("b.txt"), "/site/wwwroot/lib"), Pair.of(new File("b.txt"), "/site/wwwroot/plugins"));
+        final List<Pair<File, String>> failed = Collections.singletonList(Pair.of(new File("b.txt"), "/site/wwwroot/lib"));
 
         // Failure
         AzureExecutionException exception = null;
-        Mockito.doReturn(false).when(uploaderSpy).uploadDirectory(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyString());
+        Mockito.doReturn(files).when(uploaderSpy).uploadFiles(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.anyString(), ArgumentMatchers.anyCollection());
         try {
-            uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", "sourceDir", "targetDir", 1);
+            uploaderSpy.uploadFilesWithRetries("ftpServer", "username", "password", files, 1);
         } catch (AzureExecutionException e) {
             exception = e;
         } finally {
             Assert.assertNotNull(exception);
         }
 
-        // Success
-        Mockito.doReturn(true).when(uploaderSpy).uploadDirectory(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyString());
-        uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", "sourceDir", "targetDir", 1);
+        // Only the failed files are retried
+        Mockito.reset(uploaderSpy);
+        Mockito.doReturn(failed).doReturn(Collections.emptyList()).when(uploaderSpy).uploadFiles(ArgumentMatchers.anyString(),
+                ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyCollection());
+        uploaderSpy.uploadFilesWithRetries("ftpServer", "username", "password", files, 2);
+        Mockito.verify(uploaderSpy, Mockito.times(1)).uploadFiles("ftpServer", "username", "password", new LinkedHashSet<>(files));
+        Mockito.verify(uploaderSpy, Mockito.times(1)).uploadFiles("ftpServer", "username", "password", failed);
     }
 
     @Test
-    public void uploadDirectory() throws Exception {
+    public void uploadFiles() throws Exception {
+        final File unchanged = temp.newFile("unchanged.txt");
+        Files.write(unchanged.toPath(), "unchanged".getBytes());
+        final File changed = temp.newFile("changed.txt");
+        Files.write(changed.toPath(), "changed".getBytes());
+        final List<Pair<File, String>> files = Arrays.asList(Pair.of(unchanged, "/site/wwwroot/lib"), Pair.of(changed, "/site/wwwroot/lib"),
+            Pair.of(changed, "/site/wwwroot/plugins"));
+
+        final FTPFile remote = new FTPFile();
+        remote.setType(FTPFile.FILE_TYPE);
+        remote.setName(unchanged.getName());
+        remote.setSize(unchanged.length());
+        final Calendar timestamp = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        timestamp.setTimeInMillis(unchanged.lastModified());
+        remote.setTimestamp(timestamp);
+
         final FTPUploader uploaderSpy = Mockito.spy(ftpUploader);
         final FTPClient ftpClient = Mockito.mock(FTPClient.class);
         Mockito.doReturn(ftpClient).when(uploaderSpy).getFTPClient(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
-        Mockito.doNothing().when(uploaderSpy).uploadDirectory(ArgumentMatchers.any(FTPClient.class), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
-
-        uploaderSpy.uploadDirectory(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
-        Mockito.verify(ftpClient, Mockito.times(1)).disconnect();
-        Mockito.verifyNoMoreInteractions(ftpClient);
-        Mockito.verify(uploaderSpy, Mockito.times(1)).uploadDirectory(ArgumentMatchers.any(FTPClient.class), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
-        Mockito.verify(uploaderSpy, Mockito.times(1)).getFTPClient(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
-        Mockito.verify(uploaderSpy, Mockito.times(1)).uploadDirectory(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
-        verifyNoMoreInteractions(uploaderSpy);
+        Mockito.doReturn(true).when(ftpClient).makeDirectory(ArgumentMatchers.anyString());
+        Mockito.doReturn(new FTPFile[]{remote}).when(ftpClient).mlistDir("/site/wwwroot/lib");
+        Mockito.doReturn(new FTPFile[0]).when(ftpClient).mlistDir("/site/wwwroot/plugins");
+        Mockito.doReturn(226).when(ftpClient).getReplyCode();
+
+        final Collection<Pair<File, String>> failed = uploaderSpy.uploadFiles("ftpServer", "username", "password", files);
+        Assert.assertTrue(failed.isEmpty());
+        Mockito.verify(ftpClient, Mockito.times(1)).makeDirectory("/site");
+        Mockito.verify(ftpClient, Mockito.times(1)).makeDirectory("/site/wwwroot");
+        Mockito.verify(ftpClient, Mockito.times(1)).makeDirectory("/site/wwwroot/lib");
+        Mockito.verify(ftpClient, Mockito.times(1)).storeFile(ArgumentMatchers.eq("/site/wwwroot/lib/changed.txt"), ArgumentMatchers.any());
+        Mockito.verify(ftpClient, Mockito.times(1)).storeFile(ArgumentMatchers.eq("/site/wwwroot/plugins/changed.txt"), ArgumentMatchers.any());
+        Mockito.verify(ftpClient, Mockito.never()).storeFile(ArgumentMatchers.eq("/site/wwwroot/lib/unchanged.txt"), ArgumentMatchers.any());
+
+        // directories are created only once
+        Mockito.reset(ftpClient);
+        Mockito.doReturn(new FTPFile[0]).when(ftpClient).mlistDir("/site/wwwroot/lib");
+        Mockito.doReturn(new FTPFile[0]).when(ftpClient).mlistDir("/site/wwwroot/plugins");
+        Mockito.doReturn(226).when(ftpClient).getReplyCode();
+        uploaderSpy.uploadFiles("ftpServer", "username", "password", files);
+        Mockito.verify(ftpClient, Mockito.never()).makeDirectory(ArgumentMatchers.anyString());
+        Mockito.verify(ftpClient, Mockito.times(3)).storeFile(ArgumentMatchers.anyString(), ArgumentMatchers.any());
     }
 
     @Test
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.legacy.function;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AzureStorageHelperTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void skipUploadingUnchangedPackage() throws IOException {
+        final File first = temp.newFile("first.zip");
+        FileUtils.writeStringToFile(first, "package", StandardCharsets.UTF_8);
+        // the content MD5 stored by the first upload.
+        final String uploaded = Base64.encodeBase64String(DigestUtils.md5(FileUtils.readFileToByteArray(first)));
+
+        final File second = temp.newFile("second.zip");
+        FileUtils.writeStringToFile(second, "package", StandardCharsets.UTF_8);
+        assertTrue(AzureStorageHelper.isContentMD5Matched(second, uploaded));
+
+        final File third = temp.newFile("third.zip");
+        FileUtils.writeStringToFile(third, "changed package", StandardCharsets.UTF_8);
+        assertFalse(AzureStorageHelper.isContentMD5Matched(third, uploaded));
+    }
+
+    @Test
+    public void uploadIfContentMD5Unknown() throws IOException {
+        final File file = temp.newFile("package.zip");
+        assertFalse(AzureStorageHelper.isContentMD5Matched(file, null));
+    }
+}
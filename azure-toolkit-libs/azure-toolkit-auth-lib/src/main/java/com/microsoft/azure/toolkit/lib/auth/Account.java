@@ -27,11 +27,15 @@ import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 
@@ -47,6 +51,17 @@ public abstract class Account implements IAccount {
 
     protected TokenCredentialManager credentialManager;
 
+    /**
+     * the only subscription the caller needs, login will look it up directly instead of listing all subscriptions
+     * if it's set.
+     */
+    @Setter
+    @Getter
+    private String targetSubscriptionId;
+
+    // streams of all subscriptions keyed by account, see #streamSubscriptions()
+    private static final Map<String, Flux<Subscription>> subscriptionStreams = new ConcurrentHashMap<>();
+
     public Account() {
         this.entity = new AccountEntity();
     }
@@ -94,6 +109,7 @@ public abstract class Account implements IAccount {
     @CacheEvict(CacheEvict.ALL) // evict all caches on signing out
     public void logout() {
         if (this.entity != null) {
+            subscriptionStreams.remove(this.getIdentity());
             this.entity = null;
             Azure.az(AzureAccount.class).logout();
         }
@@ -143,14 +159,18 @@ public abstract class Account implements IAccount {
     protected Mono<Account> login() {
         Mono<Boolean> mono = loginStep1();
         return mono.flatMap(ignore -> {
-            if (this.entity.getSubscriptions() == null) {
-                return this.credentialManager.listSubscriptions(this.entity.getTenantIds())
-                        .map(subscriptions -> {
-                            // reset tenant id again when all subscriptions
-                            entity.setTenantIds(subscriptions.stream().map(Subscription::getTenantId).distinct().collect(Collectors.toList()));
-                            entity.setSubscriptions(subscriptions);
+            if (this.entity.getSubscriptions() == null && StringUtils.isNotBlank(this.targetSubscriptionId)) {
+                // fast path: only resolve the target subscription and its tenant, fall back to listing if not found.
+                return this.credentialManager.getSubscription(this.entity.getTenantIds(), this.targetSubscriptionId)
+                        .map(subscription -> {
+                            entity.setTenantIds(Collections.singletonList(subscription.getTenantId()));
+                            entity.setSubscriptions(new ArrayList<>(Collections.singletonList(subscription)));
                             return true;
-                        });
+                        })
+                        .switchIfEmpty(Mono.defer(this::loadAllSubscriptions));
+            }
+            if (this.entity.getSubscriptions() == null) {
+                return loadAllSubscriptions();
             }
             return Mono.just(true);
         }).map(ignore -> {
@@ -159,6 +179,16 @@ public abstract class Account implements IAccount {
         });
     }
 
+    private Mono<Boolean> loadAllSubscriptions() {
+        return this.credentialManager.listSubscriptions(this.entity.getTenantIds())
+                        .map(subscriptions -> {
+                            // reset tenant id again when all subscriptions
+                            entity.setTenantIds(subscriptions.stream().map(Subscription::getTenantId).distinct().collect(Collectors.toList()));
+                            entity.setSubscriptions(subscriptions);
+                            return true;
+                        });
+    }
+
     public Mono<Account> continueLogin() {
         Azure.az(AzureAccount.class).setAccount(this);
         return Mono.just(this);
@@ -175,14 +205,36 @@ public abstract class Account implements IAccount {
 
     public Mono<List<Subscription>> reloadSubscriptions() {
         List<String> beforeRefreshSelectedSubsIds = this.getSelectedSubscriptions().stream().map(Subscription::getId).collect(Collectors.toList());
-        return credentialManager.listTenants().flatMap(tenantIds -> this.credentialManager.listSubscriptions(tenantIds)
+        subscriptionStreams.remove(this.getIdentity());
+        return this.streamSubscriptions().collectList()
                 .map(subscriptions -> {
                     // reset tenant id again when all subscriptions
                     entity.setTenantIds(subscriptions.stream().map(Subscription::getTenantId).distinct().collect(Collectors.toList()));
                     entity.setSubscriptions(subscriptions);
                     this.selectSubscription(beforeRefreshSelectedSubsIds);
                     return this.getSubscriptions();
-                }));
+                });
+    }
+
+    /**
+     * stream all subscriptions of all tenants of this account, subscriptions are emitted as soon as their tenant is
+     * listed. the result is cached per account until {@link #reloadSubscriptions()} or {@link #logout()}.
+     */
+    public Flux<Subscription> streamSubscriptions() {
+        if (this.credentialManager == null) {
+            return Flux.error(new AzureToolkitAuthenticationException("you are not signed-in."));
+        }
+        final String key = this.getIdentity();
+        return subscriptionStreams.computeIfAbsent(key, k -> credentialManager.listTenants()
+                .flatMapMany(tenantIds -> this.credentialManager.streamSubscriptions(tenantIds))
+                .doOnError(e -> subscriptionStreams.remove(k))
+                .cache());
+    }
+
+    @Override
+    public String getIdentity() {
+        return String.format("%s/%s/%s/%s", this.getAuthType(), this.entity.getClientId(), this.entity.getEmail(),
+                AzureEnvironmentUtils.getCloudName(this.entity.getEnvironment()));
     }
 
     /***
@@ -232,7 +232,7 @@ public class AzureAccount implements IAzureAccount {
             }
             targetAccount = accountByType.get(type).get();
         }
-
+        targetAccount.setTargetSubscriptionId(auth.getSubscription());
         return loginAsync(targetAccount, enablePersistence);
     }
 
@@ -245,7 +245,7 @@ public class AzureAccount implements IAzureAccount {
     /**
      * see doc for: az account list-locations -o table
      */
-    @Cacheable(cacheName = "Regions", key = "$subscriptionId")
+    @Cacheable(cacheName = "Regions", key = "$subscriptionId", persistent = true)
     public List<Region> listRegions(String subscriptionId) {
         return getSubscription(subscriptionId).listLocations().stream()
                 .filter(l -> l.regionType() == RegionType.PHYSICAL) // use distinct since com.azure.core.management.Region impels equals
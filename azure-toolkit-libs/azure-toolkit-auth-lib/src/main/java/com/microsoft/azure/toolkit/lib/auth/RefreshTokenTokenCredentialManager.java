@@ -11,6 +11,8 @@ import com.azure.core.credential.TokenRequestContext;
 import com.azure.core.management.AzureEnvironment;
 import com.azure.identity.implementation.MsalToken;
 import com.azure.identity.implementation.util.ScopeUtil;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.microsoft.aad.adal4j.AuthenticationCallback;
 import com.microsoft.aad.adal4j.AuthenticationContext;
 import com.microsoft.aad.adal4j.AuthenticationResult;
 import com.microsoft.aad.msal4j.IAuthenticationResult;
@@ -25,10 +27,10 @@ import javax.annotation.Nonnull;
 import java.net.MalformedURLException;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
-import java.util.concurrent.ExecutionException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 /**
  * TODO: this class is for internal use only.
@@ -44,7 +46,8 @@ public class RefreshTokenTokenCredentialManager extends TokenCredentialManagerWi
                                                                             @Nonnull String clientId,
                                                                             String refreshToken) {
 
-        TokenCredentialManager tcm = new TokenCredentialManager();
+        // cache tokens per tenant and resource, concurrent requests are coalesced and tokens are refreshed ahead of expiry.
+        TokenCredentialManager tcm = new TokenCredentialManagerWithCache();
         tcm.setEnvironment(env);
         tcm.credentialSupplier = tenant -> new RefreshTokenCredential(AzureEnvironmentUtils.getAuthority(env), clientId, tenant, refreshToken);
         tcm.rootCredentialSupplier = () -> new RefreshTokenCredential(AzureEnvironmentUtils.getAuthority(env), clientId, "common", refreshToken);
@@ -111,6 +114,11 @@ public class RefreshTokenTokenCredentialManager extends TokenCredentialManagerWi
 
     @AllArgsConstructor
     static class RefreshTokenCredential implements TokenCredential {
+        // shared by all credentials, daemon threads so that they never block the exit of the JVM.
+        private static final ExecutorService executor = Executors.newFixedThreadPool(4, new ThreadFactoryBuilder()
+                .setNameFormat("azure-toolkit-token-refresh-%d").setDaemon(true).build());
+        private static final Map<String, AuthenticationContext> contexts = new ConcurrentHashMap<>();
+
         private final String authority;
         private final String clientId;
         private final String tenantId;
@@ -118,30 +126,47 @@ public class RefreshTokenTokenCredentialManager extends TokenCredentialManagerWi
 
         @Override
         public Mono<AccessToken> getToken(TokenRequestContext context) {
-            return Mono.just(authenticate(ScopeUtil.scopesToResource(context.getScopes())));
+            return Mono.defer(() -> authenticate(ScopeUtil.scopesToResource(context.getScopes())));
         }
 
-        private AccessToken authenticate(String resource) {
-            AuthenticationContext context;
-            AuthenticationResult result;
-            String authorityUrl = authority + "/" + tenantId;
-            ExecutorService service = Executors.newFixedThreadPool(1);
+        private Mono<AccessToken> authenticate(String resource) {
+            final AuthenticationContext context;
             try {
-                context = new AuthenticationContext(authorityUrl, true, service);
-                Future<AuthenticationResult> future = context
-                        .acquireTokenByRefreshToken(refreshToken, clientId, resource, null);
-                result = future.get();
-            } catch (ExecutionException | InterruptedException | MalformedURLException e) {
-                throw new AzureToolkitAuthenticationException(
-                        String.format("Cannot acquire token from refresh token due to error: %s", e.getMessage()), e);
-            } finally {
-                service.shutdown();
+                context = getAuthenticationContext(authority + "/" + tenantId);
+            } catch (MalformedURLException e) {
+                return Mono.error(new AzureToolkitAuthenticationException(
+                        String.format("Cannot acquire token from refresh token due to error: %s", e.getMessage()), e));
             }
+            return Mono.create(sink -> context.acquireTokenByRefreshToken(refreshToken, clientId, resource, new AuthenticationCallback<AuthenticationResult>() {
+                @Override
+                public void onSuccess(AuthenticationResult result) {
+                    if (result == null) {
+                        sink.error(new AzureToolkitAuthenticationException("Authentication result from acquireTokenByRefreshToken is null."));
+                    } else {
+                        try {
+                            sink.success(fromAuthenticationResult(result));
+                        } catch (AzureToolkitAuthenticationException e) {
+                            sink.error(e);
+                        }
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    sink.error(new AzureToolkitAuthenticationException(
+                            String.format("Cannot acquire token from refresh token due to error: %s", e.getMessage()), e));
+                }
+            }));
+        }
 
-            if (result == null) {
-                throw new AzureToolkitAuthenticationException("Authentication result from acquireTokenByRefreshToken is null.");
+        private static AuthenticationContext getAuthenticationContext(String authorityUrl) throws MalformedURLException {
+            final AuthenticationContext context = contexts.get(authorityUrl);
+            if (context != null) {
+                return context;
             }
-            return fromAuthenticationResult(result);
+            final AuthenticationContext created = new AuthenticationContext(authorityUrl, true, executor);
+            final AuthenticationContext existing = contexts.putIfAbsent(authorityUrl, created);
+            return existing != null ? existing : created;
         }
 
         private AccessToken fromAuthenticationResult(AuthenticationResult authenticationResult) {
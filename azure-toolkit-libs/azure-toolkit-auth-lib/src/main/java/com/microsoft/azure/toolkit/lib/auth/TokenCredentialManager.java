@@ -27,11 +27,9 @@ import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 public class TokenCredentialManager implements TenantProvider, SubscriptionProvider {
     private static final ClientLogger LOGGER = new ClientLogger(TokenCredentialManager.class);
@@ -59,12 +57,28 @@ public class TokenCredentialManager implements TenantProvider, SubscriptionProvi
     }
 
     public Mono<List<Subscription>> listSubscriptions(List<String> tenantIds) {
+        return streamSubscriptions(tenantIds).collectList();
+    }
+
+    /**
+     * @return distinct subscriptions of the tenants, emitted as soon as the subscriptions of each tenant are listed.
+     */
+    public Flux<Subscription> streamSubscriptions(List<String> tenantIds) {
+        return Flux.fromIterable(tenantIds).parallel().runOn(Schedulers.boundedElastic())
+                .flatMap(tenant -> listSubscriptionsInTenant(createAzureClient(environment, tenant), tenant).flatMapIterable(l -> l)).sequential()
+                .filter(Utils.distinctByKey(subscription -> StringUtils.lowerCase(subscription.getId())));
+    }
+
+    /**
+     * look up the subscription in all the tenants in parallel, without listing subscriptions.
+     *
+     * @return empty if none of the tenants has the subscription.
+     */
+    public Mono<Subscription> getSubscription(List<String> tenantIds, String subscriptionId) {
         return Flux.fromIterable(tenantIds).parallel().runOn(Schedulers.boundedElastic())
-                .flatMap(tenant -> listSubscriptionsInTenant(createAzureClient(environment, tenant), tenant)).sequential().collectList()
-                .map(subscriptionsSet -> subscriptionsSet.stream()
-                        .flatMap(Collection::stream)
-                        .filter(Utils.distinctByKey(subscription -> StringUtils.lowerCase(subscription.getId())))
-                        .collect(Collectors.toList()));
+                .flatMap(tenant -> createAzureClient(environment, tenant).subscriptions().getByIdAsync(subscriptionId)
+                        .map(s -> toSubscriptionEntity(tenant, s)).onErrorResume(ex -> Mono.empty()))
+                .sequential().next();
     }
 
     private static Mono<List<Subscription>> listSubscriptionsInTenant(ResourceManager.Authenticated client, String tenantId) {
@@ -5,8 +5,10 @@
 
 package com.microsoft.azure.toolkit.lib.auth.core.azurecli;
 
+import com.azure.core.credential.TokenRequestContext;
 import com.azure.core.management.AzureEnvironment;
 import com.azure.identity.implementation.util.IdentityConstants;
+import com.azure.identity.implementation.util.ScopeUtil;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.auth.Account;
 import com.microsoft.azure.toolkit.lib.auth.AzureCloud;
@@ -17,6 +19,7 @@ import com.microsoft.azure.toolkit.lib.auth.model.AzureCliSubscription;
 import com.microsoft.azure.toolkit.lib.auth.util.AzureCliUtils;
 import com.microsoft.azure.toolkit.lib.auth.util.AzureEnvironmentUtils;
 import com.microsoft.azure.toolkit.lib.common.model.Subscription;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -62,7 +65,16 @@ public class AzureCliAccount extends Account {
     }
 
     protected Mono<TokenCredentialManager> createTokenCredentialManager() {
-        return Mono.just(new AzureCliTokenCredentialManager(this.entity.getEnvironment()));
+        final AzureEnvironment env = this.entity.getEnvironment();
+        final AzureCliTokenCredentialManager manager = new AzureCliTokenCredentialManager(env, this.entity.getEmail());
+        // get management tokens of all tenants with selected subscriptions up front and in parallel, they will be
+        // served from cache later.
+        final TokenRequestContext request = new TokenRequestContext().addScopes(ScopeUtil.resourceToScopes(env.getManagementEndpoint()));
+        final List<String> tenants = this.entity.getSubscriptions().stream().filter(Subscription::isSelected)
+            .map(Subscription::getTenantId).distinct().collect(Collectors.toList());
+        return Flux.fromIterable(tenants)
+            .flatMap(tenant -> manager.createTokenCredentialForTenant(tenant).getToken(request).onErrorResume(e -> Mono.empty()))
+            .then(Mono.just(manager));
     }
 
     @Override
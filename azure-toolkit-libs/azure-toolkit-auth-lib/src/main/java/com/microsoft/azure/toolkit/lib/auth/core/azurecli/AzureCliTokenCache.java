@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.auth.core.azurecli;
+
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.SimpleTokenCache;
+import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * process wide cache of access tokens got from Azure CLI, keyed by account, tenant and resource. concurrent requests of
+ * the same token share one {@code az} process and tokens are refreshed ahead of expiry (see {@link SimpleTokenCache}).
+ * tokens are only kept in memory and dropped on logout, they are never written to disk.
+ */
+class AzureCliTokenCache {
+    private static final Map<String, SimpleTokenCache> caches = new ConcurrentHashMap<>();
+
+    static {
+        AzureEventBus.on("account.logout.account", new AzureEventBus.EventListener((e) -> caches.clear()));
+    }
+
+    @Nonnull
+    static Mono<AccessToken> getToken(@Nullable String account, @Nullable String tenantId, @Nonnull String resource,
+                                      @Nonnull Supplier<AccessToken> cli) {
+        final String key = String.format("%s/%s/%s", account, tenantId, resource);
+        return caches.computeIfAbsent(key, k -> new SimpleTokenCache(() ->
+            Mono.fromCallable(cli::get).subscribeOn(Schedulers.boundedElastic()))).getToken();
+    }
+}
@@ -19,4 +19,8 @@ public class AuthConfiguration {
     private String key;
     private String certificate;
     private String certificatePassword;
+    /**
+     * the subscription to use, only this subscription will be resolved when signing in if it's set.
+     */
+    private String subscription;
 }
@@ -8,11 +8,16 @@ package com.microsoft.azure.toolkit.lib.auth.util;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.zafarkhaja.semver.Version;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.gson.JsonObject;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.AzureConfiguration;
 import com.microsoft.azure.toolkit.lib.auth.exception.AzureToolkitAuthenticationException;
 import com.microsoft.azure.toolkit.lib.auth.model.AzureCliSubscription;
+import com.microsoft.azure.toolkit.lib.common.cache.PersistentCache;
+import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.utils.CommandUtils;
 import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
@@ -24,17 +29,27 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static com.microsoft.azure.toolkit.lib.common.utils.Utils.distinctByKey;
 
 public class AzureCliUtils {
     private static final String MIN_VERSION = "2.11.0";
+    private static final String VERSION_CACHE_NAME = "AzureCliVersion";
+    private static final String VERSION_CACHE_KEY = "azure-cli";
+    private static final long VERSION_CACHE_TTL = TimeUnit.DAYS.toSeconds(1);
+    // outputs of read-only commands, so that they are not re-spawned in a short time.
+    private static final Cache<String, String> outputs = CacheBuilder.newBuilder().expireAfterWrite(1, TimeUnit.MINUTES).build();
+
+    static {
+        AzureEventBus.on("account.logout.account", new AzureEventBus.EventListener((e) -> outputs.invalidateAll()));
+    }
 
     public static void ensureMinimumCliVersion() {
         try {
-            final JsonObject result = JsonUtils.getGson().fromJson(AzureCliUtils.executeAzureCli("az version --output json"), JsonObject.class);
-            final String cliVersion = result.get("azure-cli").getAsString();
+            final String cliVersion = getCliVersion();
             // we require at least azure cli version 2.11.0
             if (Version.valueOf(cliVersion).lessThan(Version.valueOf(MIN_VERSION))) {
                 throw new AzureToolkitAuthenticationException(String.format("your Azure Cli version '%s' is too old, " +
@@ -49,7 +64,7 @@ public class AzureCliUtils {
 
     @Nonnull
     public static List<AzureCliSubscription> listSubscriptions() {
-        final String jsonString = executeAzureCli("az account list --output json");
+        final String jsonString = executeAzureCliWithCache("az account list --output json");
         final ObjectMapper mapper = new ObjectMapper();
         try {
             final AzureCliSubscription[] subscriptions = mapper.readValue(jsonString, AzureCliSubscription[].class);
@@ -62,6 +77,34 @@ public class AzureCliUtils {
         }
     }
 
+    private static String getCliVersion() {
+        final boolean persistent = Azure.az().config().isPersistentCacheEnabled();
+        if (persistent) {
+            final String cached = (String) PersistentCache.read(VERSION_CACHE_NAME, VERSION_CACHE_KEY, String.class).orElse(null);
+            if (StringUtils.isNotBlank(cached)) {
+                return cached;
+            }
+        }
+        final JsonObject result = JsonUtils.getGson().fromJson(executeAzureCliWithCache("az version --output json"), JsonObject.class);
+        final String cliVersion = result.get("azure-cli").getAsString();
+        if (persistent) {
+            PersistentCache.write(VERSION_CACHE_NAME, VERSION_CACHE_KEY, cliVersion, String.class, VERSION_CACHE_TTL);
+        }
+        return cliVersion;
+    }
+
+    @Nonnull
+    private static String executeAzureCliWithCache(@Nonnull String command) {
+        try {
+            return outputs.get(command, () -> executeAzureCli(command));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new AzureToolkitAuthenticationException(e.getCause().getMessage());
+        }
+    }
+
     @Nonnull
     public static String executeAzureCli(@Nonnull String command) {
         try {
@@ -27,6 +27,25 @@ public class AzureConfiguration {
     private int httpProxyPort;
     private String proxyUsername;
     private String proxyPassword;
+    private boolean resourceGraphEnabled; // list resources through Azure Resource Graph when preloading
+    private boolean persistentCacheEnabled; // keep results of @Cacheable(persistent = true) methods on disk
+    private String persistentCacheDir; // directory of the persistent cache, null means ~/.azure/caches
+    private int eventQueueCapacity; // max pending events of AzureEventBus, non-positive means the default(1024)
+    private String eventOverflowPolicy; // CALLER_RUNS(default), DROP_OLDEST or DROP_LATEST when the event queue is full
+    private int blobUploadBlockSize; // block size in bytes when uploading packages to blob, non-positive means the default(8MB)
+    private int blobUploadConcurrency; // parallel block uploads when uploading packages to blob, non-positive means the default(4)
+    private int httpMaxConnectionsPerHost; // non-positive means the default(50)
+    private int httpPendingAcquireMaxCount; // max requests waiting for a connection per host, non-positive means 2 * max connections
+    private int httpMaxIdleTime; // seconds before an idle connection is evicted, non-positive means the default(60)
+    private int httpMaxLifeTime; // seconds before a connection is evicted, non-positive means no limit
+    private boolean http2Enabled; // negotiate HTTP/2 with endpoints supporting it
+    private boolean httpAsyncDnsEnabled; // resolve hosts with netty's async resolver that caches the results
+    private int httpDnsCacheMaxTtl; // seconds to cache resolved hosts, non-positive means the default(300)
+    private int telemetryQueueCapacity; // max pending telemetry events, non-positive means the default(1024)
+    private String telemetrySinkFile; // write telemetry events to this file as JSON lines instead of sending them
+    private int appServiceStateTimeout; // max seconds to wait for app services to be started/stopped, non-positive means the default(120)
+    private int zipCompressionLevel; // deflate level (1-9) of packages zipped for deployment, non-positive means the default(6)
+    private int resourceCacheTtl; // seconds the listed web apps, function apps and databases are fresh before being reloaded in background, zero means the default(300), negative means never expire
 
     public void setProxyInfo(ProxyInfo proxy) {
         this.setProxySource(proxy.getSource());
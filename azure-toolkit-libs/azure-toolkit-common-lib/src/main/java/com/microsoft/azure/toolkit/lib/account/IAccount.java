@@ -24,4 +24,12 @@ public interface IAccount {
     AzureEnvironment getEnvironment();
 
     TokenCredential getTokenCredential(String subscriptionId);
+
+    /**
+     * @return identity of the signed-in principal (e.g. auth type and user name or client id), data of different
+     * identities must not be shared, e.g. in persistent caches.
+     */
+    default String getIdentity() {
+        return String.format("%s@%d", this.getClass().getName(), System.identityHashCode(this));
+    }
 }
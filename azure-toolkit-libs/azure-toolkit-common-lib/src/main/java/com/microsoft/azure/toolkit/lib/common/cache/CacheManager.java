@@ -1,11 +1,18 @@
 package com.microsoft.azure.toolkit.lib.common.cache;
 
+import com.azure.core.management.AzureEnvironment;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.account.IAccount;
+import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
 import com.microsoft.azure.toolkit.lib.common.utils.aspect.ExpressionUtils;
 import com.microsoft.azure.toolkit.lib.common.utils.aspect.MethodInvocation;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.extern.java.Log;
 import org.apache.commons.lang3.StringUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -16,8 +23,11 @@ import org.aspectj.lang.reflect.MethodSignature;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.lang.reflect.Type;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -25,19 +35,10 @@ import java.util.logging.Level;
 @Aspect
 @Log
 public class CacheManager {
-    private static final CacheLoader<String, Cache<Object, Object>> loader = new CacheLoader<String, Cache<Object, Object>>() {
-        @Override
-        public Cache<Object, Object> load(@Nonnull String key) {
-            return CacheBuilder.newBuilder()
-                    .softValues()
-                    .expireAfterAccess(4, TimeUnit.HOURS) // TODO: justify
-                    .build();
-        }
-    };
-    private static final LoadingCache<String, Cache<Object, Object>> caches = CacheBuilder.newBuilder()
-            .softValues()
+    // not soft valued, otherwise statistics of the named caches would be dropped silently.
+    private static final Cache<String, NamedCache> caches = CacheBuilder.newBuilder()
             .expireAfterAccess(4, TimeUnit.HOURS) // TODO: justify
-            .build(loader);
+            .build();
 
     @Pointcut("execution(@com.microsoft.azure.toolkit.lib.common.cache.Cacheable * *..*.*(..))")
     public void cacheable() {
@@ -51,7 +52,7 @@ public class CacheManager {
     public Object aroundCacheable(@Nonnull final ProceedingJoinPoint point) throws Throwable {
         final MethodSignature signature = (MethodSignature) point.getSignature();
         final MethodInvocation invocation = MethodInvocation.from(point);
-        final Cacheable annotation = signature.getMethod().getAnnotation(Cacheable.class);
+        final Cacheable annotation = invocation.getAnnotation(Cacheable.class);
 
         final String cacheName = StringUtils.firstNonBlank(annotation.cacheName(), annotation.value());
         final String name = ExpressionUtils.render(cacheName, invocation);
@@ -63,15 +64,26 @@ public class CacheManager {
         }
         final String condition = annotation.condition();
         final boolean toUseCache = StringUtils.isBlank(condition) || ExpressionUtils.evaluate(condition, invocation, true);
-        final Cache<Object, Object> cache = caches.get(name);
+        final CacheSpec spec = new CacheSpec(annotation);
+        final NamedCache namedCache = caches.get(name, () -> new NamedCache(spec, buildCache(spec)));
+        if (!namedCache.spec.equals(spec)) {
+            // the same named cache must be configured the same everywhere, otherwise its bounds would depend on which method touches it first.
+            log.severe(String.format("@Cacheable on method(%s) conflicts with other methods using cache[%s]: %s vs %s", signature.getName(), name, spec, namedCache.spec));
+            return point.proceed();
+        }
+        final Cache<Object, Object> cache = namedCache.cache;
+        final String persistentKey = annotation.persistent() && Azure.az().config().isPersistentCacheEnabled() ? getPersistentKey(key) : null;
         if (toUseCache) {
             log.fine(String.format("loading data from cache[%s.%s] on method[%s]", name, key, signature.getName()));
-            return readCache(cache, key, point);
+            return readCache(cache, key, point, Objects.nonNull(persistentKey) ? annotation : null, name, persistentKey);
         }
         log.fine(String.format("skipping cache[%s.%s] on method[%s]", name, key, signature.getName()));
         final Object result = point.proceed();
         if (Objects.nonNull(result)) {
             cache.put(key, Optional.of(result));
+            if (Objects.nonNull(persistentKey)) {
+                PersistentCache.write(name, persistentKey, result, signature.getMethod().getGenericReturnType(), annotation.ttl());
+            }
         }
         return result;
     }
@@ -80,7 +92,7 @@ public class CacheManager {
     public Object aroundCacheEvict(@Nonnull final ProceedingJoinPoint point) throws Throwable {
         final MethodSignature signature = (MethodSignature) point.getSignature();
         final MethodInvocation invocation = MethodInvocation.from(point);
-        final CacheEvict annotation = signature.getMethod().getAnnotation(CacheEvict.class);
+        final CacheEvict annotation = invocation.getAnnotation(CacheEvict.class);
 
         final String cacheName = StringUtils.firstNonBlank(annotation.cacheName(), annotation.value());
         final String name = ExpressionUtils.render(cacheName, invocation);
@@ -95,30 +107,102 @@ public class CacheManager {
         return point.proceed();
     }
 
+    /**
+     * @return statistics (hits, misses, load time, evictions...) of each named cache.
+     */
+    @Nonnull
+    public static Map<String, CacheStats> getStatistics() {
+        final Map<String, CacheStats> result = new TreeMap<>();
+        caches.asMap().forEach((name, cache) -> result.put(name, cache.cache.stats()));
+        return result;
+    }
+
+    @Nonnull
+    private static Cache<Object, Object> buildCache(@Nonnull final CacheSpec spec) {
+        final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+        if (spec.ttl >= 0) {
+            builder.expireAfterWrite(spec.ttl, TimeUnit.SECONDS);
+        } else {
+            builder.expireAfterAccess(4, TimeUnit.HOURS); // TODO: justify
+        }
+        if (spec.maxSize < 0) {
+            return builder.softValues().build();
+        }
+        if (spec.weigher == Weigher.class) {
+            return builder.maximumSize(spec.maxSize).build();
+        }
+        try {
+            @SuppressWarnings("unchecked") final Weigher<Object, Object> weigher = spec.weigher.getDeclaredConstructor().newInstance();
+            // values are wrapped with Optional, failures (wrapped as well) are removed right after being loaded.
+            return builder.maximumWeight(spec.maxSize).weigher((k, v) -> {
+                final Object value = ((Optional<?>) v).orElse(null);
+                return value instanceof Throwable ? 1 : weigher.weigh(k, value);
+            }).build();
+        } catch (final ReflectiveOperationException e) {
+            log.log(Level.WARNING, String.format("failed to instantiate weigher(%s)", spec.weigher.getName()), e);
+            return builder.maximumSize(spec.maxSize).build();
+        }
+    }
+
     public static void evictCache(@Nullable final String name, @Nullable final String key) throws ExecutionException {
         if (StringUtils.isBlank(name)) {
             log.warning("cache name is not specified when invalidating cache");
         } else if (StringUtils.equals(CacheEvict.ALL, name)) { // invalidate all cache entries if cache name not specified
             log.fine("invalidate all caches");
             caches.invalidateAll();
+            PersistentCache.invalidate(name, CacheEvict.ALL);
         } else {
             if (StringUtils.isBlank(key)) {
                 log.warning(String.format("key is not specified when invalidating cache[%s]", name));
             } else if (StringUtils.equals(CacheEvict.ALL, key)) { // invalidate all cache entries of named cache if only cache name is specified
                 log.fine(String.format("invalidate all entries in cache[%s]", name));
                 caches.invalidate(name);
+                PersistentCache.invalidate(name, key);
             } else { // invalidate key specified cache entry of named cache if both cache name and key are specified
                 log.fine(String.format("invalidate cache entry[%s.%s]", name, key));
-                caches.get(name).invalidate(key);
+                Optional.ofNullable(caches.getIfPresent(name)).ifPresent(c -> c.cache.invalidate(key));
+                Optional.ofNullable(getPersistentKey(key)).ifPresent(k -> PersistentCache.invalidate(name, k));
             }
         }
     }
 
-    private Object readCache(Cache<Object, Object> cache, String key, ProceedingJoinPoint point) throws Throwable {
+    /**
+     * persisted entries outlive the process and the signed-in account, so they are keyed by the account and cloud too.
+     *
+     * @return null if not signed in, in which case the persistent cache must not be used.
+     */
+    @Nullable
+    private static String getPersistentKey(@Nonnull String key) {
+        try {
+            final IAccount account = Azure.az(IAzureAccount.class).account();
+            final String cloud = Optional.ofNullable(account.getEnvironment()).map(AzureEnvironment::getManagementEndpoint).orElse("");
+            return String.format("%s/%s/%s", account.getIdentity(), cloud, key);
+        } catch (final RuntimeException e) {
+            log.log(Level.FINE, "persistent cache is skipped since no account is signed in", e);
+            return null;
+        }
+    }
+
+    /**
+     * @param persistent    {@link Cacheable} annotation if the persistent cache should be used, otherwise null.
+     * @param persistentKey key of the entry in persistent cache
+     */
+    private Object readCache(Cache<Object, Object> cache, String key, ProceedingJoinPoint point, @Nullable Cacheable persistent, String name,
+                             @Nullable String persistentKey) throws Throwable {
         final Optional<?> result = (Optional<?>) cache.get(key, () -> {
             try {
                 log.fine(String.format("cache[%s] miss on method[%s]", key, point.getSignature().getName()));
-                return Optional.ofNullable(point.proceed());
+                if (Objects.isNull(persistent)) {
+                    return Optional.ofNullable(point.proceed());
+                }
+                final Type type = ((MethodSignature) point.getSignature()).getMethod().getGenericReturnType();
+                final Optional<Object> persisted = PersistentCache.read(name, persistentKey, type);
+                if (persisted.isPresent()) {
+                    return persisted;
+                }
+                final Object value = point.proceed();
+                PersistentCache.write(name, persistentKey, value, type, persistent.ttl());
+                return Optional.ofNullable(value);
             } catch (final Throwable throwable) {
                 log.log(Level.FINE, String.format("error occurs on loading data into cache[%s] on method[%s]", key, point.getSignature().getName()), throwable);
                 return Optional.of(throwable);
@@ -131,4 +215,28 @@ public class CacheManager {
             return result.orElse(null);
         }
     }
+
+    @RequiredArgsConstructor
+    private static class NamedCache {
+        private final CacheSpec spec;
+        private final Cache<Object, Object> cache;
+    }
+
+    /**
+     * configuration of a named cache.
+     */
+    @ToString
+    @EqualsAndHashCode
+    private static class CacheSpec {
+        private final long ttl;
+        private final long maxSize;
+        @SuppressWarnings("rawtypes")
+        private final Class<? extends Weigher> weigher;
+
+        private CacheSpec(@Nonnull final Cacheable annotation) {
+            this.ttl = annotation.ttl();
+            this.maxSize = annotation.maxSize();
+            this.weigher = annotation.maxSize() < 0 ? Weigher.class : annotation.weigher();
+        }
+    }
 }
@@ -5,6 +5,8 @@
 
 package com.microsoft.azure.toolkit.lib.common.cache;
 
+import com.google.common.cache.Weigher;
+
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Inherited;
@@ -42,4 +44,32 @@ public @interface Cacheable {
      * e.g. groovy expression: {@code "this.isLoading()" } {@code "this.loading" },  {@code "this.subscriptionId=='xxx'" }
      */
     String condition() default "";
+
+    /**
+     * whether to also keep the result on disk (see {@link PersistentCache}) so that it can be reused by later processes,
+     * only effective if {@link com.microsoft.azure.toolkit.lib.AzureConfiguration#isPersistentCacheEnabled()}.
+     * the result must be serializable by gson as the (generic) return type of the method.
+     */
+    boolean persistent() default false;
+
+    /**
+     * time to live (in seconds) of the cached result since it's loaded. if negative, the result is kept in memory until
+     * 4 hours after last access and kept on disk for {@link PersistentCache#DEFAULT_TTL}.
+     */
+    long ttl() default -1;
+
+    /**
+     * maximum number of entries kept in memory for each named cache, or maximum total weight of them if {@link #weigher()}
+     * is specified. if negative, the cache is unbounded but its entries are softly referenced.
+     * NOTE: {@link #ttl()}, {@link #maxSize()} and {@link #weigher()} configure the named cache as a whole, so all methods
+     * sharing a cache name must specify the same values, methods that conflict with the cache are not cached.
+     */
+    long maxSize() default -1;
+
+    /**
+     * weigher (with a public no-arg constructor) of the cached entries, it's given the key and the (nullable) result.
+     * only effective if {@link #maxSize()} is specified.
+     */
+    @SuppressWarnings("rawtypes")
+    Class<? extends Weigher> weigher() default Weigher.class;
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import lombok.extern.java.Log;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+/**
+ * second level cache of {@link CacheManager} on disk (under {@code ~/.azure/caches} or
+ * {@link com.microsoft.azure.toolkit.lib.AzureConfiguration#getPersistentCacheDir()}), used by {@link Cacheable#persistent()}
+ * caches so that their results survive JVM restarts, e.g. across maven builds. each entry is stored as json in file
+ * {@code <hash of cache name>/<hash of key>}, files are replaced atomically so that parallel builds never read partial
+ * entries. the least recently written entries are evicted once total size exceeds {@link #MAX_SIZE}.
+ */
+@Log
+public class PersistentCache {
+    public static final long DEFAULT_TTL = TimeUnit.DAYS.toSeconds(1);
+    private static final long MAX_SIZE = 32 * FileUtils.ONE_MB;
+    private static final int EVICT_INTERVAL = 32; // check size every 32 writes
+    private static final String EXPIRE_AT = "expireAt";
+    private static final String VALUE = "value";
+    private static final Path DEFAULT_CACHE_DIR = Paths.get(System.getProperty("user.home"), ".azure", "caches");
+    private static final AtomicInteger writes = new AtomicInteger();
+
+    /**
+     * @return empty if the entry doesn't exist, is expired or can not be deserialized to {@code type}.
+     */
+    @Nonnull
+    public static Optional<Object> read(@Nonnull String name, @Nonnull String key, @Nonnull Type type) {
+        final File file = getFile(name, key);
+        if (!file.isFile()) {
+            return Optional.empty();
+        }
+        try {
+            final JsonObject entry = JsonParser.parseString(FileUtils.readFileToString(file, StandardCharsets.UTF_8)).getAsJsonObject();
+            if (entry.get(EXPIRE_AT).getAsLong() < System.currentTimeMillis()) {
+                Files.deleteIfExists(file.toPath());
+                return Optional.empty();
+            }
+            log.fine(String.format("persistent cache[%s.%s] hit", name, key));
+            return Optional.ofNullable(JsonUtils.getGson().fromJson(entry.get(VALUE), type));
+        } catch (final IOException | RuntimeException e) {
+            log.log(Level.FINE, String.format("failed to read persistent cache[%s.%s]", name, key), e);
+            FileUtils.deleteQuietly(file);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param ttl time to live in seconds, {@link #DEFAULT_TTL} is used if it's negative.
+     */
+    public static void write(@Nonnull String name, @Nonnull String key, @Nullable Object value, @Nonnull Type type, long ttl) {
+        if (Objects.isNull(value)) {
+            return;
+        }
+        final File file = getFile(name, key);
+        Path temp = null;
+        try {
+            final JsonElement json = JsonUtils.getGson().toJsonTree(value, type);
+            final JsonObject entry = new JsonObject();
+            entry.addProperty(EXPIRE_AT, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttl < 0 ? DEFAULT_TTL : ttl));
+            entry.add(VALUE, json);
+            FileUtils.forceMkdir(file.getParentFile());
+            temp = Files.createTempFile(file.getParentFile().toPath(), file.getName(), ".tmp");
+            FileUtils.write(temp.toFile(), entry.toString(), StandardCharsets.UTF_8);
+            Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException | RuntimeException e) {
+            log.log(Level.FINE, String.format("failed to write persistent cache[%s.%s]", name, key), e);
+            Optional.ofNullable(temp).map(Path::toFile).ifPresent(FileUtils::deleteQuietly);
+            return;
+        }
+        if (writes.getAndIncrement() % EVICT_INTERVAL == 0) {
+            evictIfOversized(MAX_SIZE);
+        }
+    }
+
+    /**
+     * @param name name of the cache to invalidate, all caches are invalidated if it's {@link CacheEvict#ALL}
+     * @param key  key of the entry to invalidate, all entries of the named cache are invalidated if it's {@link CacheEvict#ALL}
+     */
+    public static void invalidate(@Nonnull String name, @Nonnull String key) {
+        final File target = CacheEvict.ALL.equals(name) ? getCacheDir().toFile() :
+            CacheEvict.ALL.equals(key) ? getFile(name, key).getParentFile() : getFile(name, key);
+        FileUtils.deleteQuietly(target);
+    }
+
+    /**
+     * evict the least recently written entries until total size of the cache is no more than {@code maxSize} bytes.
+     */
+    static synchronized void evictIfOversized(long maxSize) {
+        final File dir = getCacheDir().toFile();
+        if (!dir.isDirectory()) {
+            return;
+        }
+        final List<File> files = FileUtils.listFiles(dir, null, true).stream()
+            .sorted(Comparator.comparingLong(File::lastModified)).collect(Collectors.toList());
+        long size = files.stream().mapToLong(File::length).sum();
+        for (final File file : files) {
+            if (size <= maxSize) {
+                break;
+            }
+            size -= file.length();
+            FileUtils.deleteQuietly(file);
+        }
+        Optional.ofNullable(dir.listFiles()).map(Arrays::stream).ifPresent(s -> s.filter(d -> {
+            final String[] children = d.list();
+            return Objects.nonNull(children) && children.length == 0;
+        }).forEach(FileUtils::deleteQuietly));
+    }
+
+    @Nonnull
+    private static File getFile(@Nonnull String name, @Nonnull String key) {
+        return getCacheDir().resolve(hash(name)).resolve(hash(key)).toFile();
+    }
+
+    @Nonnull
+    private static Path getCacheDir() {
+        final String dir = Azure.az().config().getPersistentCacheDir();
+        return StringUtils.isBlank(dir) ? DEFAULT_CACHE_DIR : Paths.get(dir);
+    }
+
+    @Nonnull
+    private static String hash(@Nonnull String value) {
+        return Hashing.sha256().hashString(value, StandardCharsets.UTF_8).toString();
+    }
+}
@@ -5,43 +5,63 @@
 
 package com.microsoft.azure.toolkit.lib.common.event;
 
-import com.google.common.eventbus.AsyncEventBus;
-import com.google.common.eventbus.EventBus;
-import com.google.common.eventbus.Subscribe;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NonNls;
 import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
-@SuppressWarnings("UnstableApiUsage")
+/**
+ * events are queued in one bounded queue and dispatched by a drainer per event type, so that a slow listener only delays
+ * events of its own type, while events of the same type are still dispatched in emitting order. identical pending events
+ * (same type, source and payload) are coalesced into one.
+ * see {@link AzureConfiguration#getEventQueueCapacity()} and {@link AzureConfiguration#getEventOverflowPolicy()}.
+ */
+@Slf4j
 public class AzureEventBus {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
     @NonNls
-    private static final Map<String, EventBus> buses = new ConcurrentHashMap<>();
+    private static final Map<String, Set<EventListener>> listeners = new ConcurrentHashMap<>();
+    /**
+     * pending events of each type in emitting order, guarded by itself (so are size and sequence).
+     */
+    private static final Map<String, EventQueue> queues = new HashMap<>();
+    private static int size = 0;
+    private static long sequence = 0;
 
     public static void on(@Nonnull final String type, @Nonnull EventListener listener) {
-        getBus(type).register(listener);
+        listeners.computeIfAbsent(type, t -> new CopyOnWriteArraySet<>()).add(listener);
     }
 
     public static void off(@Nonnull final String type, @Nonnull EventListener listener) {
-        getBus(type).unregister(listener);
+        Optional.ofNullable(listeners.get(type)).ifPresent(l -> l.remove(listener));
     }
 
     public static void once(@Nonnull final String type, @Nonnull BiConsumer<Object, Object> listener) {
-        final EventBus bus = getBus(type);
         final EventListener[] listeners = new EventListener[1];
         listeners[0] = new EventListener((e) -> {
             listener.accept(e.getSource(), e.getPayload());
-            bus.unregister(listeners[0]);
+            off(type, listeners[0]);
         });
-        bus.register(listeners[0]);
+        on(type, listeners[0]);
     }
 
     public static void emit(@Nonnull final String type) {
@@ -53,11 +73,125 @@ public class AzureEventBus {
     }
 
     public static <T> void emit(@Nonnull final String type, @Nonnull AzureEvent event) {
-        getBus(type).post(event);
+        if (!listeners.containsKey(type)) {
+            return;
+        }
+        final AzureConfiguration config = Azure.az().config();
+        final int capacity = config.getEventQueueCapacity() > 0 ? config.getEventQueueCapacity() : DEFAULT_QUEUE_CAPACITY;
+        final EventKey key = new EventKey(type, event.getSource(), event.getPayload());
+        boolean schedule = false;
+        boolean callerRuns = false;
+        synchronized (queues) {
+            final EventQueue queue = queues.computeIfAbsent(type, t -> new EventQueue());
+            if (queue.events.containsKey(key)) { // an identical event is still waiting to be dispatched.
+                return;
+            }
+            if (size >= capacity) {
+                final OverflowPolicy policy = OverflowPolicy.fromString(config.getEventOverflowPolicy());
+                log.debug("event queue is full({}), apply policy {} to event {}", capacity, policy, type);
+                if (policy == OverflowPolicy.DROP_LATEST) {
+                    return;
+                } else if (policy == OverflowPolicy.DROP_OLDEST) {
+                    dropOldest();
+                } else {
+                    callerRuns = true;
+                }
+            }
+            if (!callerRuns) {
+                queue.events.put(key, new PendingEvent(event, sequence++));
+                size++;
+                schedule = !queue.draining;
+                queue.draining = true;
+            }
+        }
+        if (callerRuns) {
+            dispatch(event); // dispatch on the emitting thread to slow down the producer.
+        } else if (schedule) {
+            try {
+                Schedulers.boundedElastic().schedule(() -> drain(type));
+            } catch (final RuntimeException e) { // e.g. rejected by the scheduler, the queue must not be left marked as draining.
+                log.warn("failed to schedule dispatching of events {}, dispatch them on the emitting thread", type, e);
+                drain(type);
+            }
+        }
+    }
+
+    private static void dropOldest() {
+        EventQueue oldest = null;
+        long oldestSequence = Long.MAX_VALUE;
+        for (final EventQueue queue : queues.values()) {
+            final Iterator<PendingEvent> iterator = queue.events.values().iterator();
+            if (iterator.hasNext()) {
+                final long head = iterator.next().sequence;
+                if (head < oldestSequence) {
+                    oldest = queue;
+                    oldestSequence = head;
+                }
+            }
+        }
+        if (oldest != null) {
+            final Iterator<PendingEvent> iterator = oldest.events.values().iterator();
+            iterator.next();
+            iterator.remove();
+            size--;
+        }
     }
 
-    private static EventBus getBus(String eventType) {
-        return buses.computeIfAbsent(eventType, (e) -> new AsyncEventBus(command -> Schedulers.boundedElastic().schedule(command)));
+    private static void drain(@Nonnull String type) {
+        while (true) {
+            final AzureEvent event;
+            synchronized (queues) {
+                final EventQueue queue = queues.get(type);
+                final Iterator<PendingEvent> iterator = queue.events.values().iterator();
+                if (!iterator.hasNext()) {
+                    queue.draining = false;
+                    return;
+                }
+                event = iterator.next().event;
+                iterator.remove();
+                size--;
+            }
+            dispatch(event);
+        }
+    }
+
+    private static void dispatch(@Nonnull AzureEvent event) {
+        final Set<EventListener> typed = listeners.get(event.getType());
+        if (typed == null) {
+            return;
+        }
+        for (final EventListener listener : typed) {
+            try {
+                listener.onEvent(event);
+            } catch (final Throwable t) {
+                log.warn("error occurs when dispatching event {} to listener", event.getType(), t);
+            }
+        }
+    }
+
+    public enum OverflowPolicy {
+        /**
+         * dispatch the new event on the emitting thread, default policy.
+         */
+        CALLER_RUNS,
+        /**
+         * discard the oldest pending event (of any type).
+         */
+        DROP_OLDEST,
+        /**
+         * discard the new event.
+         */
+        DROP_LATEST;
+
+        @Nonnull
+        public static OverflowPolicy fromString(@Nullable String value) {
+            for (final OverflowPolicy policy : values()) {
+                if (StringUtils.equalsIgnoreCase(policy.name(), value)) {
+                    return policy;
+                }
+            }
+            return CALLER_RUNS;
+        }
     }
 
     @RequiredArgsConstructor
@@ -66,12 +200,34 @@ public class AzureEventBus {
         @Nonnull
         private final Consumer<AzureEvent> listener;
 
-        @Subscribe
         public void onEvent(@Nonnull AzureEvent event) {
             this.listener.accept(event);
         }
     }
 
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class EventKey {
+        @Nonnull
+        private final String type;
+        @Nullable
+        private final Object source;
+        @Nullable
+        private final Object payload;
+    }
+
+    private static class EventQueue {
+        private final LinkedHashMap<EventKey, PendingEvent> events = new LinkedHashMap<>();
+        private boolean draining = false;
+    }
+
+    @RequiredArgsConstructor
+    private static class PendingEvent {
+        @Nonnull
+        private final AzureEvent event;
+        private final long sequence;
+    }
+
     @Getter
     @RequiredArgsConstructor
     @AllArgsConstructor
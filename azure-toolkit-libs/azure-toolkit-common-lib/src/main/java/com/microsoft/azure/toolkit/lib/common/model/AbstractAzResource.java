@@ -15,6 +15,7 @@ import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeExcep
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.common.utils.Debouncer;
+import com.microsoft.azure.toolkit.lib.common.utils.SingleFlight;
 import com.microsoft.azure.toolkit.lib.common.utils.TailingDebouncer;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -60,6 +61,8 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
     @ToString.Include
     final AtomicReference<String> statusRef;
     @Nonnull
+    final SingleFlight<String> flights;
+    @Nonnull
     private final Debouncer fireEvents = new TailingDebouncer(this::fireStatusChangedEvent, 300);
 
     protected AbstractAzResource(@Nonnull String name, @Nonnull String resourceGroupName, @Nonnull AbstractAzResourceModule<T, P, R> module) {
@@ -69,6 +72,7 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
         this.remoteRef = new AtomicReference<>();
         this.syncTimeRef = new AtomicLong(-1);
         this.statusRef = new AtomicReference<>(Status.UNKNOWN);
+        this.flights = new SingleFlight<>();
     }
 
     /**
@@ -90,6 +94,7 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
         this.remoteRef = origin.remoteRef;
         this.statusRef = origin.statusRef;
         this.syncTimeRef = origin.syncTimeRef;
+        this.flights = origin.flights;
     }
 
     public boolean exists() {
@@ -129,13 +134,16 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
             return;
         }
         Azure.az(IAzureAccount.class).account();
-        final R remote = this.remoteRef.get();
-        this.doModify(() -> {
-            log.debug("[{}:{}]:reload->this.refreshRemote()", this.module.getName(), this.getName());
-            final R refreshed = Objects.nonNull(remote) ? this.refreshRemote(remote) : null;
-            log.debug("[{}:{}]:reload->this.loadRemote()", this.module.getName(), this.getName());
-            return Objects.nonNull(refreshed) ? refreshed : this.loadRemote();
-        }, Status.LOADING);
+        // concurrent reloads share one request.
+        this.flights.execute("reload", () -> {
+            final R remote = this.remoteRef.get();
+            this.doSync(() -> {
+                log.debug("[{}:{}]:reload->this.refreshRemote()", this.module.getName(), this.getName());
+                final R refreshed = Objects.nonNull(remote) ? this.refreshRemote(remote) : null;
+                log.debug("[{}:{}]:reload->this.loadRemote()", this.module.getName(), this.getName());
+                return Objects.nonNull(refreshed) ? refreshed : this.loadRemote();
+            }, Status.LOADING);
+        });
     }
 
     @Nonnull
@@ -202,8 +210,9 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
                     e.printStackTrace();
                 }
             }
-            return this.getRemote();
         }
+        // outside the lock, since it may wait for an ongoing reload which needs the lock to set remote.
+        return this.getRemote();
     }
 
     protected void setStatus(@Nonnull String status) {
@@ -228,13 +237,15 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
     )
     private void reloadStatus() {
         log.debug("[{}:{}]:reloadStatus()", this.module.getName(), this.getName());
-        try {
-            log.debug("[{}:{}]:reloadStatus->loadStatus()", this.module.getName(), this.getName());
-            this.remoteOptional().map(this::loadStatus).ifPresent(this::setStatus);
-        } catch (Throwable t) {
-            log.debug("[{}:{}]:reloadStatus->loadStatus()=EXCEPTION", this.module.getName(), this.getName(), t);
-            this.setStatus(Status.UNKNOWN);
-        }
+        this.flights.execute("reloadStatus", () -> {
+            try {
+                log.debug("[{}:{}]:reloadStatus->loadStatus()", this.module.getName(), this.getName());
+                this.remoteOptional().map(this::loadStatus).ifPresent(this::setStatus);
+            } catch (Throwable t) {
+                log.debug("[{}:{}]:reloadStatus->loadStatus()=EXCEPTION", this.module.getName(), this.getName(), t);
+                this.setStatus(Status.UNKNOWN);
+            }
+        });
     }
 
     @Nonnull
@@ -260,13 +271,14 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
                     e.printStackTrace();
                 }
             }
-            if (this.syncTimeRef.get() < 0) {
-                log.debug("[{}:{}]:getStatusSync->reloadStatus()", this.module.getName(), this.getName());
-                this.reloadStatus();
-                return this.statusRef.get();
+            if (this.syncTimeRef.get() >= 0) {
+                return status;
             }
-            return status;
         }
+        // outside the lock, since it may wait for an ongoing status reload which needs the lock to set status.
+        log.debug("[{}:{}]:getStatusSync->reloadStatus()", this.module.getName(), this.getName());
+        this.reloadStatus();
+        return this.statusRef.get();
     }
 
     protected void doModify(@Nonnull Runnable body, @Nullable String status) {
@@ -282,6 +294,8 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
             this.setStatus(Status.UNKNOWN);
             this.syncTimeRef.compareAndSet(0, -1);
             throw t;
+        } finally {
+            this.forgetFlights();
         }
     }
 
@@ -305,6 +319,23 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
 
     @Nullable
     protected R doModify(@Nonnull Callable<R> body, @Nullable String status) {
+        try {
+            return this.doSync(body, status);
+        } finally {
+            this.forgetFlights();
+        }
+    }
+
+    /**
+     * reloads started before a modification may return the remote before it, later reloads must not join them.
+     */
+    private void forgetFlights() {
+        this.flights.forget("reload");
+        this.flights.forget("reloadStatus");
+    }
+
+    @Nullable
+    private R doSync(@Nonnull Callable<R> body, @Nullable String status) {
         // TODO: lock so that can not modify if modifying.
         this.setStatus(Optional.ofNullable(status).orElse(Status.PENDING));
         try {
@@ -14,29 +14,60 @@ import com.azure.core.management.profile.AzureProfile;
 import com.azure.resourcemanager.resources.ResourceManager;
 import com.azure.resourcemanager.resources.fluentcore.policy.ProviderRegistrationPolicy;
 import com.azure.resourcemanager.resources.models.ProviderResourceType;
-import com.azure.resourcemanager.resources.models.Providers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.microsoft.azure.toolkit.lib.AzService;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.AzureConfiguration;
 import com.microsoft.azure.toolkit.lib.account.IAccount;
 import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
+import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
-import io.netty.resolver.AddressResolverGroup;
+import com.microsoft.azure.toolkit.lib.common.telemetry.AzureOperationSpans;
 import io.netty.resolver.DefaultAddressResolverGroup;
 import io.netty.resolver.NoopAddressResolverGroup;
 import org.apache.commons.lang3.StringUtils;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
 
 import javax.annotation.Nonnull;
 import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import static com.microsoft.azure.toolkit.lib.Azure.az;
 
 public abstract class AbstractAzResourceManager<T extends AbstractAzResource<T, AzResource.None, R>, R>
     extends AbstractAzResource<T, AzResource.None, R> {
+    /**
+     * fully built resource managers keyed by subscription, account and environment.
+     */
+    private static final Cache<String, ResourceManager> resourceManagers = CacheBuilder.newBuilder()
+        .maximumSize(100)
+        .expireAfterAccess(4, TimeUnit.HOURS)
+        .build();
+    private static final AtomicInteger builtPipelines = new AtomicInteger();
+
+    static {
+        AzureEventBus.on("account.logout.account", new AzureEventBus.EventListener((e) -> resourceManagers.invalidateAll()));
+        AzureEventBus.on("account.subscription_changed.account", new AzureEventBus.EventListener((e) -> resourceManagers.invalidateAll()));
+    }
+
     protected AbstractAzResourceManager(@Nonnull String name, @Nonnull AbstractAzResourceModule<T, None, R> module) {
         super(name, AzResource.RESOURCE_GROUP_PLACEHOLDER, module);
     }
@@ -81,24 +112,41 @@ public abstract class AbstractAzResourceManager<T extends AbstractAzResource<T,
     @Nonnull
     public static ResourceManager getResourceManager(@Nonnull final String subscriptionId) {
         final IAccount account = az(IAzureAccount.class).account();
+        final String key = String.format("%s/%s/%s", subscriptionId, System.identityHashCode(account), account.getEnvironment().getManagementEndpoint());
+        try {
+            return resourceManagers.get(key, () -> buildResourceManager(account, subscriptionId));
+        } catch (ExecutionException e) {
+            throw new AzureToolkitRuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * @return count of the http pipelines built for resource managers since the start of the process.
+     */
+    public static int getBuiltPipelineCount() {
+        return builtPipelines.get();
+    }
+
+    @Nonnull
+    private static ResourceManager buildResourceManager(@Nonnull final IAccount account, @Nonnull final String subscriptionId) {
         final AzureConfiguration config = Azure.az().config();
         final String userAgent = config.getUserAgent();
         final HttpLogDetailLevel logDetailLevel = config.getLogLevel() == null ?
             HttpLogDetailLevel.NONE : HttpLogDetailLevel.valueOf(config.getLogLevel());
         final AzureProfile azureProfile = new AzureProfile(account.getEnvironment());
 
-        final Providers providers = ResourceManager.configure()
-            .withHttpClient(getDefaultHttpClient())
-            .withPolicy(getUserAgentPolicy(userAgent))
-            .authenticate(account.getTokenCredential(subscriptionId), azureProfile)
-            .withSubscription(subscriptionId).providers();
-        return ResourceManager.configure()
+        // the policy auto registers resource providers, it needs the providers of the manager it belongs to.
+        final ProviderRegistrationPolicy providerRegistrationPolicy = new ProviderRegistrationPolicy();
+        final ResourceManager manager = ResourceManager.configure()
             .withHttpClient(getDefaultHttpClient())
             .withLogLevel(logDetailLevel)
             .withPolicy(getUserAgentPolicy(userAgent)) // set user agent with policy
-            .withPolicy(new ProviderRegistrationPolicy(providers)) // add policy to auto register resource providers
+            .withPolicy(providerRegistrationPolicy) // add policy to auto register resource providers
             .authenticate(account.getTokenCredential(subscriptionId), azureProfile)
             .withSubscription(subscriptionId);
+        providerRegistrationPolicy.setProviders(manager.providers());
+        builtPipelines.incrementAndGet();
+        return manager;
     }
 
     @Nonnull
@@ -106,12 +154,21 @@ public abstract class AbstractAzResourceManager<T extends AbstractAzResource<T,
         return (httpPipelineCallContext, httpPipelineNextPolicy) -> {
             final String previousUserAgent = httpPipelineCallContext.getHttpRequest().getHeaders().getValue("User-Agent");
             httpPipelineCallContext.getHttpRequest().setHeader("User-Agent", String.format("%s %s", userAgent, previousUserAgent));
+            AzureOperationSpans.recordRequest(); // all ARM clients share this policy
             return httpPipelineNextPolicy.process();
         };
     }
 
     public static class HttpClientHolder {
+        public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 50;
+        public static final int DEFAULT_MAX_IDLE_SECONDS = 60;
+        public static final int DEFAULT_DNS_CACHE_MAX_TTL_SECONDS = 300;
+        private static final String POOL_NAME = "azure-toolkit";
         private static HttpClient defaultHttpClient = null;
+        private static final Map<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+        private static final LongAdder acquireCount = new LongAdder();
+        private static final LongAdder acquireNanos = new LongAdder();
+        private static final AtomicLong maxAcquireNanos = new AtomicLong();
 
         @Nonnull
         private static synchronized HttpClient getHttpClient() {
@@ -119,26 +176,79 @@ public abstract class AbstractAzResourceManager<T extends AbstractAzResource<T,
                 return defaultHttpClient;
             }
 
-            AddressResolverGroup resolverGroup;
             ProxyOptions proxyOptions = null;
             final AzureConfiguration config = Azure.az().config();
+            reactor.netty.http.client.HttpClient nettyHttpClient =
+                reactor.netty.http.client.HttpClient.create(buildConnectionProvider(config))
+                    .mapConnect(HttpClientHolder::recordAcquireLatency);
             if (StringUtils.isNotBlank(config.getProxySource())) {
                 proxyOptions = new ProxyOptions(ProxyOptions.Type.HTTP, new InetSocketAddress(config.getHttpProxyHost(), config.getHttpProxyPort()));
                 if (StringUtils.isNoneBlank(config.getProxyUsername(), config.getProxyPassword())) {
                     proxyOptions.setCredentials(config.getProxyUsername(), config.getProxyPassword());
                 }
-                resolverGroup = NoopAddressResolverGroup.INSTANCE;
+                nettyHttpClient = nettyHttpClient.resolver(NoopAddressResolverGroup.INSTANCE);
+            } else if (config.isHttpAsyncDnsEnabled()) {
+                final int maxTtl = config.getHttpDnsCacheMaxTtl() > 0 ? config.getHttpDnsCacheMaxTtl() : DEFAULT_DNS_CACHE_MAX_TTL_SECONDS;
+                nettyHttpClient = nettyHttpClient.resolver(spec -> spec.cacheMaxTimeToLive(Duration.ofSeconds(maxTtl)));
             } else {
-                resolverGroup = DefaultAddressResolverGroup.INSTANCE;
+                nettyHttpClient = nettyHttpClient.resolver(DefaultAddressResolverGroup.INSTANCE);
+            }
+            if (config.isHttp2Enabled()) {
+                // HTTP/2 is negotiated through ALPN, endpoints not supporting it fall back to HTTP/1.1
+                nettyHttpClient = nettyHttpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
             }
-            reactor.netty.http.client.HttpClient nettyHttpClient =
-                reactor.netty.http.client.HttpClient.create()
-                    .resolver(resolverGroup);
             NettyAsyncHttpClientBuilder builder = new NettyAsyncHttpClientBuilder(nettyHttpClient);
             Optional.ofNullable(proxyOptions).map(builder::proxy);
             defaultHttpClient = builder.build();
             return defaultHttpClient;
         }
+
+        @Nonnull
+        private static ConnectionProvider buildConnectionProvider(@Nonnull final AzureConfiguration config) {
+            final int maxConnections = config.getHttpMaxConnectionsPerHost() > 0 ? config.getHttpMaxConnectionsPerHost() : DEFAULT_MAX_CONNECTIONS_PER_HOST;
+            final int maxIdle = config.getHttpMaxIdleTime() > 0 ? config.getHttpMaxIdleTime() : DEFAULT_MAX_IDLE_SECONDS;
+            final ConnectionProvider.Builder builder = ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .maxIdleTime(Duration.ofSeconds(maxIdle))
+                .evictInBackground(Duration.ofSeconds(maxIdle))
+                .metrics(true, () -> (poolName, id, remoteAddress, metrics) -> pools.put(remoteAddress.toString(), metrics));
+            if (config.getHttpPendingAcquireMaxCount() > 0) {
+                builder.pendingAcquireMaxCount(config.getHttpPendingAcquireMaxCount());
+            }
+            if (config.getHttpMaxLifeTime() > 0) {
+                builder.maxLifeTime(Duration.ofSeconds(config.getHttpMaxLifeTime()));
+            }
+            return builder.build();
+        }
+
+        @Nonnull
+        private static Mono<? extends Connection> recordAcquireLatency(@Nonnull final Mono<? extends Connection> connect) {
+            return Mono.defer(() -> {
+                final long start = System.nanoTime();
+                return connect.doOnSuccess(c -> {
+                    final long elapsed = System.nanoTime() - start;
+                    acquireCount.increment();
+                    acquireNanos.add(elapsed);
+                    maxAcquireNanos.accumulateAndGet(elapsed, Math::max);
+                });
+            });
+        }
+    }
+
+    /**
+     * @return occupancy of the connection pool per remote host and the latency of connection acquisition of the
+     * default http client.
+     */
+    @Nonnull
+    public static Map<String, String> getHttpClientStatistics() {
+        final Map<String, String> result = new TreeMap<>();
+        HttpClientHolder.pools.forEach((host, m) -> result.put(host, String.format("acquired=%d, idle=%d, allocated=%d/%d, pending=%d/%d",
+            m.acquiredSize(), m.idleSize(), m.allocatedSize(), m.maxAllocatedSize(), m.pendingAcquireSize(), m.maxPendingAcquireSize())));
+        final long count = HttpClientHolder.acquireCount.sum();
+        final long avg = count == 0 ? 0 : HttpClientHolder.acquireNanos.sum() / count;
+        result.put("acquire", String.format("count=%d, avg=%dms, max=%dms", count,
+            TimeUnit.NANOSECONDS.toMillis(avg), TimeUnit.NANOSECONDS.toMillis(HttpClientHolder.maxAcquireNanos.get())));
+        return result;
     }
 
     @Nonnull
@@ -6,6 +6,7 @@
 package com.microsoft.azure.toolkit.lib.common.model;
 
 import com.azure.core.management.exception.ManagementException;
+import com.azure.resourcemanager.resources.fluentcore.arm.ResourceId;
 import com.azure.resourcemanager.resources.fluentcore.arm.collection.SupportsGettingById;
 import com.azure.resourcemanager.resources.fluentcore.arm.collection.SupportsGettingByName;
 import com.azure.resourcemanager.resources.fluentcore.arm.collection.SupportsGettingByResourceGroup;
@@ -14,12 +15,15 @@ import com.azure.resourcemanager.resources.fluentcore.collection.SupportsListing
 import com.google.common.collect.Sets;
 import com.microsoft.azure.toolkit.lib.AzService;
 import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
 import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.common.utils.Debouncer;
+import com.microsoft.azure.toolkit.lib.common.utils.SingleFlight;
 import com.microsoft.azure.toolkit.lib.common.utils.TailingDebouncer;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
@@ -35,12 +39,17 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -51,6 +60,9 @@ import java.util.stream.Stream;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P, R>, P extends AbstractAzResource<P, ?, ?>, R>
     implements AzResourceModule<T, P, R> {
+    public static final long CACHE_TTL_INFINITE = -1;
+    public static final int DEFAULT_CACHE_TTL = 300; // seconds
+
     @Nonnull
     @ToString.Include
     @EqualsAndHashCode.Include
@@ -62,20 +74,64 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
     @ToString.Include
     @Getter(AccessLevel.NONE)
     private final AtomicLong syncTime = new AtomicLong(-1);
+    /**
+     * time of the last {@link #refresh()}, resources listed before it are reloaded in foreground by {@link #list()}.
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile long refreshTime = 0;
+    /**
+     * time of the last {@link #invalidate()}, resources listed before it are reloaded in background by {@link #list()}.
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile long invalidateTime = 0;
+    /**
+     * freshness window (in milliseconds) of the listed resources, {@link #list()} returns the outdated resources
+     * immediately and reloads them in background once it's expired. {@link #getDefaultCacheTtl()} if not set.
+     */
+    @Nullable
+    @Getter(AccessLevel.NONE)
+    private volatile Long cacheTtl;
+    @Nonnull
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<CompletableFuture<Void>> reloading = new AtomicReference<>();
     @Nonnull
     @Getter(AccessLevel.NONE)
     private final Map<String, Optional<T>> resources = new ConcurrentHashMap<>();
+    /**
+     * index of the local resources by their normalized resource id, maintained along with {@link #resources}, empty
+     * if the resource is known to be missing.
+     */
+    @Nonnull
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Optional<T>> resourcesById = new ConcurrentHashMap<>();
+    /**
+     * normalized ids in {@link #resourcesById} by resource name, so that deleting a name doesn't scan the whole index.
+     */
+    @Nonnull
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Set<String>> idsByName = new ConcurrentHashMap<>();
+    @Nonnull
+    @Getter(AccessLevel.NONE)
+    private final SingleFlight<String> loading = new SingleFlight<>();
     @Nonnull
     private final Debouncer fireEvents = new TailingDebouncer(this::fireChildrenChangedEvent, 300);
 
     @Nonnull
     @Override
-    public synchronized List<T> list() {
+    public List<T> list() {
         log.debug("[{}]:list()", this.name);
         Azure.az(IAzureAccount.class).account();
-        if (this.syncTime.compareAndSet(-1, 0)) {
+        if (this.isReloadRequired()) {
             log.debug("[{}]:list->this.reload()", this.name);
-            this.reload();
+            // join the ongoing reload (if any) instead of starting a new one, reload again if it started before refresh.
+            this.reloadAndWait();
+            if (this.isReloadRequired() && this.syncTime.get() != -2) {
+                log.debug("[{}]:list->this.reload(again)", this.name);
+                this.reloadAndWait();
+            }
+        } else if (this.isOutdated()) {
+            log.debug("[{}]:list->this.reload(background)", this.name);
+            this.reload(true);
         }
         log.debug("[{}]:list->this.resources.values()", this.name);
         return this.resources.values().stream().filter(Optional::isPresent).map(Optional::get)
@@ -83,7 +139,7 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
     }
 
     @Nonnull
-    public synchronized List<T> listByResourceGroup(@Nonnull String resourceGroup) {
+    public List<T> listByResourceGroup(@Nonnull String resourceGroup) {
         log.debug("[{}]:listByResourceGroupName({})", this.name, resourceGroup);
         return this.list().stream().filter(r -> r.getResourceGroupName().equalsIgnoreCase(resourceGroup)).collect(Collectors.toList());
     }
@@ -92,6 +148,8 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
         log.debug("[{}]:clear()", this.name);
         this.syncTime.set(-1);
         this.resources.clear();
+        this.resourcesById.clear();
+        this.idsByName.clear();
     }
 
     @Nullable
@@ -104,20 +162,16 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
         }
         Azure.az(IAzureAccount.class).account();
         if (!this.resources.containsKey(name)) {
-            R remote = null;
-            try {
-                log.debug("[{}]:get({}, {})->loadResourceFromAzure()", this.name, name, resourceGroup);
-                remote = loadResourceFromAzure(name, resourceGroup);
-            } catch (Exception e) {
-                log.debug("[{}]:get({}, {})->loadResourceFromAzure()=EXCEPTION", this.name, name, resourceGroup, e);
-                final Throwable cause = e instanceof ManagementException ? e : ExceptionUtils.getRootCause(e);
-                if (cause instanceof ManagementException) {
-                    if (HttpStatus.SC_NOT_FOUND != ((ManagementException) cause).getResponse().getStatusCode()) {
-                        log.debug("[{}]:get({}, {})->loadResourceFromAzure()=SC_NOT_FOUND", this.name, name, resourceGroup, e);
-                        throw e;
-                    }
-                }
-            }
+            // concurrent misses of the same resource share one request.
+            this.loading.execute(name, () -> this.loadResourceToLocal(name, resourceGroup));
+        }
+        log.debug("[{}]:get({}, {})->this.resources.get({})", this.name, name, resourceGroup, name);
+        return Optional.ofNullable(this.resources.get(name)).flatMap(r -> r).orElse(null);
+    }
+
+    private void loadResourceToLocal(@Nonnull String name, @Nullable String resourceGroup) {
+        if (!this.resources.containsKey(name)) {
+            final R remote = this.loadResourceFromAzureIfExists(name, resourceGroup);
             if (Objects.isNull(remote)) {
                 log.debug("[{}]:get({}, {})->addResourceToLocal({}, null)", this.name, name, resourceGroup, name);
                 this.addResourceToLocal(name, null, true);
@@ -127,14 +181,94 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
                 this.addResourceToLocal(name, resource, true);
             }
         }
-        log.debug("[{}]:get({}, {})->this.resources.get({})", this.name, name, resourceGroup, name);
-        return this.resources.get(name).orElse(null);
+    }
+
+    @Nullable
+    private R loadResourceFromAzureIfExists(@Nonnull String name, @Nullable String resourceGroup) {
+        try {
+            log.debug("[{}]:get({}, {})->loadResourceFromAzure()", this.name, name, resourceGroup);
+            return loadResourceFromAzure(name, resourceGroup);
+        } catch (Exception e) {
+            log.debug("[{}]:get({}, {})->loadResourceFromAzure()=EXCEPTION", this.name, name, resourceGroup, e);
+            final Throwable cause = e instanceof ManagementException ? e : ExceptionUtils.getRootCause(e);
+            if (cause instanceof ManagementException) {
+                if (HttpStatus.SC_NOT_FOUND != ((ManagementException) cause).getResponse().getStatusCode()) {
+                    log.debug("[{}]:get({}, {})->loadResourceFromAzure()=SC_NOT_FOUND", this.name, name, resourceGroup, e);
+                    throw e;
+                }
+            }
+            return null;
+        }
     }
 
     @Nullable
     public T get(@Nonnull String resourceId) {
         log.debug("[{}]:get({})", this.name, resourceId);
-        return this.list().stream().filter(resource -> StringUtils.equalsIgnoreCase(resourceId, resource.getId())).findFirst().orElse(null);
+        final String normalizedId = normalizeId(resourceId);
+        final Optional<T> indexed = this.resourcesById.get(normalizedId);
+        if (Objects.nonNull(indexed)) {
+            return indexed.orElse(null);
+        }
+        final ResourceId id;
+        try {
+            id = ResourceId.fromString(resourceId);
+        } catch (final RuntimeException e) {
+            log.debug("[{}]:get({})->ResourceId.fromString()=EXCEPTION", this.name, resourceId, e);
+            return this.findInList(resourceId);
+        }
+        if (!StringUtils.equals(normalizeId(this.toResourceId(id.name(), id.resourceGroupName())), normalizedId)) {
+            log.debug("[{}]:get({})->not in the form of this module's resource ids", this.name, resourceId);
+            return this.findInList(resourceId);
+        }
+        final T cached = Optional.ofNullable(this.resources.get(id.name())).flatMap(r -> r).orElse(null);
+        if (Objects.nonNull(cached) && StringUtils.equals(normalizeId(cached.getId()), normalizedId)) {
+            return cached;
+        }
+        // the name may be cached (as missing or as a same named resource in another resource group) by get(name, rg),
+        // load the single resource by id instead of trusting it or listing all resources of this module.
+        Azure.az(IAzureAccount.class).account();
+        this.loading.execute(normalizedId, () -> this.loadResourceByIdToLocal(normalizedId, id));
+        return Optional.ofNullable(this.resourcesById.get(normalizedId)).flatMap(r -> r).orElse(null);
+    }
+
+    private void loadResourceByIdToLocal(@Nonnull String normalizedId, @Nonnull ResourceId id) {
+        if (this.resourcesById.containsKey(normalizedId)) {
+            return;
+        }
+        final String name = id.name();
+        final R remote = this.loadResourceFromAzureIfExists(name, id.resourceGroupName());
+        if (Objects.isNull(remote)) {
+            log.debug("[{}]:get({})->addResourceToLocal({}, null)", this.name, normalizedId, name);
+            this.addResourceToLocal(name, null, true);
+            // cache the miss by id, the name may be taken by a same named resource in another resource group.
+            this.indexResource(name, normalizedId, Optional.empty());
+            return;
+        }
+        final T resource = newResource(remote);
+        log.debug("[{}]:get({})->addResourceToLocal({}, resource)", this.name, normalizedId, name);
+        this.addResourceToLocal(name, resource, true);
+        // index it anyway in case the name is taken by a same named resource in another resource group.
+        if (!this.resourcesById.containsKey(normalizedId)) {
+            this.indexResource(name, normalizedId, Optional.of(resource));
+        }
+    }
+
+    private void indexResource(@Nonnull String name, @Nonnull String normalizedId, @Nonnull Optional<T> resource) {
+        this.idsByName.computeIfAbsent(name, n -> ConcurrentHashMap.newKeySet()).add(normalizedId);
+        this.resourcesById.put(normalizedId, resource);
+    }
+
+    @Nullable
+    private T findInList(@Nonnull String resourceId) {
+        log.debug("[{}]:get({})->this.list().filter()", this.name, resourceId);
+        final String id = normalizeId(resourceId);
+        return this.list().stream().filter(r -> StringUtils.equals(id, normalizeId(r.getId()))).findFirst().orElse(null);
+    }
+
+    @Nonnull
+    private static String normalizeId(@Nonnull String resourceId) {
+        final String id = resourceId.toLowerCase(Locale.ROOT);
+        return id.endsWith("/") ? id.substring(0, id.length() - 1) : id;
     }
 
     @Override
@@ -225,15 +359,122 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
         throw new AzureToolkitRuntimeException(String.format("resource \"%s\" doesn't exist", draft.getName()));
     }
 
+    /**
+     * the resources will be reloaded on next {@link #list()}, which waits until the reload is done.
+     */
     @Override
     public void refresh() {
         log.debug("[{}]:refresh()", this.name);
-        this.syncTime.set(-1);
+        this.refreshTime = System.currentTimeMillis();
         AzureEventBus.emit("module.refreshed.module", this);
     }
 
-    private synchronized void reload() {
+    /**
+     * mark the listed resources as outdated, they are still returned by {@link #list()} while being reloaded in background,
+     * use {@link #refresh()} instead if the next {@link #list()} must return the latest resources.
+     */
+    public void invalidate() {
+        log.debug("[{}]:invalidate()", this.name);
+        this.invalidateTime = System.currentTimeMillis();
+    }
+
+    public long getCacheTtl() {
+        return Optional.ofNullable(this.cacheTtl).orElseGet(this::getDefaultCacheTtl);
+    }
+
+    public void setCacheTtl(long cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    /**
+     * freshness window (in milliseconds) of the listed resources if not set by {@link #setCacheTtl(long)}, resources
+     * that change frequently out of the toolkit (e.g. web apps, function apps and databases) should override it with
+     * {@link #getConfiguredCacheTtl()}.
+     */
+    protected long getDefaultCacheTtl() {
+        return CACHE_TTL_INFINITE;
+    }
+
+    /**
+     * @return {@link AzureConfiguration#getResourceCacheTtl()} in milliseconds, {@link #DEFAULT_CACHE_TTL} seconds if not configured.
+     */
+    protected static long getConfiguredCacheTtl() {
+        final int ttl = Azure.az().config().getResourceCacheTtl();
+        return ttl < 0 ? CACHE_TTL_INFINITE : TimeUnit.SECONDS.toMillis(ttl > 0 ? ttl : DEFAULT_CACHE_TTL);
+    }
+
+    /**
+     * @return true if resources have never been loaded successfully, are being loaded for the first time, or are
+     * listed before the last {@link #refresh()}.
+     */
+    private boolean isReloadRequired() {
+        final long syncTime = this.syncTime.get();
+        return syncTime <= 0 || syncTime <= this.refreshTime; // not loaded(-1), failed(-2) or loading(0)
+    }
+
+    private boolean isOutdated() {
+        final long syncTime = this.syncTime.get();
+        final long ttl = this.getCacheTtl();
+        return syncTime > 0 && (syncTime <= this.invalidateTime || (ttl >= 0 && System.currentTimeMillis() - syncTime > ttl));
+    }
+
+    /**
+     * start reloading resources from Azure if not yet, concurrent callers share the same reload.
+     *
+     * @param background run the reload on a pooled thread and notify the changes if true, otherwise run on the calling thread.
+     */
+    @Nonnull
+    private CompletableFuture<Void> reload(boolean background) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        while (!this.reloading.compareAndSet(null, future)) {
+            final CompletableFuture<Void> ongoing = this.reloading.get();
+            if (Objects.nonNull(ongoing)) {
+                log.debug("[{}]:reload->join ongoing reload", this.name);
+                return ongoing;
+            }
+        }
+        final Runnable task = () -> {
+            try {
+                if (this.reload() && background) {
+                    log.debug("[{}]:reload->fireResourcesChangedEvent()", this.name);
+                    fireEvents.debounce();
+                }
+                this.reloading.set(null);
+                future.complete(null);
+            } catch (final Throwable t) {
+                log.debug("[{}]:reload->EXCEPTION", this.name, t);
+                this.syncTime.set(-2);
+                this.reloading.set(null);
+                future.completeExceptionally(t);
+                if (background) {
+                    // nobody is waiting for a background reload, report the failure instead of losing it on the pooled thread.
+                    AzureMessager.getMessager().error(t);
+                }
+            }
+        };
+        if (background) {
+            AzureTaskManager.getInstance().runOnPooledThread(task);
+        } else {
+            task.run();
+        }
+        return future;
+    }
+
+    private void reloadAndWait() {
+        try {
+            this.reload(false).join();
+        } catch (final CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * @return true if any resource is added or removed.
+     */
+    private boolean reload() {
         log.debug("[{}]:reload()", this.name);
+        final long startTime = System.currentTimeMillis();
+        this.syncTime.getAndUpdate(t -> t < 0 ? 0 : t); // never loaded or failed
         Stream<R> loaded;
         try {
             log.debug("[{}]:reload->loadResourcesFromAzure()", this.name);
@@ -242,9 +483,29 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
             log.debug("[{}]:reload->loadResourcesFromAzure()=EXCEPTION", this.name, t);
             this.syncTime.set(-2);
             AzureMessager.getMessager().error(t);
-            return;
+            return false;
         }
         final Map<String, T> loadedResources = loaded.map(this::newResource).collect(Collectors.toMap(AbstractAzResource::getName, r -> r));
+        synchronized (this) {
+            if (this.syncTime.get() == -1) {
+                log.debug("[{}]:reload->discarded since module is cleared", this.name);
+                return false;
+            }
+            final boolean changed = this.mergeResourcesToLocal(loadedResources);
+            // use the time when reloading started, so that refreshing during reloading will not be lost.
+            this.syncTime.set(startTime);
+            return changed;
+        }
+    }
+
+    /**
+     * merge the (complete) loaded resources into local: refresh the existing, add the new and remove the missing ones
+     * (except those being created).
+     *
+     * @return true if any resource is added or removed.
+     */
+    protected synchronized boolean mergeResourcesToLocal(@Nonnull Map<String, T> loadedResources) {
+        log.debug("[{}]:mergeResourcesToLocal()", this.name);
         final Set<String> localResources = this.resources.values().stream().filter(Optional::isPresent).map(Optional::get)
             .map(AbstractAzResource::getName).collect(Collectors.toSet());
         final Set<String> creating = this.resources.values().stream().filter(Optional::isPresent).map(Optional::get)
@@ -258,12 +519,35 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
         log.debug("[{}]:reload().added={}", this.name, added);
 
         log.debug("[{}]:reload.refreshed->resource.setRemote", this.name);
-        refreshed.forEach(name -> this.resources.get(name).ifPresent(r -> r.setRemote(loadedResources.get(name).getRemote())));
+        refreshed.forEach(name -> this.resources.get(name).ifPresent(r -> {
+            // resources listed by resource graph have no remote, keep the existing one.
+            Optional.ofNullable(loadedResources.get(name).remoteRef.get()).ifPresent(r::setRemote);
+        }));
+        // misses cached by get(resourceId) may have been created since.
+        this.resourcesById.values().removeIf(r -> !r.isPresent());
         log.debug("[{}]:reload.deleted->deleteResourceFromLocal", this.name);
         deleted.forEach(name -> Optional.ofNullable(this.deleteResourceFromLocal(name, true)).ifPresent(t -> t.setStatus(AzResource.Status.DELETED)));
         log.debug("[{}]:reload.added->addResourceToLocal", this.name);
         added.forEach(name -> this.addResourceToLocal(name, loadedResources.get(name), true));
-        this.syncTime.set(System.currentTimeMillis());
+        return !deleted.isEmpty() || !added.isEmpty();
+    }
+
+    /**
+     * replace local resources with those listed by {@link AzResourceGraph}.
+     */
+    void setResourcesFromGraph(@Nonnull List<AzResourceGraph.Record> records, long startTime) {
+        log.debug("[{}]:setResourcesFromGraph({} records)", this.name, records.size());
+        final Map<String, T> loadedResources = records.stream().map(this::newResource).filter(Objects::nonNull)
+            .collect(Collectors.toMap(AbstractAzResource::getName, r -> r, (r1, r2) -> r1));
+        final boolean loaded = this.syncTime.get() > 0;
+        synchronized (this) {
+            final boolean changed = this.mergeResourcesToLocal(loadedResources);
+            this.syncTime.set(startTime);
+            if (changed && loaded) {
+                log.debug("[{}]:setResourcesFromGraph->fireResourcesChangedEvent()", this.name);
+                fireEvents.debounce();
+            }
+        }
     }
 
     @Nonnull
@@ -277,6 +561,13 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
         log.debug("[{}]:deleteResourceFromLocal({})", this.name, name);
         log.debug("[{}]:deleteResourceFromLocal->this.resources.remove({})", this.name, name);
         final Optional<T> removed = this.resources.remove(name);
+        // a load started before the deletion must not be shared by later gets.
+        this.loading.forget(name);
+        // same named resources in other resource groups may be indexed by get(resourceId).
+        Optional.ofNullable(this.idsByName.remove(name)).ifPresent(ids -> ids.forEach(id -> {
+            this.resourcesById.remove(id);
+            this.loading.forget(id);
+        }));
         if (Objects.nonNull(removed) && removed.isPresent() && (silent.length == 0 || !silent[0])) {
             log.debug("[{}]:deleteResourceFromLocal->fireResourcesChangedEvent()", this.name);
             fireEvents.debounce();
@@ -291,6 +582,7 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
         if (!oldResource.isPresent()) {
             log.debug("[{}]:addResourceToLocal->this.resources.put({}, {})", this.name, name, resource);
             this.resources.put(name, newResource);
+            newResource.ifPresent(r -> this.indexResource(name, normalizeId(r.getId()), newResource));
             if (newResource.isPresent() && (silent.length == 0 || !silent[0])) {
                 log.debug("[{}]:addResourceToLocal->fireResourcesChangedEvent()", this.name);
                 fireEvents.debounce();
@@ -375,6 +667,24 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
     @Nonnull
     protected abstract T newResource(@Nonnull R r);
 
+    /**
+     * @return true if resources of this module can be listed by {@link AzResourceGraph}, in which case
+     * {@link #newResource(AzResourceGraph.Record)} must be overridden.
+     */
+    protected boolean isResourceGraphSupported() {
+        return false;
+    }
+
+    /**
+     * create resource (whose remote will be loaded lazily) from a record listed by {@link AzResourceGraph}.
+     *
+     * @return null if the record doesn't belong to this module.
+     */
+    @Nullable
+    protected T newResource(@Nonnull AzResourceGraph.Record record) {
+        return null;
+    }
+
     /**
      * get track2 client, which is used to implement {@link #loadResourcesFromAzure}, {@link #loadResourceFromAzure} and {@link #deleteResourceFromAzure}
      */
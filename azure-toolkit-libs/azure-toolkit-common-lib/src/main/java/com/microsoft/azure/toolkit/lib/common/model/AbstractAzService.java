@@ -13,6 +13,7 @@ import com.microsoft.azure.toolkit.lib.common.cache.Preload;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -21,8 +22,10 @@ import javax.annotation.Nullable;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+@Slf4j
 public abstract class AbstractAzService<T extends AbstractAzResourceManager<T, R>, R> extends AbstractAzResourceModule<T, AzResource.None, R>
     implements AzService {
 
@@ -50,10 +53,20 @@ public abstract class AbstractAzService<T extends AbstractAzResourceManager<T, R
     private static void preload() {
         AzureTelemetry.getActionContext().setProperty("preloading", String.valueOf(true));
         final List<AbstractAzService> services = Azure.getServices(AbstractAzService.class);
-        services.stream().parallel()
-            .flatMap(s -> s.list().stream())
-            .flatMap(m -> ((AbstractAzResourceManager) m).getSubModules().stream())
-            .forEach(m -> ((AzResourceModule) m).list());
+        final List<AzResourceModule<?, ?, ?>> modules = services.stream().parallel()
+            .flatMap(s -> ((AbstractAzService<?, ?>) s).list().stream())
+            .flatMap(m -> m.getSubModules().stream())
+            .collect(Collectors.toList());
+        if (Azure.az().config().isResourceGraphEnabled()) {
+            try {
+                final int loaded = new AzResourceGraph().load(modules.stream().filter(m -> m instanceof AbstractAzResourceModule)
+                    .map(m -> (AbstractAzResourceModule<?, ?, ?>) m).collect(Collectors.toList())).size();
+                log.debug("{} modules are preloaded by resource graph.", loaded);
+            } catch (final Throwable t) {
+                log.debug("failed to preload resources by resource graph, fallback to list them separately.", t);
+            }
+        }
+        modules.stream().parallel().forEach(AzResourceModule::list);
     }
 
     @Nonnull
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpPipeline;
+import com.azure.core.http.HttpPipelineBuilder;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.BearerTokenAuthenticationPolicy;
+import com.azure.core.http.policy.RetryPolicy;
+import com.google.common.collect.Lists;
+import com.google.gson.annotations.SerializedName;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.account.IAccount;
+import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * list resources of many modules across all subscriptions with a few paged Azure Resource Graph queries (instead of
+ * one listing per module per subscription), and fan the results out into the modules. resources listed this way have
+ * no remote until they are accessed, only modules overriding {@link AbstractAzResourceModule#isResourceGraphSupported()}
+ * are listed.
+ */
+@Slf4j
+public class AzResourceGraph {
+    private static final String API_VERSION = "2021-03-01";
+    private static final int MAX_SUBSCRIPTIONS_PER_QUERY = 1000;
+    private static final int PAGE_SIZE = 1000;
+
+    @Nonnull
+    private final Transport transport;
+
+    public AzResourceGraph() {
+        this(new HttpPipelineTransport());
+    }
+
+    public AzResourceGraph(@Nonnull Transport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * list resources of the given modules and replace the resources of each module with the listed ones.
+     *
+     * @return the modules whose resources are listed, the others are not supported and should be listed as usual.
+     */
+    @Nonnull
+    public List<AbstractAzResourceModule<?, ?, ?>> load(@Nonnull Collection<? extends AbstractAzResourceModule<?, ?, ?>> modules) {
+        final List<AbstractAzResourceModule<?, ?, ?>> supported = modules.stream()
+            .filter(AbstractAzResourceModule::isResourceGraphSupported).distinct().collect(Collectors.toList());
+        if (supported.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final long startTime = System.currentTimeMillis();
+        final Set<String> subscriptionIds = supported.stream().map(m -> m.getSubscriptionId().toLowerCase()).collect(Collectors.toSet());
+        final Set<String> types = supported.stream().map(m -> m.getFullResourceType().toLowerCase()).collect(Collectors.toCollection(TreeSet::new));
+        final String query = String.format("Resources | where type in~ (%s) | project id, name, type, kind, resourceGroup, subscriptionId",
+            types.stream().map(t -> String.format("'%s'", t)).collect(Collectors.joining(", ")));
+        log.debug("querying resources of {} modules in {} subscriptions: {}", supported.size(), subscriptionIds.size(), query);
+
+        // token is issued per tenant, so subscriptions of different tenants are queried separately.
+        final Map<String, List<String>> tenants = Azure.az(IAzureAccount.class).account().getSelectedSubscriptions().stream()
+            .filter(s -> subscriptionIds.contains(s.getId().toLowerCase()))
+            .collect(Collectors.groupingBy(s -> StringUtils.defaultString(s.getTenantId()), Collectors.mapping(Subscription::getId, Collectors.toList())));
+        final List<Record> records = new ArrayList<>();
+        for (final List<String> subscriptions : tenants.values()) {
+            for (final List<String> batch : Lists.partition(subscriptions, MAX_SUBSCRIPTIONS_PER_QUERY)) {
+                records.addAll(this.query(batch, query));
+            }
+        }
+        log.debug("{} resources are listed by resource graph.", records.size());
+
+        final Map<AbstractAzResourceModule<?, ?, ?>, List<Record>> fanout = new LinkedHashMap<>();
+        supported.forEach(m -> fanout.put(m, new ArrayList<>()));
+        final Map<String, List<AbstractAzResourceModule<?, ?, ?>>> modulesByType = new HashMap<>();
+        supported.forEach(m -> modulesByType.computeIfAbsent(toKey(m.getSubscriptionId(), m.getFullResourceType()), k -> new ArrayList<>()).add(m));
+        for (final Record record : records) {
+            // modules sharing the same type (e.g. web apps and function apps) tell their own resources apart by themselves.
+            Optional.ofNullable(modulesByType.get(toKey(record.getSubscriptionId(), record.getType()))).orElse(Collections.emptyList()).stream()
+                .filter(m -> m.getParent() instanceof AbstractAzResourceManager || StringUtils.startsWithIgnoreCase(record.getId(), m.getParent().getId() + "/"))
+                .forEach(m -> fanout.get(m).add(record));
+        }
+        fanout.forEach((module, moduleRecords) -> module.setResourcesFromGraph(moduleRecords, startTime));
+        return supported;
+    }
+
+    @Nonnull
+    private List<Record> query(@Nonnull List<String> subscriptions, @Nonnull String query) {
+        final List<Record> result = new ArrayList<>();
+        try {
+            // all pages of the query are posted through the same connection.
+            final Connection connection = this.transport.open(subscriptions.get(0));
+            String skipToken = null;
+            do {
+                final Request request = new Request(subscriptions, query, skipToken);
+                final Response response = JsonUtils.fromJson(connection.post(JsonUtils.toJson(request)), Response.class);
+                if (Objects.isNull(response)) {
+                    break;
+                }
+                Optional.ofNullable(response.data).ifPresent(result::addAll);
+                skipToken = response.skipToken;
+            } while (StringUtils.isNotBlank(skipToken));
+        } catch (final IOException | RuntimeException e) {
+            throw new AzureToolkitRuntimeException("failed to query resources from Azure Resource Graph", e);
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static String toKey(@Nonnull String subscriptionId, @Nonnull String type) {
+        return String.format("%s/%s", subscriptionId, type).toLowerCase();
+    }
+
+    /**
+     * transport of Resource Graph queries, can be replaced e.g. to query against a local stub.
+     */
+    @FunctionalInterface
+    public interface Transport {
+        /**
+         * @param subscriptionId one of the queried subscriptions, which all belong to the same tenant.
+         * @return connection to post all pages of a query.
+         */
+        @Nonnull
+        Connection open(@Nonnull String subscriptionId) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Connection {
+        /**
+         * post the query request to Resource Graph.
+         *
+         * @param request request body in JSON
+         * @return response body in JSON
+         */
+        @Nonnull
+        String post(@Nonnull String request) throws IOException;
+    }
+
+    @Getter
+    @ToString
+    public static class Record {
+        private String id;
+        private String name;
+        private String type;
+        private String kind;
+        private String resourceGroup;
+        private String subscriptionId;
+    }
+
+    private static class Request {
+        private final List<String> subscriptions;
+        private final String query;
+        private final Map<String, Object> options = new HashMap<>();
+
+        Request(@Nonnull List<String> subscriptions, @Nonnull String query, @Nullable String skipToken) {
+            this.subscriptions = subscriptions;
+            this.query = query;
+            this.options.put("$top", PAGE_SIZE);
+            this.options.put("resultFormat", "objectArray");
+            Optional.ofNullable(skipToken).ifPresent(t -> this.options.put("$skipToken", t));
+        }
+    }
+
+    private static class Response {
+        private List<Record> data;
+        @SerializedName("$skipToken")
+        private String skipToken;
+    }
+
+    private static class HttpPipelineTransport implements Transport {
+        @Nonnull
+        @Override
+        public Connection open(@Nonnull String subscriptionId) {
+            final IAccount account = Azure.az(IAzureAccount.class).account();
+            final String endpoint = StringUtils.removeEnd(account.getEnvironment().getResourceManagerEndpoint(), "/");
+            final TokenCredential credential = account.getTokenCredential(subscriptionId);
+            final HttpPipeline pipeline = new HttpPipelineBuilder()
+                .httpClient(AbstractAzResourceManager.getDefaultHttpClient())
+                .policies(AbstractAzResourceManager.getUserAgentPolicy(Azure.az().config().getUserAgent()),
+                    new RetryPolicy(), new BearerTokenAuthenticationPolicy(credential, endpoint + "/.default"))
+                .build();
+            final String url = String.format("%s/providers/Microsoft.ResourceGraph/resources?api-version=%s", endpoint, API_VERSION);
+            return body -> {
+                final HttpRequest request = new HttpRequest(HttpMethod.POST, url).setHeader("Content-Type", "application/json").setBody(body);
+                try (final HttpResponse response = pipeline.send(request).block()) {
+                    if (Objects.isNull(response)) {
+                        throw new IOException("no response from Azure Resource Graph");
+                    }
+                    final String result = StringUtils.defaultString(response.getBodyAsString().block());
+                    if (response.getStatusCode() >= 400) {
+                        throw new IOException(String.format("Azure Resource Graph responded with status %d: %s", response.getStatusCode(), result));
+                    }
+                    return result;
+                }
+            };
+        }
+    }
+}
@@ -16,6 +16,8 @@ import javax.annotation.Nullable;
 import java.io.InterruptedIOException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 @Log
 public class AzureOperationContext {
@@ -27,12 +29,29 @@ public class AzureOperationContext {
     @Getter
     @Nullable
     protected AzureOperationContext parent;
+    /**
+     * context of the thread before this context is set up, restored when this context is disposed.
+     */
+    @Nullable
+    private AzureOperationContext previous;
+    /**
+     * whether this context is set up for a single run of a task wrapped by {@link #wrap(Runnable)}.
+     */
+    private final boolean forked;
 
     private AzureOperationContext(@Nullable final AzureOperationContext parent) {
         this.threadId = -1;
+        this.forked = false;
         this.setParent(parent);
     }
 
+    private AzureOperationContext(@Nonnull final AzureOperationContext parent, @Nullable final IAzureOperation<?> operation) {
+        this.threadId = -1;
+        this.forked = true;
+        this.parent = parent;
+        this.operation = operation;
+    }
+
     private synchronized void setParent(@Nullable AzureOperationContext parent) {
         if (!Objects.equals(this.parent, parent)) {
             this.parent = parent;
@@ -50,6 +69,15 @@ public class AzureOperationContext {
         return ctxNode;
     }
 
+    /**
+     * @return context of the current thread, null if there is none. unlike {@link #current()}, it never sets up a new
+     * (orphan) context for the thread.
+     */
+    @Nullable
+    public static AzureOperationContext peek() {
+        return AzureOperationContext.context.get();
+    }
+
     @Nullable
     public IAzureOperation<?> currentOperation() {
         return this.operation;
@@ -99,26 +127,92 @@ public class AzureOperationContext {
         return new AzureOperationContext(this);
     }
 
+    /**
+     * wrap the task so that it runs in a new context derived from the context where it's created (of the calling
+     * thread), no matter which thread it runs in and how many times it runs. exceptions of the task are propagated as
+     * is. the task is returned as is if the calling thread has no context, and tasks created in a wrapped task are
+     * parented to the context of the wrapped task, so that contexts don't chain up when tasks keep scheduling tasks.
+     */
+    @Nonnull
+    public static Runnable wrap(@Nonnull final Runnable task) {
+        final AzureOperationContext created = AzureOperationContext.peek();
+        if (Objects.isNull(created)) {
+            return task;
+        }
+        final AzureOperationContext parent = created.getOrigin();
+        final IAzureOperation<?> operation = created.operation; // the operation when the task is created
+        return () -> {
+            final AzureOperationContext context = new AzureOperationContext(parent, operation);
+            context.setup();
+            try {
+                task.run();
+            } finally {
+                context.dispose();
+            }
+        };
+    }
+
+    /**
+     * @see #wrap(Runnable)
+     */
+    @Nonnull
+    public static <T> Callable<T> wrap(@Nonnull final Callable<T> task) {
+        final AzureOperationContext created = AzureOperationContext.peek();
+        if (Objects.isNull(created)) {
+            return task;
+        }
+        final AzureOperationContext parent = created.getOrigin();
+        final IAzureOperation<?> operation = created.operation; // the operation when the task is created
+        return () -> {
+            final AzureOperationContext context = new AzureOperationContext(parent, operation);
+            context.setup();
+            try {
+                return task.call();
+            } finally {
+                context.dispose();
+            }
+        };
+    }
+
+    /**
+     * @return the nearest context that is not set up for a run of a wrapped task.
+     */
+    @Nonnull
+    private AzureOperationContext getOrigin() {
+        return this.forked && Objects.nonNull(this.parent) ? this.parent : this;
+    }
+
+    /**
+     * decorate the executor so that tasks submitted to it inherit the context of the submitting thread.
+     */
+    @Nonnull
+    public static Executor wrap(@Nonnull final Executor executor) {
+        return command -> executor.execute(wrap(command));
+    }
+
+    /**
+     * the context is bound to the running thread until {@link #dispose()}, the parent of this context is kept as is
+     * (rather than the context of the running thread), so that operations fanned out to other threads keep their
+     * lineage.
+     */
     private synchronized void setup() {
-        final AzureOperationContext current = AzureOperationContext.current();
         final long threadId = Thread.currentThread().getId();
-        assert current.threadId == -1 || current.threadId == threadId : String.format("[threadId:%s] illegal thread context[%s]", threadId, current);
+        assert this.previous == null : String.format("[threadId:%s] context[%s] is already set up in thread[%s]", threadId, this, this.threadId);
         this.threadId = threadId; // we can not decide in which thread this task will run until here.
-        if (current.threadId != -1) {
-            this.setParent(current);
-        }
+        this.previous = AzureOperationContext.context.get();
         AzureOperationContext.context.set(this);
     }
 
     private synchronized void dispose() {
-        final AzureOperationContext current = AzureOperationContext.current();
+        final AzureOperationContext current = AzureOperationContext.context.get();
         final long threadId = Thread.currentThread().getId();
         assert this == current && this.threadId == threadId : String.format("[threadId:%s] disposing context[%s] in context[%s].", threadId, this, current);
-        if (this.parent == null || this.threadId != this.parent.threadId) { // this is the root task of current thread.
+        if (Objects.isNull(this.previous)) { // this is the root task of current thread.
             AzureOperationContext.context.remove();
         } else { // this is not the root task of current thread.
-            AzureOperationContext.context.set(this.parent);
+            AzureOperationContext.context.set(this.previous);
         }
+        this.previous = null;
     }
 
     public String getId() {
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.task;
+
+import com.microsoft.azure.toolkit.lib.common.operation.AzureOperationContext;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * propagates {@link AzureOperationContext} to the tasks scheduled on Reactor schedulers (e.g. by {@code subscribeOn}
+ * and {@code publishOn}), the reactor counterpart of {@link AzureRxTaskManager}. tasks are wrapped by
+ * {@link AzureOperationContext#wrap(Runnable)} where they are scheduled, so they should not be wrapped again.
+ */
+public class AzureReactorTaskManager {
+    private static final String HOOK_KEY = "azure-operation-context";
+    private static boolean registered = false;
+
+    public static synchronized void register() {
+        if (registered) {
+            return;
+        }
+        registered = true;
+        Schedulers.onScheduleHook(HOOK_KEY, (Runnable task) -> AzureOperationContext.wrap(task));
+    }
+
+    public static synchronized void unregister() {
+        if (registered) {
+            Schedulers.resetOnScheduleHook(HOOK_KEY);
+            registered = false;
+        }
+    }
+}
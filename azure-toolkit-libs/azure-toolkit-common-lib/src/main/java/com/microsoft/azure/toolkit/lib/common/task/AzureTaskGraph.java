@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.task;
+
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * a small dependency graph of {@link AzureTask}s, each task starts as soon as all the tasks it depends on are done, so
+ * that independent tasks (e.g. creating app service plan and application insights) run concurrently. tasks can only
+ * depend on the tasks added before them, so the graph is always acyclic. time costs of the tasks are reported to the
+ * telemetry of the current action as {@link #TASK_COSTS}.
+ */
+@Slf4j
+public class AzureTaskGraph {
+    public static final String TASK_COSTS = "task-costs";
+    private final List<Node<?>> nodes = new ArrayList<>();
+
+    /**
+     * @param dependencies the tasks that must be done before this task starts, null elements are ignored.
+     */
+    @Nonnull
+    public synchronized <T> Node<T> add(@Nonnull AzureTask<T> task, @Nonnull Node<?>... dependencies) {
+        final List<Node<?>> deps = Arrays.stream(dependencies).filter(Objects::nonNull).collect(Collectors.toList());
+        deps.forEach(d -> {
+            if (!this.nodes.contains(d)) {
+                throw new IllegalArgumentException(String.format("dependency %s is not a task of this graph", d.getName()));
+            }
+        });
+        final Node<T> node = new Node<>(task, deps);
+        this.nodes.add(node);
+        return node;
+    }
+
+    @Nonnull
+    public synchronized List<Node<?>> getNodes() {
+        return Collections.unmodifiableList(new ArrayList<>(this.nodes));
+    }
+
+    /**
+     * run all tasks and wait until they are done. tasks depending on a failed task are not run, and the failure of the
+     * first failed task (in order of being added) is rethrown.
+     */
+    public void execute() throws Exception {
+        final List<Node<?>> nodes = this.getNodes();
+        for (final Node<?> node : nodes) {
+            node.start();
+        }
+        try {
+            CompletableFuture.allOf(nodes.stream().map(n -> n.future).toArray(CompletableFuture[]::new)).join();
+        } catch (final CompletionException e) {
+            // wait for the other tasks to be done, then report the first failure.
+            nodes.forEach(n -> n.future.handle((r, t) -> null).join());
+            for (final Node<?> node : nodes) {
+                if (node.future.isCompletedExceptionally() && Objects.nonNull(node.error)) {
+                    throw node.error instanceof Exception ? (Exception) node.error : new CompletionException(node.error);
+                }
+            }
+            throw e;
+        } finally {
+            final String costs = nodes.stream().filter(n -> n.getCost() >= 0)
+                .map(n -> String.format("%s=%dms", n.getName(), n.getCost())).collect(Collectors.joining(", "));
+            log.debug("time cost of tasks: {}", costs);
+            AzureTelemetry.getActionContext().setProperty(TASK_COSTS, costs);
+        }
+    }
+
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Node<T> {
+        @Getter
+        @Nonnull
+        private final AzureTask<T> task;
+        @Nonnull
+        private final List<Node<?>> dependencies;
+        private CompletableFuture<T> future;
+        @Nullable
+        private volatile Throwable error;
+        private volatile long startTime = -1;
+        private volatile long endTime = -1;
+
+        private void start() {
+            // the operation context is propagated to the scheduled tasks by AzureReactorTaskManager.
+            final Callable<T> body = this.task.getBody();
+            final CompletableFuture<?>[] deps = this.dependencies.stream().map(d -> d.future).toArray(CompletableFuture[]::new);
+            this.future = CompletableFuture.allOf(deps).thenApplyAsync(v -> {
+                this.startTime = System.currentTimeMillis();
+                try {
+                    return body.call();
+                } catch (final Throwable t) {
+                    this.error = t;
+                    throw t instanceof CompletionException ? (CompletionException) t : new CompletionException(t);
+                } finally {
+                    this.endTime = System.currentTimeMillis();
+                }
+            }, command -> Schedulers.boundedElastic().schedule(command));
+        }
+
+        /**
+         * @return result of the task, null if it's not done successfully (yet).
+         */
+        @Nullable
+        public T getResult() {
+            return Optional.ofNullable(this.future).filter(f -> f.isDone() && !f.isCompletedExceptionally()).map(CompletableFuture::join).orElse(null);
+        }
+
+        /**
+         * @return time cost of the task in milliseconds, -1 if it's not run.
+         */
+        public long getCost() {
+            return this.startTime < 0 || this.endTime < 0 ? -1 : this.endTime - this.startTime;
+        }
+
+        @Nonnull
+        public String getName() {
+            return Optional.ofNullable(this.task.getTitle()).map(AzureString::getString).orElseGet(this.task::getName);
+        }
+    }
+}
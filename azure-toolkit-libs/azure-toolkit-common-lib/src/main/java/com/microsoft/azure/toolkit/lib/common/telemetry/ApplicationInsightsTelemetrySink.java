@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.telemetry;
+
+import com.microsoft.applicationinsights.TelemetryClient;
+import lombok.Getter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * sends telemetry events to Application Insights, the default sink.
+ */
+public class ApplicationInsightsTelemetrySink implements AzureTelemetrySink {
+    @Getter
+    private final TelemetryClient client = new TelemetryClient();
+
+    @Override
+    public void send(@Nonnull String eventName, @Nonnull Map<String, String> properties, @Nullable Map<String, Double> metrics) {
+        client.trackEvent(eventName, properties, metrics);
+    }
+
+    @Override
+    public void flush() {
+        client.flush();
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.telemetry;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.microsoft.azure.toolkit.lib.common.operation.AzureOperationContext;
+import com.microsoft.azure.toolkit.lib.common.operation.IAzureOperation;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * in-memory timing spans of the operations ({@link IAzureOperation}) executed in this process, recorded from
+ * {@link AzureTelemeter#beforeEnter(IAzureOperation)} to {@link AzureTelemeter#afterExit(IAzureOperation)}. spans are
+ * aggregated by operation name for reports, and the latest {@link #MAX_SPANS} spans are kept for exporting as
+ * Chrome trace events or OTLP JSON.
+ */
+public class AzureOperationSpans {
+    public static final int MAX_SPANS = 10000;
+    private static final long BASE_NANOS = System.nanoTime();
+    private static final long BASE_EPOCH_NANOS = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+
+    private static final Map<IAzureOperation<?>, Span> active = Collections.synchronizedMap(new IdentityHashMap<>());
+    private static final Queue<Span> finished = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger finishedCount = new AtomicInteger();
+    private static final Map<String, Summary> summaries = new ConcurrentHashMap<>();
+    private static final AtomicLong spanIds = new AtomicLong();
+    private static final LongAdder requests = new LongAdder();
+    private static volatile String traceId = newTraceId();
+
+    static void start(@Nonnull final IAzureOperation<?> op) {
+        // the operation is not pushed into the context yet, so the current operation is its parent.
+        final IAzureOperation<?> parentOp = Optional.<IAzureOperation<?>>ofNullable(op.getParent()).orElseGet(IAzureOperation::current);
+        final Span parent = Optional.ofNullable(parentOp).map(active::get).orElse(null);
+        final Thread thread = Thread.currentThread();
+        active.put(op, new Span(spanIds.incrementAndGet(), op.getName(), op.getType(), parent, thread.getId(), thread.getName(), System.nanoTime()));
+    }
+
+    static void end(@Nonnull final IAzureOperation<?> op, boolean failed) {
+        final Span span = active.remove(op);
+        if (Objects.isNull(span)) {
+            return;
+        }
+        span.endNanos = System.nanoTime();
+        span.failed = failed;
+        final long total = span.getTotalNanos();
+        Optional.ofNullable(span.parent).ifPresent(p -> p.childrenNanos.addAndGet(total));
+        summaries.computeIfAbsent(span.name, Summary::new).add(span);
+        finished.offer(span);
+        if (finishedCount.incrementAndGet() > MAX_SPANS && Objects.nonNull(finished.poll())) {
+            finishedCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * count an ARM request into the operation running on current thread. NOTE: the operation context is thread local,
+     * requests are attributed to an operation only if they are sent from a thread carrying its context, i.e. the calling
+     * thread of synchronous SDK calls and tasks wrapped by {@link AzureOperationContext}. requests sent from other
+     * threads (e.g. netty event loops fetching next pages, or retries/polls scheduled by the SDK) are only counted in
+     * {@link #getRequestCount()}.
+     */
+    public static void recordRequest() {
+        requests.increment();
+        Optional.ofNullable(AzureOperationContext.peek()).map(AzureOperationContext::currentOperation).map(active::get)
+            .ifPresent(s -> s.requests.incrementAndGet());
+    }
+
+    /**
+     * @return count of all ARM requests, including those sent outside of any operation.
+     */
+    public static long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * @return aggregated spans by operation name, the slowest (by total time) first.
+     */
+    @Nonnull
+    public static List<Summary> getSummaries(int limit) {
+        return summaries.values().stream()
+            .sorted(Comparator.comparingLong(Summary::getTotalNanos).reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    @Nonnull
+    public static List<Span> getSpans() {
+        return new ArrayList<>(finished);
+    }
+
+    public static void reset() {
+        finished.clear();
+        finishedCount.set(0);
+        summaries.clear();
+        requests.reset();
+        traceId = newTraceId();
+    }
+
+    /**
+     * @return spans in <a href="https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU">
+     * Chrome trace event format</a>, which can be loaded in chrome://tracing or https://ui.perfetto.dev.
+     */
+    @Nonnull
+    public static JsonObject toChromeTrace() {
+        final JsonArray events = new JsonArray();
+        for (final Span span : getSpans()) {
+            final JsonObject event = new JsonObject();
+            event.addProperty("name", span.name);
+            event.addProperty("cat", span.type);
+            event.addProperty("ph", "X");
+            event.addProperty("ts", TimeUnit.NANOSECONDS.toMicros(span.getStartEpochNanos()));
+            event.addProperty("dur", TimeUnit.NANOSECONDS.toMicros(span.getTotalNanos()));
+            event.addProperty("pid", 1);
+            event.addProperty("tid", span.threadId);
+            final JsonObject args = new JsonObject();
+            args.addProperty("thread", span.threadName);
+            args.addProperty("requests", span.requests.get());
+            args.addProperty("error", span.failed);
+            event.add("args", args);
+            events.add(event);
+        }
+        final JsonObject result = new JsonObject();
+        result.add("traceEvents", events);
+        result.addProperty("displayTimeUnit", "ms");
+        return result;
+    }
+
+    /**
+     * @return spans in the JSON encoding of OTLP {@code ExportTraceServiceRequest}.
+     */
+    @Nonnull
+    public static JsonObject toOtlp() {
+        final JsonArray spans = new JsonArray();
+        for (final Span span : getSpans()) {
+            final JsonObject json = new JsonObject();
+            json.addProperty("traceId", traceId);
+            json.addProperty("spanId", span.getSpanId());
+            Optional.ofNullable(span.parent).ifPresent(p -> json.addProperty("parentSpanId", p.getSpanId()));
+            json.addProperty("name", span.name);
+            json.addProperty("kind", 1); // SPAN_KIND_INTERNAL
+            json.addProperty("startTimeUnixNano", String.valueOf(span.getStartEpochNanos()));
+            json.addProperty("endTimeUnixNano", String.valueOf(span.getStartEpochNanos() + span.getTotalNanos()));
+            final JsonArray attributes = new JsonArray();
+            attributes.add(attribute("operation.type", span.type));
+            attributes.add(attribute("thread.name", span.threadName));
+            attributes.add(attribute("arm.requests", String.valueOf(span.requests.get())));
+            json.add("attributes", attributes);
+            final JsonObject status = new JsonObject();
+            status.addProperty("code", span.failed ? 2 : 1); // STATUS_CODE_ERROR : STATUS_CODE_OK
+            json.add("status", status);
+            spans.add(json);
+        }
+        final JsonObject scope = new JsonObject();
+        scope.addProperty("name", "azure-toolkit");
+        final JsonObject scopeSpans = new JsonObject();
+        scopeSpans.add("scope", scope);
+        scopeSpans.add("spans", spans);
+        final JsonArray scopeSpansArray = new JsonArray();
+        scopeSpansArray.add(scopeSpans);
+        final JsonObject resource = new JsonObject();
+        final JsonArray resourceAttributes = new JsonArray();
+        resourceAttributes.add(attribute("service.name", "azure-toolkit"));
+        resource.add("attributes", resourceAttributes);
+        final JsonObject resourceSpans = new JsonObject();
+        resourceSpans.add("resource", resource);
+        resourceSpans.add("scopeSpans", scopeSpansArray);
+        final JsonArray resourceSpansArray = new JsonArray();
+        resourceSpansArray.add(resourceSpans);
+        final JsonObject result = new JsonObject();
+        result.add("resourceSpans", resourceSpansArray);
+        return result;
+    }
+
+    @Nonnull
+    private static JsonObject attribute(@Nonnull String key, @Nullable String value) {
+        final JsonObject stringValue = new JsonObject();
+        stringValue.addProperty("stringValue", value);
+        final JsonObject attribute = new JsonObject();
+        attribute.addProperty("key", key);
+        attribute.add("value", stringValue);
+        return attribute;
+    }
+
+    @Nonnull
+    private static String newTraceId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Span {
+        @Getter(AccessLevel.NONE)
+        private final long id;
+        private final String name;
+        private final String type;
+        @Nullable
+        private final Span parent;
+        private final long threadId;
+        private final String threadName;
+        private final long startNanos;
+        private volatile long endNanos = -1;
+        private volatile boolean failed;
+        @Getter(AccessLevel.NONE)
+        private final AtomicInteger requests = new AtomicInteger();
+        @Getter(AccessLevel.NONE)
+        private final AtomicLong childrenNanos = new AtomicLong();
+
+        @Nonnull
+        public String getSpanId() {
+            return String.format("%016x", this.id);
+        }
+
+        public long getStartEpochNanos() {
+            return BASE_EPOCH_NANOS + (this.startNanos - BASE_NANOS);
+        }
+
+        public long getTotalNanos() {
+            return this.endNanos < 0 ? 0 : this.endNanos - this.startNanos;
+        }
+
+        /**
+         * @return time not spent in child operations, children running in parallel may make it 0.
+         */
+        public long getSelfNanos() {
+            return Math.max(0, this.getTotalNanos() - this.childrenNanos.get());
+        }
+
+        public int getRequestCount() {
+            return this.requests.get();
+        }
+    }
+
+    @RequiredArgsConstructor
+    public static class Summary {
+        @Getter
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder selfNanos = new LongAdder();
+        private final LongAdder requests = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void add(@Nonnull Span span) {
+            this.count.increment();
+            if (span.failed) {
+                this.errors.increment();
+            }
+            this.totalNanos.add(span.getTotalNanos());
+            this.selfNanos.add(span.getSelfNanos());
+            this.requests.add(span.getRequestCount());
+            this.maxNanos.accumulateAndGet(span.getTotalNanos(), Math::max);
+        }
+
+        public long getCount() {
+            return this.count.sum();
+        }
+
+        public long getErrorCount() {
+            return this.errors.sum();
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos.sum();
+        }
+
+        public long getSelfNanos() {
+            return this.selfNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return this.maxNanos.get();
+        }
+
+        public long getRequestCount() {
+            return this.requests.sum();
+        }
+    }
+}
@@ -22,7 +22,6 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 
 public class AzureTelemeter {
@@ -64,33 +63,33 @@ public class AzureTelemeter {
     public static void beforeEnter(@Nonnull final IAzureOperation<?> op) {
         final AzureTelemetry.Context context = AzureTelemetry.getContext(op);
         context.setEnterAt(Instant.now());
+        AzureOperationSpans.start(op);
     }
 
     public static void afterExit(@Nonnull final IAzureOperation<?> op) {
         final AzureTelemetry.Context context = AzureTelemetry.getContext(op);
         context.setExitAt(Instant.now());
+        AzureOperationSpans.end(op, false);
         AzureTelemeter.log(AzureTelemetry.Type.INFO, serialize(op));
     }
 
     public static void onError(@Nonnull final IAzureOperation<?> op, Throwable error) {
         final AzureTelemetry.Context context = AzureTelemetry.getContext(op);
         context.setExitAt(Instant.now());
+        AzureOperationSpans.end(op, true);
         AzureTelemeter.log(AzureTelemetry.Type.ERROR, serialize(op), error);
     }
 
     public static void log(final AzureTelemetry.Type type, final Map<String, String> properties, final Throwable e) {
-        if (Objects.nonNull(e)) {
-            properties.putAll(serialize(e));
+        if (client != null) {
+            // common properties are merged and the error is serialized by the client off the caller thread.
+            final String eventName = Optional.ofNullable(getEventNamePrefix()).orElse("AzurePlugin") + "/" + type.name();
+            client.trackEvent(eventName, properties, null, false, e);
         }
-        AzureTelemeter.log(type, properties);
     }
 
     public static void log(final AzureTelemetry.Type type, final Map<String, String> properties) {
-        if (client != null) {
-            properties.putAll(Optional.ofNullable(getCommonProperties()).orElse(new HashMap<>()));
-            final String eventName = Optional.ofNullable(getEventNamePrefix()).orElse("AzurePlugin") + "/" + type.name();
-            client.trackEvent(eventName, properties, null);
-        }
+        AzureTelemeter.log(type, properties, null);
     }
 
     @Nonnull
@@ -154,7 +153,7 @@ public class AzureTelemeter {
     }
 
     @Nonnull
-    private static HashMap<String, String> serialize(@Nonnull Throwable e) {
+    static HashMap<String, String> serialize(@Nonnull Throwable e) {
         final HashMap<String, String> properties = new HashMap<>();
         final ErrorType type = ErrorType.userError; // TODO: (@wangmi & @Hanxiao.Liu)decide error type based on the type of ex.
         properties.put(ERROR_CLASSNAME, e.getClass().getName());
@@ -5,22 +5,52 @@
 
 package com.microsoft.azure.toolkit.lib.common.telemetry;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.microsoft.applicationinsights.TelemetryClient;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 
 import static com.microsoft.azure.toolkit.lib.common.action.Action.RESOURCE_TYPE;
 
+/**
+ * events are queued in a bounded lock-free queue and sent to the {@link AzureTelemetrySink} in batches by a background
+ * thread, identical pending events are coalesced into one with a {@code count} metric, and the new events are dropped
+ * when the queue is full. anonymization and serialization of errors also happen on the background thread.
+ * see {@link AzureConfiguration#getTelemetryQueueCapacity()} and {@link AzureConfiguration#getTelemetrySinkFile()}.
+ */
+@Slf4j
 @Getter
 public class AzureTelemetryClient {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final String COUNT = "count";
+    private static final long BATCH_DELAY_MILLIS = 500;
+    private static final ScheduledExecutorService batcher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("azure-toolkit-telemetry-%d").setDaemon(true).build());
     private static final String[] SYSTEM_PROPERTIES = new String[]{RESOURCE_TYPE};
     // refers https://github.com/microsoft/vscode-extension-telemetry/blob/main/src/telemetryReporter.ts
     private static final String FILE_PATH_REGEX =
@@ -34,20 +64,54 @@ public class AzureTelemetryClient {
             "(?:[\\x01-\\x08\\x0b\\x0c\\x0e-\\x1f\\x21-\\x5a\\x53-\\x7f]|\\\\[\\x01-\\x09\\x0b\\x0c\\x0e-\\x7f])+)])";
     private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
 
-    private final TelemetryClient client;
+    @Setter
+    @Nonnull
+    private AzureTelemetrySink sink;
     @Setter
     private Map<String, String> defaultProperties;
     private boolean isEnabled = true;     // Telemetry is enabled by default.
 
+    /**
+     * pending events in emitting order, the events themselves are kept in {@link #pending} for coalescing.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Queue<EventKey> queue = new ConcurrentLinkedQueue<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<EventKey, PendingEvent> pending = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong dropped = new AtomicLong();
+
     public AzureTelemetryClient() {
         this(Collections.emptyMap());
     }
 
     public AzureTelemetryClient(@Nonnull final Map<String, String> defaultProperties) {
-        this.client = new TelemetryClient();
+        this(defaultProperties, createDefaultSink());
+    }
+
+    public AzureTelemetryClient(@Nonnull final Map<String, String> defaultProperties, @Nonnull final AzureTelemetrySink sink) {
+        this.sink = sink;
         this.defaultProperties = new HashMap<>(defaultProperties);
     }
 
+    @Nonnull
+    private static AzureTelemetrySink createDefaultSink() {
+        final String file = Azure.az().config().getTelemetrySinkFile();
+        return StringUtils.isBlank(file) ? new ApplicationInsightsTelemetrySink() : new FileTelemetrySink(Paths.get(file));
+    }
+
+    /**
+     * @return the Application Insights client which events are sent through, null if events go to another sink.
+     * @deprecated events are sent in batches through {@link #getSink()}, use {@link #trackEvent} and {@link #flush()}.
+     */
+    @Nullable
+    @Deprecated
+    public TelemetryClient getClient() {
+        return this.sink instanceof ApplicationInsightsTelemetrySink ? ((ApplicationInsightsTelemetrySink) this.sink).getClient() : null;
+    }
+
     public void addDefaultProperty(@Nonnull String key, @Nonnull String value) {
         if (StringUtils.isEmpty(key)) {
             return;
@@ -77,15 +141,96 @@ public class AzureTelemetryClient {
 
     public void trackEvent(@Nonnull final String eventName, @Nullable final Map<String, String> customProperties, @Nullable final Map<String, Double> metrics,
                            final boolean overrideDefaultProperties) {
+        trackEvent(eventName, customProperties, metrics, overrideDefaultProperties, null);
+    }
+
+    /**
+     * @param error serialized into the properties on the telemetry thread, see {@link AzureTelemeter#serialize(Throwable)}
+     */
+    public void trackEvent(@Nonnull final String eventName, @Nullable final Map<String, String> customProperties, @Nullable final Map<String, Double> metrics,
+                           final boolean overrideDefaultProperties, @Nullable final Throwable error) {
         if (!isEnabled()) {
             return;
         }
+        // merge on the caller thread, since default properties may be changed afterwards.
+        final Map<String, String> properties = new HashMap<>(mergeProperties(getDefaultProperties(), customProperties, overrideDefaultProperties));
+        final EventKey key = new EventKey(eventName, properties, metrics, error);
+        final AzureConfiguration config = Azure.az().config();
+        final int capacity = config.getTelemetryQueueCapacity() > 0 ? config.getTelemetryQueueCapacity() : DEFAULT_QUEUE_CAPACITY;
+        if (!pending.containsKey(key) && pending.size() >= capacity) {
+            dropped.incrementAndGet(); // drop the new event if the queue is full
+            return;
+        }
+        final boolean[] added = new boolean[1];
+        pending.compute(key, (k, event) -> {
+            if (Objects.isNull(event)) {
+                added[0] = true;
+                return new PendingEvent(k);
+            }
+            event.count.incrementAndGet();
+            return event;
+        });
+        if (added[0]) {
+            queue.offer(key);
+        }
+        if (scheduled.compareAndSet(false, true)) {
+            batcher.schedule(this::sendBatch, BATCH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * send all pending events synchronously, e.g. before the process exits.
+     */
+    public void flush() {
+        sendBatch();
+    }
+
+    /**
+     * @return count of events dropped because the queue is full.
+     */
+    public long getDroppedEventCount() {
+        return dropped.get();
+    }
+
+    private synchronized void sendBatch() {
+        scheduled.set(false);
+        int sent = 0;
+        for (EventKey key = queue.poll(); key != null; key = queue.poll()) {
+            final PendingEvent event = pending.remove(key);
+            if (Objects.isNull(event)) {
+                continue;
+            }
+            try {
+                send(event);
+                sent++;
+            } catch (final Throwable t) {
+                log.debug("failed to send telemetry event {}", key.name, t);
+            }
+        }
+        if (sent > 0) {
+            try {
+                sink.flush();
+            } catch (final Throwable t) {
+                log.debug("failed to flush telemetry events", t);
+            }
+        }
+    }
 
-        final Map<String, String> properties = mergeProperties(getDefaultProperties(), customProperties, overrideDefaultProperties);
+    private void send(@Nonnull final PendingEvent event) {
+        final EventKey key = event.key;
+        final Map<String, String> properties = new HashMap<>(key.properties);
+        if (Objects.nonNull(key.error)) {
+            properties.putAll(AzureTelemeter.serialize(key.error));
+        }
         properties.entrySet().removeIf(stringStringEntry -> StringUtils.isEmpty(stringStringEntry.getValue())); // filter out null values
         anonymizePersonallyIdentifiableInformation(properties);
-        client.trackEvent(eventName, properties, metrics);
-        client.flush();
+        Map<String, Double> metrics = key.metrics;
+        final int count = event.count.get();
+        if (count > 1) {
+            metrics = Objects.isNull(metrics) ? new HashMap<>() : new HashMap<>(metrics);
+            metrics.put(COUNT, (double) count);
+        }
+        sink.send(key.name, properties, metrics);
     }
 
     protected Map<String, String> mergeProperties(Map<String, String> defaultProperties,
@@ -114,4 +259,23 @@ public class AzureTelemetryClient {
             return EMAIL_PATTERN.matcher(input).replaceAll("<REDACTED: user-email-address>");
         });
     }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class EventKey {
+        @Nonnull
+        private final String name;
+        @Nonnull
+        private final Map<String, String> properties;
+        @Nullable
+        private final Map<String, Double> metrics;
+        @Nullable
+        private final Throwable error;
+    }
+
+    @RequiredArgsConstructor
+    private static class PendingEvent {
+        private final EventKey key;
+        private final AtomicInteger count = new AtomicInteger(1);
+    }
 }
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.telemetry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * destination of the telemetry events batched by {@link AzureTelemetryClient}, events are always sent from the
+ * telemetry thread or from {@link AzureTelemetryClient#flush()}.
+ */
+public interface AzureTelemetrySink {
+    void send(@Nonnull String eventName, @Nonnull Map<String, String> properties, @Nullable Map<String, Double> metrics);
+
+    /**
+     * called after each batch of events is sent.
+     */
+    default void flush() {
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.telemetry;
+
+import com.google.gson.Gson;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * appends telemetry events to a local file as JSON lines instead of sending them over network, e.g. for air-gapped
+ * environments and tests. see {@link com.microsoft.azure.toolkit.lib.AzureConfiguration#getTelemetrySinkFile()}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FileTelemetrySink implements AzureTelemetrySink {
+    private static final Gson GSON = new Gson();
+    @Getter
+    @Nonnull
+    private final Path file;
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    @Override
+    public synchronized void send(@Nonnull String eventName, @Nonnull Map<String, String> properties, @Nullable Map<String, Double> metrics) {
+        buffer.append(GSON.toJson(new Event(eventName, Instant.now().toString(), properties, metrics))).append(System.lineSeparator());
+    }
+
+    /**
+     * append the buffered events of the batch to the file.
+     */
+    @Override
+    public synchronized void flush() {
+        if (buffer.length() == 0) {
+            return;
+        }
+        try {
+            if (this.file.getParent() != null) {
+                Files.createDirectories(this.file.getParent());
+            }
+            try (final Writer writer = Files.newBufferedWriter(this.file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(buffer.toString());
+            }
+        } catch (final IOException e) {
+            log.debug("failed to write telemetry events to {}", this.file, e);
+        } finally {
+            buffer.setLength(0);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Event {
+        private final String name;
+        private final String time;
+        private final Map<String, String> properties;
+        private final Map<String, Double> metrics;
+    }
+}
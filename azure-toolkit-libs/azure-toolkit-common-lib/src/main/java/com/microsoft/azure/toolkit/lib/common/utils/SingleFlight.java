@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * coalesce concurrent calls with the same key: only the first caller runs the call, others wait for and share its
+ * result (or exception). NOTE: a call must not (directly or indirectly) wait for another call with the same key.
+ * a caller joining an ongoing call may get a result computed before its own changes, call {@link #forget(Object)} after
+ * the changes if later callers must not share the ongoing call.
+ */
+public class SingleFlight<K> {
+    private final Map<K, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+
+    public <V> V execute(@Nonnull K key, @Nonnull Supplier<V> call) {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        final CompletableFuture<Object> ongoing = this.calls.putIfAbsent(key, future);
+        if (Objects.nonNull(ongoing)) {
+            return this.join(ongoing);
+        }
+        try {
+            final V result = call.get();
+            future.complete(result);
+            return result;
+        } catch (final Throwable t) {
+            future.completeExceptionally(t);
+            throw t;
+        } finally {
+            this.calls.remove(key, future);
+        }
+    }
+
+    public void execute(@Nonnull K key, @Nonnull Runnable call) {
+        this.execute(key, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * detach the ongoing call (if any) of the key, so that later callers start a new call instead of joining it. callers
+     * already waiting for the ongoing call still share its result.
+     */
+    public void forget(@Nonnull K key) {
+        this.calls.remove(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V join(@Nonnull CompletableFuture<Object> ongoing) {
+        try {
+            return (V) ongoing.join();
+        } catch (final CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new AzureToolkitRuntimeException(cause);
+        }
+    }
+}
@@ -5,17 +5,26 @@
 
 package com.microsoft.azure.toolkit.lib.common.utils;
 
-import rx.Observable;
-import rx.Subscription;
-import rx.schedulers.Schedulers;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import reactor.core.scheduler.Schedulers;
 
-import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * all debouncers share one timer thread, and each pending debouncer has at most one timer task: calls during the delay
+ * only push the deadline forward, and the timer task reschedules itself until the deadline is reached. the debounced
+ * task runs on {@link Schedulers#boundedElastic()} rather than the timer thread.
+ */
 public class TailingDebouncer implements Debouncer {
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("azure-toolkit-debouncer-%d").setDaemon(true).build());
     private final Runnable debounced;
     private final int delay;
-    private Subscription timer;
+    private final AtomicBoolean pending = new AtomicBoolean(false);
+    private volatile long deadline;
 
     public TailingDebouncer(final Runnable debounced, final int delayInMillis) {
         this.debounced = debounced;
@@ -23,23 +32,24 @@ public class TailingDebouncer implements Debouncer {
     }
 
     @Override
-    public synchronized void debounce() {
-        if (this.isPending()) {
-            this.timer.unsubscribe();
+    public void debounce() {
+        this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.delay);
+        if (this.pending.compareAndSet(false, true)) {
+            timer.schedule(this::onTimeout, this.delay, TimeUnit.MILLISECONDS);
         }
-        this.timer = Observable.timer(this.delay, TimeUnit.MILLISECONDS)
-                .subscribeOn(Schedulers.io())
-                .subscribe(ignore -> {
-                    this.debounced.run();
-                    this.clearTimer();
-                }, (e) -> this.clearTimer());
     }
 
-    public synchronized boolean isPending() {
-        return Objects.nonNull(this.timer) && !this.timer.isUnsubscribed();
+    public boolean isPending() {
+        return this.pending.get();
     }
 
-    private synchronized void clearTimer() {
-        this.timer = null;
+    private void onTimeout() {
+        final long remaining = this.deadline - System.nanoTime();
+        if (remaining > 0) { // debounced again during the delay
+            timer.schedule(this::onTimeout, remaining, TimeUnit.NANOSECONDS);
+            return;
+        }
+        this.pending.set(false);
+        Schedulers.boundedElastic().schedule(this.debounced);
     }
 }
@@ -6,28 +6,44 @@
 package com.microsoft.azure.toolkit.lib.common.utils.aspect;
 
 import com.azure.resourcemanager.resources.fluentcore.arm.ResourceUtils;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import groovy.text.SimpleTemplateEngine;
 import groovy.text.Template;
 import lombok.extern.java.Log;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.Triple;
 import org.codehaus.groovy.runtime.MethodClosure;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.lang.reflect.Parameter;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 
+/**
+ * groovy templates are compiled once and cached by their source, only the bindings are evaluated per invocation.
+ */
 @Log
 public class ExpressionUtils {
     private static final ImmutableMap<String, Boolean> valueMap = ImmutableMap.of("true", true, "false", false);
     private static final SimpleTemplateEngine engine = new SimpleTemplateEngine();
     private static final String INVALID_TEMPLATE = "error occurs when evaluate template(%s) with bindings(%s)";
+    private static final String INVALID_TEMPLATE_SOURCE = "error occurs when compile template(%s)";
+    private static final int MAX_TEMPLATES = 2048;
+    private static final MethodClosure nameFromResourceId = new MethodClosure(ResourceUtils.class, "nameFromResourceId");
+    /**
+     * compiled templates keyed by template source, {@link Optional#empty()} if the template is invalid.
+     */
+    private static final LoadingCache<String, Optional<Template>> templates = CacheBuilder.newBuilder()
+        .maximumSize(MAX_TEMPLATES).build(CacheLoader.from(ExpressionUtils::compile));
+    /**
+     * compiled templates keyed by expression, to avoid wrapping the expression as `${expression}` on every call.
+     */
+    private static final LoadingCache<String, Optional<Template>> expressions = CacheBuilder.newBuilder()
+        .maximumSize(MAX_TEMPLATES).build(CacheLoader.from((String e) -> compile(String.format("${%s}", e))));
 
     public static boolean evaluate(@Nonnull final String expression, @Nonnull final MethodInvocation invocation, boolean defaultVal) {
         final String result = interpret(expression, invocation);
@@ -35,37 +51,52 @@ public class ExpressionUtils {
     }
 
     public static String interpret(@Nonnull final String expression, @Nonnull final MethodInvocation invocation) {
-        return render(String.format("${%s}", expression), invocation);
+        return expressions.getUnchecked(expression).map(tpl -> render(tpl, invocation, expression))
+            .orElseGet(() -> String.format("${%s}", expression));
     }
 
     public static String render(@Nullable final String template, @Nonnull final MethodInvocation invocation) {
         if (StringUtils.isBlank(template) || !template.contains("$")) { // no groovy expression, just return
             return template;
         }
+        return templates.getUnchecked(template).map(tpl -> render(tpl, invocation, template)).orElse(template);
+    }
+
+    /**
+     * @return null if error occurs during evaluating.
+     */
+    @Nullable
+    private static String render(@Nonnull final Template tpl, @Nonnull final MethodInvocation invocation, @Nonnull final String template) {
         final Map<String, Object> bindings = initBindings(invocation);
-        final String fixed = template.replaceAll("(\\W)this(\\.)", "$1_this_$2"); // resolve `this`
         try {
-            final Template tpl = engine.createTemplate(fixed);
             return tpl.make(bindings).toString();
         } catch (final Throwable e) { // swallow all exceptions during render
             log.log(Level.SEVERE, String.format(INVALID_TEMPLATE, template, bindings), e);
         }
-        return template;
+        return null;
     }
 
     @Nonnull
-    private static Map<String, Object> initBindings(@Nonnull final MethodInvocation invocation) {
-        final List<Triple<String, Parameter, Object>> args = invocation.getArgs();
-        final Map<String, Object> bindings = new HashMap<>();
-        for (Triple<String, Parameter, Object> arg : args) {
-            bindings.put(arg.getLeft(), arg.getRight());
+    private static Optional<Template> compile(@Nonnull final String template) {
+        final String fixed = template.replaceAll("(\\W)this(\\.)", "$1_this_$2"); // resolve `this`
+        try {
+            return Optional.of(engine.createTemplate(fixed));
+        } catch (final Throwable e) { // swallow all exceptions during compile, the invalid template is kept as is.
+            log.log(Level.SEVERE, String.format(INVALID_TEMPLATE_SOURCE, template), e);
         }
+        return Optional.empty();
+    }
+
+    @Nonnull
+    private static Map<String, Object> initBindings(@Nonnull final MethodInvocation invocation) {
+        final Map<String, Object> bindings = new HashMap<>(invocation.getArgCount() * 2 + 4);
+        invocation.bindArgs(bindings);
         bindings.put("_this_", invocation.getInstance());
         bindPredefinedFunctions(bindings);
         return bindings;
     }
 
     private static void bindPredefinedFunctions(@Nonnull Map<String, Object> bindings) {
-        bindings.put("nameFromResourceId", new MethodClosure(ResourceUtils.class, "nameFromResourceId"));
+        bindings.put("nameFromResourceId", nameFromResourceId);
     }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils.aspect;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * immutable reflection metadata (parameter names, parameters and annotations) of an advised method, resolved once
+ * per method and shared by all invocations of it.
+ */
+@Getter
+public final class MethodDescriptor {
+    private static final Map<Method, MethodDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    @Nonnull
+    private final Method method;
+    @Getter(AccessLevel.PACKAGE)
+    private final String[] parameterNames;
+    @Getter(AccessLevel.PACKAGE)
+    private final Parameter[] parameters;
+    @Getter(AccessLevel.NONE)
+    private final Map<Class<? extends Annotation>, Annotation> annotations = new HashMap<>();
+
+    private MethodDescriptor(@Nonnull final MethodSignature signature) {
+        this.method = signature.getMethod();
+        this.parameters = this.method.getParameters();
+        final String[] names = signature.getParameterNames();
+        this.parameterNames = names != null && names.length == this.parameters.length ? names :
+            Arrays.stream(this.parameters).map(Parameter::getName).toArray(String[]::new);
+        for (final Annotation annotation : this.method.getAnnotations()) {
+            this.annotations.put(annotation.annotationType(), annotation);
+        }
+    }
+
+    @Nullable
+    public <T extends Annotation> T getAnnotation(@Nonnull final Class<T> type) {
+        return type.cast(this.annotations.get(type));
+    }
+
+    @Nonnull
+    public static MethodDescriptor of(@Nonnull final MethodSignature signature) {
+        return descriptors.computeIfAbsent(signature.getMethod(), m -> new MethodDescriptor(signature));
+    }
+}
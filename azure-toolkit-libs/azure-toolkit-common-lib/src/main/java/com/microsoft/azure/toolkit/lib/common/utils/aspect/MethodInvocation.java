@@ -20,6 +20,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class MethodInvocation {
@@ -27,13 +28,14 @@ public class MethodInvocation {
     @EqualsAndHashCode.Include
     protected final Method method;
     private final JoinPoint point;
-    private final MethodSignature signature;
+    @Getter
+    private final MethodDescriptor descriptor;
 
     @Builder
     MethodInvocation(JoinPoint point) {
         this.point = point;
-        this.signature = (MethodSignature) this.point.getSignature();
-        this.method = signature.getMethod();
+        this.descriptor = MethodDescriptor.of((MethodSignature) this.point.getSignature());
+        this.method = this.descriptor.getMethod();
     }
 
     public Object invoke() throws Exception {
@@ -54,18 +56,33 @@ public class MethodInvocation {
     }
 
     public List<Triple<String, Parameter, Object>> getArgs() {
-        final List<Triple<String, Parameter, Object>> result = new ArrayList<>();
-        final String[] names = this.signature.getParameterNames();
-        final Parameter[] params = this.method.getParameters();
+        final String[] names = this.descriptor.getParameterNames();
+        final Parameter[] params = this.descriptor.getParameters();
         final Object[] values = this.point.getArgs();
+        final List<Triple<String, Parameter, Object>> result = new ArrayList<>(params.length);
         for (int i = 0; i < params.length; i++) {
             result.add(Triple.of(names[i], params[i], values[i]));
         }
         return result;
     }
 
+    /**
+     * put the arguments into {@code bindings} by parameter names, without copying metadata of the parameters.
+     */
+    void bindArgs(@Nonnull final Map<String, Object> bindings) {
+        final String[] names = this.descriptor.getParameterNames();
+        final Object[] values = this.point.getArgs();
+        for (int i = 0; i < names.length; i++) {
+            bindings.put(names[i], values[i]);
+        }
+    }
+
+    int getArgCount() {
+        return this.descriptor.getParameterNames().length;
+    }
+
     public <T extends Annotation> T getAnnotation(Class<T> annotation) {
-        return this.method.getAnnotation(annotation);
+        return this.descriptor.getAnnotation(annotation);
     }
 
     public static MethodInvocation from(@Nonnull final JoinPoint point) {
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib;
+
+import com.azure.core.management.AzureEnvironment;
+import com.microsoft.azure.toolkit.lib.account.IAccount;
+import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
+import com.microsoft.azure.toolkit.lib.common.model.Region;
+import com.microsoft.azure.toolkit.lib.common.model.Subscription;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * signed-in account for tests, registered through META-INF/services.
+ */
+public class TestAzureAccount implements IAzureAccount {
+    public static final String SUBSCRIPTION_ID = "00000000-0000-0000-0000-000000000000";
+    public static final String TENANT_ID = "11111111-1111-1111-1111-111111111111";
+    private static final IAccount ACCOUNT = Mockito.mock(IAccount.class);
+
+    static {
+        final List<Subscription> subscriptions = Collections.singletonList(new Subscription(SUBSCRIPTION_ID, "test", TENANT_ID, true));
+        Mockito.when(ACCOUNT.getEnvironment()).thenReturn(AzureEnvironment.AZURE);
+        Mockito.when(ACCOUNT.getSelectedSubscriptions()).thenReturn(subscriptions);
+        Mockito.when(ACCOUNT.getSubscriptions()).thenReturn(subscriptions);
+    }
+
+    @Override
+    public IAccount account() {
+        return ACCOUNT;
+    }
+
+    @Override
+    public List<Region> listRegions(String subscriptionId) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String getName() {
+        return "Microsoft.Test.Account";
+    }
+
+    @Override
+    public void refresh() {
+    }
+}
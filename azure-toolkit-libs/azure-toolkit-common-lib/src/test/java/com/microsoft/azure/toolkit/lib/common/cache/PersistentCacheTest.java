@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import com.microsoft.azure.toolkit.lib.Azure;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        Azure.az().config().setPersistentCacheDir(folder.getRoot().getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() {
+        Azure.az().config().setPersistentCacheDir(null);
+    }
+
+    @Test
+    public void readWrite() {
+        PersistentCache.write("cache", "key", Arrays.asList("a", "b"), List.class, 60);
+        assertEquals(Optional.of(Arrays.asList("a", "b")), PersistentCache.read("cache", "key", List.class));
+        assertFalse(PersistentCache.read("cache", "other", List.class).isPresent());
+        assertFalse(PersistentCache.read("other", "key", List.class).isPresent());
+    }
+
+    @Test
+    public void expire() throws Exception {
+        PersistentCache.write("cache", "key", "value", String.class, 0);
+        Thread.sleep(10);
+        assertFalse(PersistentCache.read("cache", "key", String.class).isPresent());
+        // expired entries are removed once read
+        assertTrue(FileUtils.listFiles(folder.getRoot(), null, true).isEmpty());
+    }
+
+    @Test
+    public void invalidate() {
+        PersistentCache.write("cache", "a", "a", String.class, 60);
+        PersistentCache.write("cache", "b", "b", String.class, 60);
+        PersistentCache.write("other", "a", "a", String.class, 60);
+
+        PersistentCache.invalidate("cache", "a");
+        assertFalse(PersistentCache.read("cache", "a", String.class).isPresent());
+        assertTrue(PersistentCache.read("cache", "b", String.class).isPresent());
+
+        PersistentCache.invalidate("cache", CacheEvict.ALL);
+        assertFalse(PersistentCache.read("cache", "b", String.class).isPresent());
+        assertTrue(PersistentCache.read("other", "a", String.class).isPresent());
+
+        PersistentCache.invalidate(CacheEvict.ALL, CacheEvict.ALL);
+        assertFalse(PersistentCache.read("other", "a", String.class).isPresent());
+    }
+
+    @Test
+    public void evictLeastRecentlyWritten() throws Exception {
+        final String value = StringUtils.repeat('x', 1000);
+        for (int i = 0; i < 5; i++) {
+            PersistentCache.write("cache", "key" + i, value, String.class, 60);
+            // last modified time of some file systems is in seconds
+            FileUtils.listFiles(folder.getRoot(), null, true).stream().filter(f -> !f.getName().endsWith(".tmp"))
+                .forEach(f -> f.setLastModified(f.lastModified() - 10000));
+        }
+        final long size = FileUtils.listFiles(folder.getRoot(), null, true).stream().mapToLong(File::length).max().orElse(0);
+
+        PersistentCache.evictIfOversized(size * 2);
+        assertFalse(PersistentCache.read("cache", "key0", String.class).isPresent());
+        assertFalse(PersistentCache.read("cache", "key2", String.class).isPresent());
+        assertTrue(PersistentCache.read("cache", "key3", String.class).isPresent());
+        assertTrue(PersistentCache.read("cache", "key4", String.class).isPresent());
+    }
+
+    @Test
+    public void replaceAtomically() throws Exception {
+        final String small = "small";
+        final String large = StringUtils.repeat('x', 1024 * 1024);
+        PersistentCache.write("cache", "key", small, String.class, 60);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 20; j++) {
+                        PersistentCache.write("cache", "key", j % 2 == 0 ? large : small, String.class, 60);
+                    }
+                }));
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        // a partially written entry would be read as absent (and deleted).
+                        final String read = (String) PersistentCache.read("cache", "key", String.class).orElse(null);
+                        assertTrue(small.equals(read) || large.equals(read));
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
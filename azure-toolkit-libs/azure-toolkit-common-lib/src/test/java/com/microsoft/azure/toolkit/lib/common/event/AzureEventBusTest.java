@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.event;
+
+import com.microsoft.azure.toolkit.lib.Azure;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AzureEventBusTest {
+    private static final String TYPE = "test.event";
+    private static final String SLOW_TYPE = "test.event.slow";
+
+    private final List<Object> received = new CopyOnWriteArrayList<>();
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final AzureEventBus.EventListener listener = new AzureEventBus.EventListener(e -> {
+        this.received.add(e.getSource());
+        this.threads.add(Thread.currentThread());
+        if (Integer.valueOf(0).equals(e.getSource())) { // the first event blocks the drainer until the gate is opened.
+            this.started.countDown();
+            await(this.gate);
+        }
+    });
+    private final AzureEventBus.EventListener slowListener = new AzureEventBus.EventListener(e -> await(this.gate));
+
+    @Before
+    public void setUp() {
+        AzureEventBus.on(TYPE, this.listener);
+        AzureEventBus.on(SLOW_TYPE, this.slowListener);
+    }
+
+    @After
+    public void tearDown() {
+        this.gate.countDown();
+        AzureEventBus.off(TYPE, this.listener);
+        AzureEventBus.off(SLOW_TYPE, this.slowListener);
+        Azure.az().config().setEventQueueCapacity(0);
+        Azure.az().config().setEventOverflowPolicy(null);
+    }
+
+    @Test
+    public void coalescePendingEvents() throws Exception {
+        this.emitFirst();
+        AzureEventBus.emit(TYPE, 1);
+        AzureEventBus.emit(TYPE, 1);
+        AzureEventBus.emit(TYPE, 2);
+        AzureEventBus.emit(TYPE, 1);
+        this.gate.countDown();
+        this.waitUntilReceived(3);
+        assertEquals(Arrays.asList(0, 1, 2), this.received);
+    }
+
+    @Test
+    public void notBlockedBySlowListenersOfOtherTypes() throws Exception {
+        AzureEventBus.emit(SLOW_TYPE, "slow");
+        AzureEventBus.emit(TYPE, 1);
+        this.waitUntilReceived(1);
+        assertEquals(Collections.singletonList(1), this.received);
+    }
+
+    @Test
+    public void dropLatestWhenFull() throws Exception {
+        Azure.az().config().setEventQueueCapacity(2);
+        Azure.az().config().setEventOverflowPolicy("DROP_LATEST");
+        this.emitFirst();
+        AzureEventBus.emit(TYPE, 1);
+        AzureEventBus.emit(TYPE, 2);
+        AzureEventBus.emit(TYPE, 3);
+        this.gate.countDown();
+        this.waitUntilReceived(3);
+        assertEquals(Arrays.asList(0, 1, 2), this.received);
+    }
+
+    @Test
+    public void dropOldestWhenFull() throws Exception {
+        Azure.az().config().setEventQueueCapacity(2);
+        Azure.az().config().setEventOverflowPolicy("DROP_OLDEST");
+        this.emitFirst();
+        AzureEventBus.emit(TYPE, 1);
+        AzureEventBus.emit(TYPE, 2);
+        AzureEventBus.emit(TYPE, 3);
+        this.gate.countDown();
+        this.waitUntilReceived(3);
+        assertEquals(Arrays.asList(0, 2, 3), this.received);
+    }
+
+    @Test
+    public void callerRunsWhenFull() throws Exception {
+        Azure.az().config().setEventQueueCapacity(2);
+        Azure.az().config().setEventOverflowPolicy("CALLER_RUNS");
+        this.emitFirst();
+        AzureEventBus.emit(TYPE, 1);
+        AzureEventBus.emit(TYPE, 2);
+        AzureEventBus.emit(TYPE, 3);
+        // dispatched on the emitting thread before the pending events.
+        assertEquals(Arrays.asList(0, 3), this.received);
+        assertEquals(Thread.currentThread(), this.threads.get(1));
+        this.gate.countDown();
+        this.waitUntilReceived(4);
+        assertEquals(Arrays.asList(0, 3, 1, 2), this.received);
+    }
+
+    /**
+     * emit the first event and wait until it's being dispatched (and blocking the drainer), so that the later events are
+     * kept pending until the gate is opened.
+     */
+    private void emitFirst() throws InterruptedException {
+        AzureEventBus.emit(TYPE, 0);
+        assertTrue(this.started.await(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * wait until the expected number of events are received, and a little longer in case of unexpected ones.
+     */
+    private void waitUntilReceived(int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (this.received.size() < count) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError(String.format("only %d events are received", this.received.size()));
+            }
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+    }
+
+    private static void await(CountDownLatch gate) {
+        try {
+            if (!gate.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("gate is never opened");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.task.TestAzureTaskManager;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AbstractAzResourceModuleTest {
+    private TestModule module;
+
+    @BeforeClass
+    public static void setUpClass() {
+        TestAzureTaskManager.register();
+    }
+
+    @Before
+    public void setUp() {
+        this.module = new TestModule();
+        this.module.addRemote("a", "rg");
+    }
+
+    @Test
+    public void listOnce() {
+        assertEquals(Collections.singletonList("a"), names(this.module.list()));
+        this.module.addRemote("b", "rg");
+        assertEquals(Collections.singletonList("a"), names(this.module.list()));
+        assertEquals(1, this.module.listCount.get());
+    }
+
+    @Test
+    public void refreshReloadsOnNextList() {
+        this.module.list();
+        this.module.addRemote("b", "rg");
+        this.module.refresh();
+        assertEquals(Arrays.asList("a", "b"), names(this.module.list()));
+        assertEquals(2, this.module.listCount.get());
+    }
+
+    @Test
+    public void invalidateReloadsInBackground() throws Exception {
+        this.module.list();
+        this.module.addRemote("b", "rg");
+        final CountDownLatch gate = new CountDownLatch(1);
+        this.module.gate = gate;
+        this.module.invalidate();
+        // outdated resources are returned while being reloaded.
+        assertEquals(Collections.singletonList("a"), names(this.module.list()));
+        assertEquals(Collections.singletonList("a"), names(this.module.list()));
+        gate.countDown();
+        waitUntil(() -> names(this.module.list()).size() == 2);
+        assertEquals(2, this.module.listCount.get());
+    }
+
+    @Test
+    public void reloadInBackgroundOnceExpired() throws Exception {
+        this.module.setCacheTtl(1);
+        this.module.list();
+        this.module.addRemote("b", "rg");
+        final CountDownLatch gate = new CountDownLatch(1);
+        this.module.gate = gate;
+        Thread.sleep(10);
+        assertEquals(Collections.singletonList("a"), names(this.module.list()));
+        gate.countDown();
+        waitUntil(() -> names(this.module.list()).size() == 2);
+    }
+
+    @Test
+    public void readCacheTtlFromConfiguration() {
+        assertEquals(AbstractAzResourceModule.CACHE_TTL_INFINITE, this.module.getCacheTtl());
+        this.module.cacheTtlConfigured = true;
+        try {
+            assertEquals(TimeUnit.SECONDS.toMillis(AbstractAzResourceModule.DEFAULT_CACHE_TTL), this.module.getCacheTtl());
+            Azure.az().config().setResourceCacheTtl(60);
+            assertEquals(60000, this.module.getCacheTtl());
+            Azure.az().config().setResourceCacheTtl(-1);
+            assertEquals(AbstractAzResourceModule.CACHE_TTL_INFINITE, this.module.getCacheTtl());
+            // explicitly set window takes precedence.
+            this.module.setCacheTtl(1000);
+            assertEquals(1000, this.module.getCacheTtl());
+        } finally {
+            Azure.az().config().setResourceCacheTtl(0);
+        }
+    }
+
+    @Test
+    public void retryFailedLoad() {
+        this.module.failure = new IllegalStateException("failed to list");
+        assertTrue(this.module.list().isEmpty());
+        this.module.failure = null;
+        assertEquals(Collections.singletonList("a"), names(this.module.list()));
+        assertEquals(2, this.module.listCount.get());
+    }
+
+    @Test
+    public void mergeReloadedResources() throws Exception {
+        final TestResource a = this.module.list().get(0);
+        waitUntil(() -> AzResource.Status.RUNNING.equals(a.getStatus()));
+        assertNull(this.module.get("b", "rg"));
+        this.module.removeRemote("a");
+        this.module.addRemote("b", "rg");
+        this.module.addRemote("c", "rg");
+        this.module.refresh();
+        assertEquals(Arrays.asList("b", "c"), names(this.module.list()));
+        assertEquals(AzResource.Status.DELETED, a.getStatus());
+
+        this.module.addRemote("a", "rg");
+        final TestResource c = this.module.get("c", "rg");
+        this.module.refresh();
+        assertEquals(Arrays.asList("a", "b", "c"), names(this.module.list()));
+        // existing resources are kept and refreshed instead of being replaced.
+        assertSame(c, this.module.get("c", "rg"));
+    }
+
+    @Test
+    public void coalesceConcurrentGets() throws Exception {
+        final CountDownLatch gate = new CountDownLatch(1);
+        this.module.gate = gate;
+        final List<CompletableFuture<TestResource>> gets = IntStream.range(0, 4)
+            .mapToObj(i -> CompletableFuture.supplyAsync(() -> this.module.get("a", "rg"))).collect(Collectors.toList());
+        waitUntil(() -> this.module.getCount.get() > 0);
+        Thread.sleep(100);
+        gate.countDown();
+        final TestResource a = gets.get(0).get(10, TimeUnit.SECONDS);
+        for (final CompletableFuture<TestResource> get : gets) {
+            assertSame(a, get.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, this.module.getCount.get());
+    }
+
+    @Test
+    public void reloadAfterModifyNotJoinEarlierReload() throws Exception {
+        final TestResource a = this.module.get("a", "rg");
+        assertEquals(1, this.module.getCount.get());
+        final CountDownLatch gate = new CountDownLatch(1);
+        this.module.gate = gate;
+        final CompletableFuture<Void> before = CompletableFuture.runAsync(a::reload);
+        waitUntil(() -> this.module.getCount.get() == 2);
+        a.doModify(() -> new TestRemote("a", "rg"), null);
+        final CompletableFuture<Void> after = CompletableFuture.runAsync(a::reload);
+        // the reload after the modification sends its own request instead of sharing the earlier one.
+        waitUntil(() -> this.module.getCount.get() == 3);
+        gate.countDown();
+        before.get(10, TimeUnit.SECONDS);
+        after.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void getByIdNotTrustCachedMissOfOtherResourceGroup() {
+        this.module.addRemote("b", "rg2");
+        assertNull(this.module.get("b", "rg"));
+        final String id = this.module.toResourceId("b", "rg2");
+        final TestResource b = this.module.get(id);
+        assertNotNull(b);
+        assertEquals(id, b.getId());
+        assertSame(b, this.module.get(id));
+        assertEquals(2, this.module.getCount.get());
+    }
+
+    @Test
+    public void getByIdNotReturnSameNamedResourceOfOtherResourceGroup() {
+        this.module.addRemote("a", "rg2");
+        final TestResource a = this.module.get("a", "rg");
+        final String id = this.module.toResourceId("a", "rg2");
+        final TestResource a2 = this.module.get(id);
+        assertNotNull(a2);
+        assertEquals(id, a2.getId());
+        assertSame(a, this.module.get("a", "rg"));
+        assertSame(a2, this.module.get(id));
+        assertEquals(2, this.module.getCount.get());
+    }
+
+    @Test
+    public void getByIdCachesMiss() {
+        final String id = this.module.toResourceId("c", "rg2");
+        assertNull(this.module.get(id));
+        assertNull(this.module.get(id));
+        assertEquals(1, this.module.getCount.get());
+        // the miss is dropped once resources are reloaded.
+        this.module.addRemote("c", "rg2");
+        this.module.refresh();
+        this.module.list();
+        assertNotNull(this.module.get(id));
+    }
+
+    private static List<String> names(List<TestResource> resources) {
+        return resources.stream().map(AbstractAzResource::getName).collect(Collectors.toList());
+    }
+
+    static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("condition is not met in time");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
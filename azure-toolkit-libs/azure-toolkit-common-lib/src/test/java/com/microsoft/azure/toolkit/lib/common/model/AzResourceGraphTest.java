@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.microsoft.azure.toolkit.lib.TestAzureAccount;
+import com.microsoft.azure.toolkit.lib.common.task.TestAzureTaskManager;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AzResourceGraphTest {
+    private static final String RECORD = "{\"id\":\"%s\",\"name\":\"%s\",\"type\":\"%s\",\"resourceGroup\":\"%s\",\"subscriptionId\":\"%s\"}";
+
+    @BeforeClass
+    public static void setUpClass() {
+        TestAzureTaskManager.register();
+    }
+
+    @Test
+    public void loadPagesIntoModules() {
+        final TestModule supported = new TestModule();
+        supported.resourceGraphSupported = true;
+        final TestModule unsupported = new TestModule();
+        final StubTransport transport = new StubTransport(
+            page("page2", record("a", "rg1"), record("b", "rg1")),
+            page(null, record("c", "rg2"), String.format(RECORD, "/subscriptions/x/providers/Other/others/o", "o", "Other/others", "rg2", TestAzureAccount.SUBSCRIPTION_ID)));
+
+        final List<AbstractAzResourceModule<?, ?, ?>> loaded = new AzResourceGraph(transport).load(Arrays.asList(supported, unsupported));
+
+        assertEquals(Collections.singletonList(supported), loaded);
+        assertEquals(1, transport.opened.get());
+        assertEquals(2, transport.requests.size());
+        assertFalse(transport.requests.get(0).contains("$skipToken"));
+        assertTrue(transport.requests.get(1).contains("page2"));
+        assertTrue(transport.requests.get(0).contains(TestAzureAccount.SUBSCRIPTION_ID));
+        assertTrue(transport.requests.get(0).contains("microsoft.test/tests"));
+
+        assertEquals(Arrays.asList("a", "b", "c"), names(supported.list()));
+        assertEquals("rg2", supported.get("c", "rg2").getResourceGroupName());
+        // listed resources are not listed again
+        assertEquals(0, supported.listCount.get());
+        assertEquals(0, unsupported.listCount.get());
+    }
+
+    @Test
+    public void mergeIntoListedModule() {
+        final TestModule module = new TestModule();
+        module.resourceGraphSupported = true;
+        module.addRemote("a", "rg1");
+        module.addRemote("z", "rg1");
+        final TestResource a = module.get("a", "rg1");
+        assertNotNull(a);
+        assertEquals(Arrays.asList("a", "z"), names(module.list()));
+
+        final StubTransport transport = new StubTransport(page(null, record("a", "rg1"), record("b", "rg1")));
+        new AzResourceGraph(transport).load(Collections.singletonList(module));
+
+        assertEquals(Arrays.asList("a", "b"), names(module.list()));
+        // existing resources keep their remotes since records of resource graph have none.
+        assertSame(a, module.get("a", "rg1"));
+        assertNotNull(a.getRemote());
+        assertEquals(1, module.listCount.get());
+    }
+
+    private static String record(String name, String resourceGroup) {
+        return String.format(RECORD, TestRemote.toId(name, resourceGroup), name, "Microsoft.Test/tests", resourceGroup, TestAzureAccount.SUBSCRIPTION_ID);
+    }
+
+    private static String page(String skipToken, String... records) {
+        final String token = skipToken == null ? "" : String.format(",\"$skipToken\":\"%s\"", skipToken);
+        return String.format("{\"data\":[%s]%s}", String.join(",", records), token);
+    }
+
+    private static List<String> names(List<TestResource> resources) {
+        return resources.stream().map(AbstractAzResource::getName).collect(Collectors.toList());
+    }
+
+    /**
+     * local stub of Resource Graph, which responds the pages in order.
+     */
+    private static class StubTransport implements AzResourceGraph.Transport {
+        private final AtomicInteger opened = new AtomicInteger();
+        private final List<String> requests = new ArrayList<>();
+        private final List<String> pages;
+
+        private StubTransport(String... pages) {
+            this.pages = Arrays.asList(pages);
+        }
+
+        @Override
+        public AzResourceGraph.Connection open(String subscriptionId) {
+            assertEquals(TestAzureAccount.SUBSCRIPTION_ID, subscriptionId);
+            this.opened.incrementAndGet();
+            return request -> {
+                this.requests.add(request);
+                return this.pages.get(this.requests.size() - 1);
+            };
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.microsoft.azure.toolkit.lib.TestAzureAccount;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * resource manager of the test subscription, parent of {@link TestModule}s.
+ */
+class TestManager extends AbstractAzResourceManager<TestManager, Void> {
+    static final String PROVIDER = "Microsoft.Test";
+
+    TestManager() {
+        super(TestAzureAccount.SUBSCRIPTION_ID, new Module());
+    }
+
+    @Nonnull
+    @Override
+    public List<AzResourceModule<?, TestManager, ?>> getSubModules() {
+        return Collections.emptyList();
+    }
+
+    @Nonnull
+    @Override
+    public String getSubscriptionId() {
+        return TestAzureAccount.SUBSCRIPTION_ID;
+    }
+
+    @Nonnull
+    @Override
+    public String getId() {
+        return String.format("/subscriptions/%s/resourceGroups/%s/providers/%s", this.getSubscriptionId(), RESOURCE_GROUP_PLACEHOLDER, PROVIDER);
+    }
+
+    @Nonnull
+    @Override
+    public String getFullResourceType() {
+        return PROVIDER;
+    }
+
+    private static class Module extends AbstractAzResourceModule<TestManager, AzResource.None, Void> {
+        private Module() {
+            super(PROVIDER, AzResource.NONE);
+        }
+
+        @Nonnull
+        @Override
+        protected TestManager newResource(@Nonnull Void remote) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Nonnull
+        @Override
+        public String getResourceTypeName() {
+            return "test manager";
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * module backed by an in-memory list of remotes, it counts the requests and can be made to fail or to block.
+ */
+class TestModule extends AbstractAzResourceModule<TestResource, TestManager, TestRemote> {
+    final List<TestRemote> remotes = new CopyOnWriteArrayList<>();
+    final AtomicInteger listCount = new AtomicInteger();
+    final AtomicInteger getCount = new AtomicInteger();
+    @Nullable
+    volatile RuntimeException failure;
+    /**
+     * requests wait until it's counted down if set.
+     */
+    @Nullable
+    volatile CountDownLatch gate;
+    volatile boolean resourceGraphSupported = false;
+    volatile boolean cacheTtlConfigured = false;
+
+    TestModule() {
+        this(new TestManager());
+    }
+
+    TestModule(@Nonnull TestManager parent) {
+        super("tests", parent);
+    }
+
+    void addRemote(@Nonnull String name, @Nonnull String resourceGroup) {
+        this.remotes.add(new TestRemote(name, resourceGroup));
+    }
+
+    void removeRemote(@Nonnull String name) {
+        this.remotes.removeIf(r -> r.getName().equals(name));
+    }
+
+    @Nonnull
+    @Override
+    public String getResourceTypeName() {
+        return "test";
+    }
+
+    @Nonnull
+    @Override
+    protected TestResource newResource(@Nonnull TestRemote remote) {
+        return new TestResource(remote, this);
+    }
+
+    @Override
+    protected boolean isResourceGraphSupported() {
+        return this.resourceGraphSupported;
+    }
+
+    @Override
+    protected long getDefaultCacheTtl() {
+        return this.cacheTtlConfigured ? getConfiguredCacheTtl() : super.getDefaultCacheTtl();
+    }
+
+    @Nullable
+    @Override
+    protected TestResource newResource(@Nonnull AzResourceGraph.Record record) {
+        return new TestResource(record.getName(), record.getResourceGroup(), this);
+    }
+
+    @Nonnull
+    @Override
+    protected Stream<TestRemote> loadResourcesFromAzure() {
+        this.listCount.incrementAndGet();
+        this.await();
+        return new ArrayList<>(this.remotes).stream();
+    }
+
+    @Nullable
+    @Override
+    protected TestRemote loadResourceFromAzure(@Nonnull String name, @Nullable String resourceGroup) {
+        this.getCount.incrementAndGet();
+        this.await();
+        return this.remotes.stream().filter(r -> r.getName().equals(name))
+            .filter(r -> StringUtils.isBlank(resourceGroup) || r.getResourceGroup().equalsIgnoreCase(resourceGroup))
+            .findFirst().orElse(null);
+    }
+
+    private void await() {
+        final CountDownLatch gate = this.gate;
+        if (Objects.nonNull(gate)) {
+            try {
+                if (!gate.await(10, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("gate is never opened");
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        final RuntimeException failure = this.failure;
+        if (Objects.nonNull(failure)) {
+            throw failure;
+        }
+    }
+}
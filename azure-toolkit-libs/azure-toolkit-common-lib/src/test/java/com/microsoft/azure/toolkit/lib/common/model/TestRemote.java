@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.azure.resourcemanager.resources.fluentcore.arm.models.HasId;
+import com.microsoft.azure.toolkit.lib.TestAzureAccount;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.Nonnull;
+
+@Getter
+@RequiredArgsConstructor
+class TestRemote implements HasId {
+    @Nonnull
+    private final String name;
+    @Nonnull
+    private final String resourceGroup;
+
+    @Override
+    public String id() {
+        return toId(this.name, this.resourceGroup);
+    }
+
+    @Nonnull
+    static String toId(@Nonnull String name, @Nonnull String resourceGroup) {
+        return String.format("/subscriptions/%s/resourceGroups/%s/providers/%s/tests/%s", TestAzureAccount.SUBSCRIPTION_ID, resourceGroup, TestManager.PROVIDER, name);
+    }
+}
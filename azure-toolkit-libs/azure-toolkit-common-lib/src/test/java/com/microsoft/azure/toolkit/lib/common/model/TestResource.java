@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+
+class TestResource extends AbstractAzResource<TestResource, TestManager, TestRemote> {
+    TestResource(@Nonnull String name, @Nonnull String resourceGroup, @Nonnull TestModule module) {
+        super(name, resourceGroup, module);
+    }
+
+    TestResource(@Nonnull TestRemote remote, @Nonnull TestModule module) {
+        super(remote.getName(), remote.getResourceGroup(), module);
+        this.setRemote(remote);
+    }
+
+    @Nonnull
+    @Override
+    public List<AzResourceModule<?, TestResource, ?>> getSubModules() {
+        return Collections.emptyList();
+    }
+
+    @Nonnull
+    @Override
+    public String loadStatus(@Nonnull TestRemote remote) {
+        return Status.RUNNING;
+    }
+}
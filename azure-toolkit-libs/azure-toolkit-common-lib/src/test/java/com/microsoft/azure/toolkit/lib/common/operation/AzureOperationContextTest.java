@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.operation;
+
+import com.microsoft.azure.toolkit.lib.common.task.AzureReactorTaskManager;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AzureOperationContextTest {
+    private ExecutorService pool;
+    private AzureTask<Void> operation;
+
+    @Before
+    public void setUp() {
+        this.pool = Executors.newFixedThreadPool(2);
+        this.operation = new AzureTask<>("operation", () -> {
+        });
+    }
+
+    @After
+    public void tearDown() {
+        this.pool.shutdownNow();
+        AzureReactorTaskManager.unregister();
+    }
+
+    @Test
+    public void runInContextWhereCreated() throws Exception {
+        AzureOperationContext.current().pushOperation(this.operation);
+        try {
+            final AzureOperationContext root = AzureOperationContext.peek();
+            final AtomicReference<AzureOperationContext> context = new AtomicReference<>();
+            final IAzureOperation<?> op = this.pool.submit(AzureOperationContext.wrap(() -> {
+                context.set(AzureOperationContext.peek());
+                return IAzureOperation.current();
+            })).get();
+            assertSame(this.operation, op);
+            assertSame(root, context.get().getParent());
+        } finally {
+            AzureOperationContext.current().popOperation();
+        }
+        assertNull(AzureOperationContext.peek());
+    }
+
+    @Test
+    public void notChainContextsOfTasksSchedulingTasks() throws Exception {
+        final List<AzureOperationContext> parents = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(5);
+        final Executor executor = AzureOperationContext.wrap(this.pool);
+        final AzureOperationContext root;
+        AzureOperationContext.current().pushOperation(this.operation);
+        try {
+            root = AzureOperationContext.peek();
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    parents.add(AzureOperationContext.peek().getParent());
+                    done.countDown();
+                    if (done.getCount() > 0) {
+                        executor.execute(this);
+                    }
+                }
+            });
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            AzureOperationContext.current().popOperation();
+        }
+        assertEquals(5, parents.size());
+        parents.forEach(p -> assertSame(root, p));
+    }
+
+    @Test
+    public void notSetupContextWhenWrappingOnThreadsWithoutContext() throws Exception {
+        final Runnable task = () -> {
+        };
+        final AtomicReference<Runnable> wrapped = new AtomicReference<>();
+        final AtomicReference<AzureOperationContext> context = new AtomicReference<>();
+        // e.g. tasks scheduled by netty event loops.
+        final Thread thread = new Thread(() -> {
+            wrapped.set(AzureOperationContext.wrap(task));
+            context.set(AzureOperationContext.peek());
+        });
+        thread.start();
+        thread.join();
+        assertSame(task, wrapped.get());
+        assertNull(context.get());
+    }
+
+    @Test
+    public void propagateToReactorSchedulers() {
+        AzureReactorTaskManager.register();
+        AzureOperationContext.current().pushOperation(this.operation);
+        try {
+            final IAzureOperation<?> op = Mono.fromCallable(IAzureOperation::current)
+                .subscribeOn(Schedulers.boundedElastic()).block();
+            assertSame(this.operation, op);
+        } finally {
+            AzureOperationContext.current().popOperation();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.task;
+
+import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import com.microsoft.azure.toolkit.lib.common.operation.AzureOperationContext;
+import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AzureTaskGraphTest {
+
+    @Test
+    public void runAfterDependencies() throws Exception {
+        final List<String> executed = new CopyOnWriteArrayList<>();
+        final AzureTaskGraph graph = new AzureTaskGraph();
+        final AzureTaskGraph.Node<String> a = graph.add(task("a", () -> {
+            Thread.sleep(100);
+            executed.add("a");
+            return "a";
+        }));
+        final AzureTaskGraph.Node<String> b = graph.add(task("b", () -> {
+            executed.add("b");
+            return a.getResult() + "b";
+        }), a);
+        final AzureTaskGraph.Node<String> c = graph.add(task("c", () -> {
+            executed.add("c");
+            return b.getResult() + "c";
+        }), b, null);
+        graph.execute();
+        assertEquals(Arrays.asList("a", "b", "c"), executed);
+        assertEquals("abc", c.getResult());
+    }
+
+    @Test
+    public void runIndependentsConcurrently() throws Exception {
+        final CountDownLatch started = new CountDownLatch(2);
+        final AzureTaskGraph graph = new AzureTaskGraph();
+        // each task waits for the other to start, so they only pass if running at the same time.
+        final AzureTaskGraph.Node<Boolean> a = graph.add(task("a", () -> {
+            started.countDown();
+            return started.await(10, TimeUnit.SECONDS);
+        }));
+        final AzureTaskGraph.Node<Boolean> b = graph.add(task("b", () -> {
+            started.countDown();
+            return started.await(10, TimeUnit.SECONDS);
+        }));
+        graph.execute();
+        assertTrue(a.getResult());
+        assertTrue(b.getResult());
+    }
+
+    @Test
+    public void rethrowFirstFailureInAddOrder() {
+        final IllegalStateException first = new IllegalStateException("first");
+        final IllegalStateException second = new IllegalStateException("second");
+        final AzureTaskGraph graph = new AzureTaskGraph();
+        graph.add(task("a", () -> {
+            Thread.sleep(200);
+            throw first;
+        }));
+        // fails earlier, but it's added later.
+        graph.add(task("b", () -> {
+            throw second;
+        }));
+        try {
+            graph.execute();
+            fail("failure is not rethrown");
+        } catch (final Exception e) {
+            assertSame(first, e);
+        }
+    }
+
+    @Test
+    public void skipDependentsOfFailedTask() {
+        final AtomicBoolean dependentExecuted = new AtomicBoolean();
+        final AzureTaskGraph graph = new AzureTaskGraph();
+        final AzureTaskGraph.Node<String> a = graph.add(task("a", () -> {
+            throw new IllegalStateException("failed");
+        }));
+        final AzureTaskGraph.Node<String> b = graph.add(task("b", () -> {
+            dependentExecuted.set(true);
+            return "b";
+        }), a);
+        final AzureTaskGraph.Node<String> c = graph.add(task("c", () -> "c"));
+        try {
+            graph.execute();
+            fail("failure is not rethrown");
+        } catch (final Exception e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertFalse(dependentExecuted.get());
+        assertNull(b.getResult());
+        assertEquals(-1, b.getCost());
+        assertEquals("c", c.getResult());
+    }
+
+    @Test
+    public void reportCostsToTelemetry() throws Exception {
+        final AzureTask<Void> action = new AzureTask<>("action", () -> {
+        });
+        action.setType(AzureOperation.Type.ACTION.name());
+        final AzureTaskGraph graph = new AzureTaskGraph();
+        graph.add(task("a", () -> "a"));
+        AzureOperationContext.current().pushOperation(action);
+        try {
+            graph.execute();
+        } finally {
+            AzureOperationContext.current().popOperation();
+        }
+        final String costs = AzureTelemetry.getContext(action).getProperty(AzureTaskGraph.TASK_COSTS);
+        assertTrue(costs, costs.matches("a=\\d+ms"));
+    }
+
+    private static <T> AzureTask<T> task(String name, Callable<T> body) {
+        return new AzureTask<>(name, body);
+    }
+}
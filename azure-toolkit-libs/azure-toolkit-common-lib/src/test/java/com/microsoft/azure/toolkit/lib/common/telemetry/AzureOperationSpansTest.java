@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.telemetry;
+
+import com.microsoft.azure.toolkit.lib.common.operation.AzureOperationContext;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AzureOperationSpansTest {
+
+    @Before
+    public void setUp() {
+        AzureOperationSpans.reset();
+    }
+
+    @Test
+    public void excludeChildrenFromSelfTime() throws InterruptedException {
+        final AzureTask<Void> outer = new AzureTask<>("outer", () -> {
+        });
+        final AzureTask<Void> inner = new AzureTask<>("inner", () -> {
+        });
+        inner.setParent(outer);
+        AzureOperationSpans.start(outer);
+        AzureOperationSpans.start(inner);
+        Thread.sleep(50);
+        AzureOperationSpans.end(inner, false);
+        AzureOperationSpans.end(outer, true);
+
+        final List<AzureOperationSpans.Summary> summaries = AzureOperationSpans.getSummaries(10);
+        assertEquals(2, summaries.size());
+        final AzureOperationSpans.Summary outerSummary = summaries.get(0);
+        final AzureOperationSpans.Summary innerSummary = summaries.get(1);
+        assertEquals("outer", outerSummary.getName());
+        assertEquals("inner", innerSummary.getName());
+        assertEquals(1, outerSummary.getErrorCount());
+        assertEquals(0, innerSummary.getErrorCount());
+        assertTrue(innerSummary.getTotalNanos() >= 50_000_000L);
+        assertEquals(outerSummary.getTotalNanos() - innerSummary.getTotalNanos(), outerSummary.getSelfNanos());
+
+        final List<AzureOperationSpans.Span> spans = AzureOperationSpans.getSpans();
+        assertEquals("inner", spans.get(0).getName());
+        assertEquals(spans.get(1), spans.get(0).getParent());
+    }
+
+    @Test
+    public void attributeRequestsToCurrentOperation() {
+        final AzureTask<Void> op = new AzureTask<>("op", () -> {
+        });
+        AzureOperationSpans.recordRequest();
+        AzureOperationSpans.start(op);
+        AzureOperationContext.current().pushOperation(op);
+        try {
+            AzureOperationSpans.recordRequest();
+            AzureOperationSpans.recordRequest();
+        } finally {
+            AzureOperationContext.current().popOperation();
+            AzureOperationSpans.end(op, false);
+        }
+        assertEquals(3, AzureOperationSpans.getRequestCount());
+        assertEquals(2, AzureOperationSpans.getSummaries(1).get(0).getRequestCount());
+    }
+
+    @Test
+    public void notSetupContextOnThreadsWithoutContext() throws InterruptedException {
+        final AtomicReference<AzureOperationContext> context = new AtomicReference<>();
+        // e.g. requests sent from netty event loops.
+        final Thread thread = new Thread(() -> {
+            AzureOperationSpans.recordRequest();
+            context.set(AzureOperationContext.peek());
+        });
+        thread.start();
+        thread.join();
+        assertNull(context.get());
+        assertEquals(1, AzureOperationSpans.getRequestCount());
+    }
+}
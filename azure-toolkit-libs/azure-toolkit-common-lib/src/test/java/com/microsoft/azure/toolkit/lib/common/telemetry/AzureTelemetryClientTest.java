@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.telemetry;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.azure.toolkit.lib.Azure;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AzureTelemetryClientTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private Path file;
+    private AzureTelemetryClient client;
+
+    @Before
+    public void setUp() {
+        this.file = temp.getRoot().toPath().resolve("telemetry/events.jsonl");
+        Azure.az().config().setTelemetrySinkFile(this.file.toString());
+        this.client = new AzureTelemetryClient(Collections.singletonMap("plugin", "test"));
+    }
+
+    @After
+    public void tearDown() {
+        Azure.az().config().setTelemetrySinkFile(null);
+        Azure.az().config().setTelemetryQueueCapacity(0);
+    }
+
+    @Test
+    public void writeJsonLines() throws IOException {
+        assertTrue(this.client.getSink() instanceof FileTelemetrySink);
+        assertNull(this.client.getClient());
+        this.client.trackEvent("first", Collections.singletonMap("key", "value"));
+        this.client.trackEvent("second");
+        this.client.flush();
+        final List<JsonObject> events = this.readEvents();
+        assertEquals(2, events.size());
+        assertEquals("first", events.get(0).get("name").getAsString());
+        assertEquals("value", events.get(0).getAsJsonObject("properties").get("key").getAsString());
+        assertEquals("test", events.get(0).getAsJsonObject("properties").get("plugin").getAsString());
+        assertEquals("second", events.get(1).get("name").getAsString());
+        assertTrue(events.get(1).has("time"));
+    }
+
+    @Test
+    public void coalesceIdenticalEvents() throws IOException {
+        this.client.trackEvent("event", Collections.singletonMap("key", "value"));
+        this.client.trackEvent("event", Collections.singletonMap("key", "value"));
+        this.client.trackEvent("event", Collections.singletonMap("key", "value"));
+        this.client.trackEvent("event", Collections.singletonMap("key", "other"));
+        this.client.flush();
+        final List<JsonObject> events = this.readEvents();
+        assertEquals(2, events.size());
+        assertEquals(3, events.get(0).getAsJsonObject("metrics").get(AzureTelemetryClient.COUNT).getAsInt());
+        assertFalse(events.get(1).has("metrics"));
+    }
+
+    @Test
+    public void dropNewEventsWhenFull() throws IOException {
+        Azure.az().config().setTelemetryQueueCapacity(2);
+        this.client.trackEvent("first");
+        this.client.trackEvent("second");
+        this.client.trackEvent("third");
+        // identical to a pending event, so it's coalesced instead of being dropped.
+        this.client.trackEvent("first");
+        this.client.flush();
+        assertEquals(1, this.client.getDroppedEventCount());
+        final List<String> names = this.readEvents().stream().map(e -> e.get("name").getAsString()).collect(Collectors.toList());
+        assertEquals(2, names.size());
+        assertTrue(names.containsAll(Arrays.asList("first", "second")));
+    }
+
+    @Test
+    public void notTrackWhenDisabled() throws IOException {
+        this.client.disable();
+        this.client.trackEvent("event");
+        this.client.flush();
+        assertFalse(Files.exists(this.file));
+    }
+
+    private List<JsonObject> readEvents() throws IOException {
+        return Files.readAllLines(this.file, StandardCharsets.UTF_8).stream()
+            .map(line -> new JsonParser().parse(line).getAsJsonObject()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+    private final SingleFlight<String> flights = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void shareOngoingCall() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> this.flights.execute("key", () -> {
+            started.countDown();
+            await(gate);
+            return this.calls.incrementAndGet();
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        final CompletableFuture<Integer> second = join(() -> this.flights.execute("key", this.calls::incrementAndGet));
+        gate.countDown();
+        assertEquals(1, (int) first.get(10, TimeUnit.SECONDS));
+        assertEquals(1, (int) second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, this.calls.get());
+    }
+
+    @Test
+    public void runAgainOnceDone() {
+        assertEquals(1, (int) this.flights.execute("key", this.calls::incrementAndGet));
+        assertEquals(2, (int) this.flights.execute("key", this.calls::incrementAndGet));
+    }
+
+    @Test
+    public void notShareCallsOfOtherKeys() {
+        final Integer result = this.flights.execute("key", () -> this.flights.execute("other", this.calls::incrementAndGet));
+        assertEquals(1, (int) result);
+    }
+
+    @Test
+    public void shareFailure() throws Exception {
+        final IllegalStateException failure = new IllegalStateException("failed");
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CompletableFuture<Void> first = CompletableFuture.runAsync(() -> this.flights.execute("key", () -> {
+            started.countDown();
+            await(gate);
+            throw failure;
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        final CompletableFuture<Integer> second = join(() -> this.flights.execute("key", this.calls::incrementAndGet));
+        gate.countDown();
+        try {
+            second.join();
+            fail("failure of the ongoing call should be shared");
+        } catch (final CompletionException e) {
+            assertSame(failure, e.getCause());
+        }
+        assertTrue(first.isCompletedExceptionally());
+        assertEquals(0, this.calls.get());
+    }
+
+    @Test
+    public void startNewCallAfterForget() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> this.flights.execute("key", () -> {
+            started.countDown();
+            await(gate);
+            return 0;
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        this.flights.forget("key");
+        assertEquals(1, (int) this.flights.execute("key", this.calls::incrementAndGet));
+        gate.countDown();
+        assertEquals(0, (int) first.get(10, TimeUnit.SECONDS));
+        // the forgotten call is done without affecting later calls.
+        assertEquals(2, (int) this.flights.execute("key", this.calls::incrementAndGet));
+    }
+
+    /**
+     * run the call in a new thread and return once the thread is blocked, i.e. waiting for the ongoing call.
+     */
+    private static <T> CompletableFuture<T> join(Supplier<T> call) throws InterruptedException {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Thread thread = new Thread(() -> {
+            try {
+                future.complete(call.get());
+            } catch (final Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        thread.start();
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (thread.getState() != Thread.State.WAITING && !future.isDone()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("call is not blocked in time");
+            }
+            Thread.sleep(10);
+        }
+        return future;
+    }
+
+    private static void await(CountDownLatch gate) {
+        try {
+            if (!gate.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("gate is never opened");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
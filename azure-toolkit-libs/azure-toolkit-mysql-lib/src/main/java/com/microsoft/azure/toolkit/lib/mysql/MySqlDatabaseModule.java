@@ -24,6 +24,11 @@ public class MySqlDatabaseModule extends AbstractAzResourceModule<MySqlDatabase,
         super(NAME, parent);
     }
 
+    @Override
+    protected long getDefaultCacheTtl() {
+        return getConfiguredCacheTtl();
+    }
+
     @Nonnull
     @Override
     protected MySqlDatabase newResource(@Nonnull Database database) {
@@ -27,6 +27,11 @@ public class MySqlServerModule extends AbstractAzResourceModule<MySqlServer, MyS
         super(NAME, parent);
     }
 
+    @Override
+    protected long getDefaultCacheTtl() {
+        return getConfiguredCacheTtl();
+    }
+
     @Nonnull
     @Override
     @AzureOperation(name = "resource.list_resources.type", params = {"this.getResourceTypeName()"}, type = AzureOperation.Type.SERVICE)
@@ -24,6 +24,11 @@ public class PostgreSqlDatabaseModule extends AbstractAzResourceModule<PostgreSq
         super(NAME, parent);
     }
 
+    @Override
+    protected long getDefaultCacheTtl() {
+        return getConfiguredCacheTtl();
+    }
+
     @Nonnull
     @Override
     protected PostgreSqlDatabase newResource(@Nonnull Database database) {
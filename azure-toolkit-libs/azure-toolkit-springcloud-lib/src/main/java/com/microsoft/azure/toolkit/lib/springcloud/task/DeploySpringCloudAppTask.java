@@ -10,6 +10,7 @@ import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskGraph;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
 import com.microsoft.azure.toolkit.lib.springcloud.AzureSpringCloud;
 import com.microsoft.azure.toolkit.lib.springcloud.SpringCloudAppDraft;
@@ -93,9 +94,13 @@ public class DeploySpringCloudAppTask extends AzureTask<SpringCloudDeployment> {
     @Override
     @AzureOperation(name = "springcloud.create_update_app.app", params = {"this.config.getAppName()"}, type = AzureOperation.Type.SERVICE)
     public SpringCloudDeployment doExecute() throws Exception {
+        // each sub task relies on the resource created/updated by the previous one, so they are chained.
+        final AzureTaskGraph graph = new AzureTaskGraph();
+        AzureTaskGraph.Node<?> previous = null;
         for (final AzureTask<?> t : this.subTasks) {
-            t.getBody().call();
+            previous = graph.add(t, previous);
         }
+        graph.execute();
         return this.deployment;
     }
 }
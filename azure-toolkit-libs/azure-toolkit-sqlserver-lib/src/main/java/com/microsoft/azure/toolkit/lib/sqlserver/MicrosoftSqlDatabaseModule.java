@@ -24,6 +24,11 @@ public class MicrosoftSqlDatabaseModule extends AbstractAzResourceModule<Microso
         super(NAME, parent);
     }
 
+    @Override
+    protected long getDefaultCacheTtl() {
+        return getConfiguredCacheTtl();
+    }
+
     @Nonnull
     @Override
     protected MicrosoftSqlDatabase newResource(@Nonnull SqlDatabase database) {
@@ -8,6 +8,7 @@ package com.microsoft.azure.toolkit.lib.storage;
 import com.azure.resourcemanager.storage.StorageManager;
 import com.azure.resourcemanager.storage.models.StorageAccounts;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
+import com.microsoft.azure.toolkit.lib.common.model.AzResourceGraph;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 
 import javax.annotation.Nonnull;
@@ -52,6 +53,17 @@ public class StorageAccountModule extends AbstractAzResourceModule<StorageAccoun
         return new StorageAccount(r, this);
     }
 
+    @Override
+    protected boolean isResourceGraphSupported() {
+        return true;
+    }
+
+    @Nonnull
+    @Override
+    protected StorageAccount newResource(@Nonnull AzResourceGraph.Record record) {
+        return new StorageAccount(record.getName(), record.getResourceGroup(), this);
+    }
+
     @Nonnull
     @Override
     public String getResourceTypeName() {
@@ -70,6 +70,15 @@ public abstract class AbstractWebAppMojo extends AbstractAppServiceMojo {
     @Parameter(property = "webapp.stopAppDuringDeployment", defaultValue = "false")
     protected boolean stopAppDuringDeployment;
 
+    /**
+     * Boolean flag to skip deploying the artifacts which are unchanged since they were last deployed from this machine.
+     * @since 2.6.0
+     */
+    @Getter
+    @JsonProperty
+    @Parameter(property = "webapp.skipUnchangedArtifacts", defaultValue = "false")
+    protected boolean skipUnchangedArtifacts;
+
     /**
      * Boolean flag to skip the execution of maven plugin for azure webapp
      * @since 0.1.4
@@ -123,7 +123,9 @@ public class DeployMojo extends AbstractWebAppMojo {
     }
 
     private void deploy(WebAppBase<?, ?, ?> target, List<WebAppArtifact> artifacts) {
-        new DeployWebAppTask(target, artifacts, isStopAppDuringDeployment()).doExecute();
+        final DeployWebAppTask task = new DeployWebAppTask(target, artifacts, isStopAppDuringDeployment());
+        task.setSkipUnchangedArtifacts(isSkipUnchangedArtifacts());
+        task.doExecute();
     }
 
     private void deployExternalResources(final WebAppBase<?, ?, ?> target, final List<DeploymentResource> resources) {